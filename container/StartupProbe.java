@@ -0,0 +1,81 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures time-to-first-request and time-to-peak-throughput of a freshly started instance.
+ * Run as a single-file program: java StartupProbe.java <base-url> <start-epoch-millis> [seconds] [concurrency]
+ */
+public class StartupProbe {
+
+    public static void main(String[] args) throws Exception {
+        final String baseUrl = args[0];
+        final long startMillis = Long.parseLong(args[1]);
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        final int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+
+        final HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/greetings/count"))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        while (true) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    break;
+                }
+            } catch (Exception ignored) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        final long firstRequestMillis = System.currentTimeMillis() - startMillis;
+        System.out.printf("time-to-first-request: %d ms%n", firstRequestMillis);
+
+        final LongAdder completed = new LongAdder();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final List<Long> perSecond = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    while (running.get()) {
+                        try {
+                            client.send(request, HttpResponse.BodyHandlers.discarding());
+                            completed.increment();
+                        } catch (Exception ignored) {
+                            // counted as not completed
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int second = 0; second < seconds; second++) {
+                Thread.sleep(1000);
+                perSecond.add(completed.sumThenReset());
+            }
+            running.set(false);
+        }
+
+        final long peak = perSecond.stream().mapToLong(Long::longValue).max().orElse(0);
+        int peakSecond = 0;
+        while (peakSecond < perSecond.size() && perSecond.get(peakSecond) < peak * 0.95) {
+            peakSecond++;
+        }
+        System.out.printf("peak-throughput: %d req/s%n", peak);
+        System.out.printf("time-to-peak-throughput: %d ms (first second within 95%% of peak)%n",
+                firstRequestMillis + (peakSecond + 1) * 1000L);
+        System.out.printf("throughput-per-second: %s%n", perSecond);
+    }
+}
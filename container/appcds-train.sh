@@ -0,0 +1,26 @@
+#!/bin/sh
+# Produces an image whose AppCDS archive was recorded during a warm-up run against a live database,
+# instead of the context-refresh-only archive created by the Containerfile.
+# Usage: appcds-train.sh <image> [target-image]
+# Environment: SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME, SPRING_DATASOURCE_PASSWORD, CONTAINER_CLI
+set -e
+
+IMAGE="${1:?image required}"
+TARGET_IMAGE="${2:-$IMAGE-appcds}"
+CLI="${CONTAINER_CLI:-podman}"
+NAME="appcds-train-$$"
+
+$CLI run -d --name "$NAME" --network host \
+  -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD \
+  "$IMAGE" sh -c 'rm -f app.jsa && exec java $JAVA_OPTS -XX:ArchiveClassesAtExit=app.jsa -jar app.jar'
+
+"$(dirname "$0")/warmup.sh" http://localhost:8080 "${WARMUP_ITERATIONS:-500}"
+
+# A graceful stop lets the JVM run its exit path, which is when the dynamic archive is written
+$CLI stop -t 60 "$NAME"
+$CLI commit \
+  --change 'CMD ["sh", "-c", "java $JAVA_OPTS $CDS_OPTS -jar app.jar"]' \
+  "$NAME" "$TARGET_IMAGE"
+$CLI rm "$NAME"
+
+echo "Created $TARGET_IMAGE with a warmed-up AppCDS archive"
@@ -0,0 +1,27 @@
+#!/bin/sh
+# Builds a CRaC image whose checkpoint is taken after a warm-up run against the greetings endpoints.
+# The Hikari pool is suspended and its connections evicted by Spring Boot before the checkpoint
+# (see application-crac.yml) and reopened after restore.
+# Usage: crac-checkpoint.sh [target-image]
+# Environment: SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME, SPRING_DATASOURCE_PASSWORD, CONTAINER_CLI
+set -e
+
+TARGET_IMAGE="${1:-spring-boot-hello-world-db:crac}"
+CLI="${CONTAINER_CLI:-podman}"
+NAME="crac-checkpoint-$$"
+
+$CLI build -f Containerfile.crac -t "$TARGET_IMAGE-base" "$(dirname "$0")/.."
+
+# CRIU needs extra privileges to dump the process tree
+$CLI run -d --name "$NAME" --network host --privileged \
+  -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD \
+  "$TARGET_IMAGE-base"
+
+"$(dirname "$0")/warmup.sh" http://localhost:8080 "${WARMUP_ITERATIONS:-500}"
+
+$CLI exec "$NAME" jcmd app.jar JDK.checkpoint
+$CLI wait "$NAME" || true
+$CLI commit "$NAME" "$TARGET_IMAGE"
+$CLI rm "$NAME"
+
+echo "Created $TARGET_IMAGE; run it with --privileged (or CAP_CHECKPOINT_RESTORE) to restore"
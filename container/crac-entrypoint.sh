@@ -0,0 +1,12 @@
+#!/bin/sh
+# Starts the application from a CRaC checkpoint when one exists, otherwise performs a regular
+# start that is able to take a checkpoint later (jcmd app.jar JDK.checkpoint).
+set -e
+
+if [ -f "$CRAC_FILES_DIR/core.img" ] || ls "$CRAC_FILES_DIR"/*.img >/dev/null 2>&1; then
+  echo "Restoring application from CRaC checkpoint in $CRAC_FILES_DIR"
+  exec java -XX:CRaCRestoreFrom="$CRAC_FILES_DIR"
+fi
+
+echo "No CRaC checkpoint found, starting application normally"
+exec java $JAVA_OPTS -XX:CRaCCheckpointTo="$CRAC_FILES_DIR" -jar app.jar
@@ -0,0 +1,21 @@
+#!/bin/sh
+# Compares startup behaviour of application images, e.g. plain JVM vs. AppCDS vs. CRaC.
+# Prints time-to-first-request and time-to-peak-throughput for each image.
+# Usage: measure-startup.sh <image> [<image> ...]
+# Environment: SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME, SPRING_DATASOURCE_PASSWORD,
+#              CONTAINER_CLI, PROBE_SECONDS, PROBE_CONCURRENCY, RUN_OPTS (e.g. --privileged for CRaC)
+set -e
+
+CLI="${CONTAINER_CLI:-podman}"
+DIR="$(dirname "$0")"
+
+for IMAGE in "$@"; do
+  NAME="measure-startup-$$"
+  echo "=== $IMAGE"
+  START=$(date +%s%3N)
+  $CLI run -d --name "$NAME" --network host $RUN_OPTS \
+    -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD \
+    "$IMAGE" >/dev/null
+  java "$DIR/StartupProbe.java" http://localhost:8080 "$START" "${PROBE_SECONDS:-60}" "${PROBE_CONCURRENCY:-32}"
+  $CLI rm -f "$NAME" >/dev/null
+done
@@ -0,0 +1,36 @@
+#!/bin/sh
+# Drives the greetings endpoints so that the JIT, Hibernate and Jackson code paths are loaded
+# before an AppCDS archive is dumped or a CRaC checkpoint is taken.
+# Usage: warmup.sh [base-url] [iterations]
+set -e
+
+BASE_URL="${1:-http://localhost:8080}"
+ITERATIONS="${2:-500}"
+
+echo "Waiting for $BASE_URL to accept requests"
+until curl -sf "$BASE_URL/api/hello" >/dev/null; do sleep 0.2; done
+
+echo "Warming up with $ITERATIONS iterations"
+i=0
+while [ "$i" -lt "$ITERATIONS" ]; do
+  ID=$(curl -sf -X POST "$BASE_URL/api/greetings" \
+    -H 'Content-Type: application/json' -H 'Accept: application/json' \
+    -d "{\"message\":\"warmup $i\",\"sender\":\"warmup\",\"recipient\":\"warmup\"}" \
+    | sed -n 's/.*"id":"\([^"]*\)".*/\1/p')
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/$ID" >/dev/null
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/sender/warmup" >/dev/null
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/recipient/warmup" >/dev/null
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/search?message=warmup" >/dev/null
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/between?sender=warmup&recipient=warmup" >/dev/null
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/after?date=2000-01-01T00:00:00" >/dev/null
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/latest/warmup" >/dev/null
+  curl -sf -H 'Accept: application/json' "$BASE_URL/api/greetings/count" >/dev/null
+  curl -sf -I "$BASE_URL/api/greetings/$ID" >/dev/null
+  curl -sf -X PUT "$BASE_URL/api/greetings/$ID" \
+    -H 'Content-Type: application/json' -H 'Accept: application/json' \
+    -d "{\"message\":\"warmup $i updated\",\"sender\":\"warmup\",\"recipient\":\"warmup\"}" >/dev/null
+  curl -sf -X DELETE "$BASE_URL/api/greetings/$ID" >/dev/null
+  i=$((i + 1))
+done
+
+echo "Warm-up finished"
@@ -0,0 +1,40 @@
+#!/bin/sh
+# Quantifies the settings of the high-throughput profile: one load test with defaults, one per setting on its own
+# and one with the whole profile, each compared with the defaults run.
+# Arguments are passed to every run, e.g. ./loadtest/benchmark-jdbc.sh --rows=2000000 --rate=800
+set -eu
+cd "$(dirname "$0")/.."
+
+HIKARI=--spring.datasource.hikari
+PGJDBC=$HIKARI.data-source-properties
+HIBERNATE=--spring.jpa.properties.hibernate
+
+COMMIT=$(git rev-parse --short HEAD)
+if [ -n "$(git status --porcelain --untracked-files=no)" ]; then
+  COMMIT="$COMMIT-dirty"
+fi
+
+run() {
+  label=$1
+  shift
+  echo "=== $label"
+  # Exit status 2 reports a regression against the defaults run, which is a result here, not a failure
+  mvn -B -q -f loadtest/pom.xml exec:java -Dexec.args="$OPTIONS --label=$label $BASELINE -- $*" || [ $? -eq 2 ]
+}
+
+mvn -B -q -f loadtest/pom.xml compile
+OPTIONS="$*"
+BASELINE=""
+run jdbc-defaults
+BASELINE="--baseline=$COMMIT-jdbc-defaults"
+
+run jdbc-prepare-threshold "$PGJDBC.prepareThreshold=2"
+run jdbc-statement-cache "$PGJDBC.preparedStatementCacheQueries=512" "$PGJDBC.preparedStatementCacheSizeMiB=8"
+run jdbc-batch-rewrite "$PGJDBC.reWriteBatchedInserts=true" "$HIBERNATE.jdbc.batch_size=50" \
+  "$HIBERNATE.order_inserts=true" "$HIBERNATE.order_updates=true"
+run jdbc-fetch-size "$PGJDBC.defaultRowFetchSize=500" "$HIBERNATE.jdbc.fetch_size=500"
+run jdbc-no-autocommit "$HIKARI.auto-commit=false" "$HIBERNATE.connection.provider_disables_autocommit=true"
+run jdbc-plan-cache "$HIBERNATE.query.in_clause_parameter_padding=true" "$HIBERNATE.query.plan_cache_max_size=4096"
+run jdbc-profile --spring.profiles.active=high-throughput
+
+echo "Reports: $COMMIT-jdbc-*.json in the results directory"
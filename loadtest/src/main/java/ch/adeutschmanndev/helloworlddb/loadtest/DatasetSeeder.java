@@ -0,0 +1,131 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Bulk-seeds greetings with Zipf-skewed senders and recipients through COPY
+ * The same seed, row count and participant count always produce the same dataset (relative to the seeding time)
+ */
+public final class DatasetSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    private static final int ROWS_PER_COPY = 500_000;
+    private static final int SAMPLE_SIZE = 10_000;
+    private static final int DAYS_OF_HISTORY = 90;
+    private static final String[] WORDS = {
+            "hello", "world", "good", "morning", "evening", "thanks", "for", "the", "update", "see", "you", "soon",
+            "meeting", "today", "tomorrow", "lunch", "coffee", "project", "review", "great", "news", "welcome"
+    };
+
+    private final LoadTestConfig config;
+    private final String jdbcUrl;
+
+    public DatasetSeeder(LoadTestConfig config, String jdbcUrl) {
+        this.config = config;
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    /**
+     * Snapshot of the seeded data the workload draws its parameters from
+     */
+    public record Dataset(List<UUID> sampleIds, LocalDateTime oldest, LocalDateTime newest) {
+    }
+
+    public void seed() throws SQLException, IOException {
+        final SplittableRandom random = new SplittableRandom(config.randomSeed());
+        final ZipfDistribution participants = new ZipfDistribution(config.participants(), config.zipfExponent());
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        final long historySeconds = DAYS_OF_HISTORY * 24L * 3600;
+        final long started = System.nanoTime();
+
+        try (Connection connection = connect()) {
+            for (long offset = 0; offset < config.rows(); offset += ROWS_PER_COPY) {
+                final long batch = Math.min(ROWS_PER_COPY, config.rows() - offset);
+                final PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                        "COPY helloworld.greetings (message, sender, recipient, created_at, updated_at) FROM STDIN WITH (FORMAT csv)",
+                        64 * 1024);
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), 64 * 1024)) {
+                    for (long i = 0; i < batch; i++) {
+                        final String createdAt = now.minusSeconds(random.nextLong(historySeconds)).toString();
+                        writer.write('"');
+                        writer.write(message(random));
+                        writer.write("\",");
+                        writer.write(ZipfDistribution.participant(participants.sample(random)));
+                        writer.write(',');
+                        writer.write(ZipfDistribution.participant(participants.sample(random)));
+                        writer.write(',');
+                        writer.write(createdAt);
+                        writer.write(',');
+                        writer.write(createdAt);
+                        writer.write('\n');
+                    }
+                }
+                log.info("Seeded {} of {} greetings", offset + batch, config.rows());
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE helloworld.greetings");
+                statement.execute("ANALYZE helloworld.conversations");
+            }
+        }
+        log.info("Seeding took {} s", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    public Dataset load() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            final List<UUID> ids = new ArrayList<>(SAMPLE_SIZE);
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT id FROM helloworld.greetings ORDER BY md5(id::text || '" + config.randomSeed() + "') LIMIT "
+                            + SAMPLE_SIZE)) {
+                while (rs.next()) {
+                    ids.add(rs.getObject(1, UUID.class));
+                }
+            }
+            if (ids.isEmpty()) {
+                throw new IllegalStateException("No greetings found; seed the database first");
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT MIN(created_at), MAX(created_at) FROM helloworld.greetings")) {
+                rs.next();
+                return new Dataset(ids, rs.getObject(1, LocalDateTime.class), rs.getObject(2, LocalDateTime.class));
+            }
+        }
+    }
+
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, config.dbUser(), config.dbPassword());
+    }
+
+    // Four to forty words, so message lengths spread over several analytics buckets
+    static String message(SplittableRandom random) {
+        final int words = 4 + (int) Math.min(36, Math.abs(random.nextGaussian() * 8));
+        final StringBuilder message = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                message.append(' ');
+            }
+            message.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return message.toString();
+    }
+}
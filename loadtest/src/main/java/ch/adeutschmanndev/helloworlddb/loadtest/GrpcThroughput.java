@@ -0,0 +1,222 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import ch.adeutschmanndev.helloworlddb.grpc.proto.CreateGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GetGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GreetingsServiceGrpc;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GreetingsServiceGrpc.GreetingsServiceBlockingStub;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.ListGreetingsBySenderRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Throughput of the gRPC API next to the equivalent HTTP routes of the same service process: for each operation,
+ * --concurrency closed-loop clients call it as fast as responses come back over one transport, then over the other.
+ * Reads the same seeded dataset as LoadTest and writes results/&lt;commit&gt;-grpc.json.
+ */
+public final class GrpcThroughput {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcThroughput.class);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private GrpcThroughput() {
+    }
+
+    /**
+     * One call of an operation; returns false when the service rejected or failed it
+     */
+    @FunctionalInterface
+    private interface Call {
+        boolean invoke(RandomGenerator random) throws Exception;
+    }
+
+    /**
+     * Calls per second and latency percentiles in milliseconds of one operation over one transport
+     */
+    public record Result(String operation, String transport, long calls, long errors, double callsPerSecond,
+                         double p50, double p99) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadTestConfig config = LoadTestConfig.parse(args);
+        final String commit = LoadTest.gitCommit() + config.label().map(label -> "-" + label).orElse("");
+        Files.createDirectories(config.resultsDir().resolve(commit));
+
+        PostgreSQLContainer<?> postgres = null;
+        try {
+            final String jdbcUrl;
+            if (config.dbUrl().isPresent()) {
+                jdbcUrl = config.dbUrl().get();
+            } else {
+                postgres = LoadTest.startPostgres(config);
+                jdbcUrl = postgres.getJdbcUrl();
+            }
+
+            // Streams are capped below the pool size by default; the comparison runs every client on both transports
+            final List<String> grpcArgs = List.of("--helloworld.grpc.enabled=true",
+                    "--helloworld.grpc.port=" + config.grpcPort(),
+                    "--helloworld.grpc.max-concurrent-streams=" + config.concurrency());
+            try (ServiceProcess service = ServiceProcess.start(config, jdbcUrl,
+                    config.resultsDir().resolve(commit).resolve("service-grpc.log"), grpcArgs)) {
+                final DatasetSeeder seeder = new DatasetSeeder(config, jdbcUrl);
+                if (config.seedData()) {
+                    seeder.seed();
+                }
+                final Workload workload = new Workload(service.baseUri(), seeder.load(), config);
+                final ManagedChannel channel = Grpc.newChannelBuilder("localhost:" + config.grpcPort(),
+                        InsecureChannelCredentials.create()).build();
+                try {
+                    run(config, commit, workload, GreetingsServiceGrpc.newBlockingStub(channel));
+                } finally {
+                    channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(LoadTestConfig config, String commit, Workload workload, GreetingsServiceBlockingStub stub)
+            throws Exception {
+        final HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        final Map<String, Call> calls = new LinkedHashMap<>();
+        calls.put("get-by-id/http", random -> send(http, Operation.GET_BY_ID.newRequest(workload, random)));
+        calls.put("get-by-id/grpc", random -> grpc(() -> stub.withDeadlineAfter(30, TimeUnit.SECONDS)
+                .getGreeting(GetGreetingRequest.newBuilder().setId(workload.sampleId(random).toString()).build())));
+        calls.put("create/http", random -> send(http, Operation.CREATE.newRequest(workload, random)));
+        calls.put("create/grpc", random -> grpc(() -> stub.withDeadlineAfter(30, TimeUnit.SECONDS)
+                .createGreeting(CreateGreetingRequest.newBuilder()
+                        .setMessage(DatasetSeeder.message(new SplittableRandom(random.nextLong())))
+                        .setSender(workload.participant(random))
+                        .setRecipient(workload.participant(random))
+                        .build())));
+        calls.put("by-sender/http", random -> send(http, Operation.BY_SENDER.newRequest(workload, random)));
+        // Drains the whole stream, like the HTTP route reads the whole list
+        calls.put("by-sender/grpc", random -> grpc(() -> stub.withDeadlineAfter(30, TimeUnit.SECONDS)
+                .listGreetingsBySender(ListGreetingsBySenderRequest.newBuilder()
+                        .setSender(workload.participant(random)).build())
+                .forEachRemaining(greeting -> {
+                })));
+
+        final List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Call> entry : calls.entrySet()) {
+            log.info("{}: warming up for {}", entry.getKey(), config.warmup());
+            measure(entry.getKey(), entry.getValue(), config.warmup(), config.concurrency(), config.randomSeed() + 1);
+            log.info("{}: measuring for {} with {} clients", entry.getKey(), config.duration(), config.concurrency());
+            results.add(measure(entry.getKey(), entry.getValue(), config.duration(), config.concurrency(), config.randomSeed()));
+        }
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commit", commit);
+        report.put("finishedAt", Instant.now());
+        report.put("environment", LoadTest.environment(config));
+        report.put("settings", Map.of("rows", config.rows(), "participants", config.participants(),
+                "concurrency", config.concurrency(), "warmup", config.warmup().toString(),
+                "duration", config.duration().toString()));
+        report.put("results", results);
+        final Path file = config.resultsDir().resolve(commit + "-grpc.json");
+        MAPPER.writeValue(file.toFile(), report);
+        print(results, System.out);
+        log.info("Report written to {}", file);
+    }
+
+    private static Result measure(String name, Call call, Duration duration, int concurrency, long seed)
+            throws InterruptedException {
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final SplittableRandom seeds = new SplittableRandom(seed);
+        final long start = System.nanoTime();
+        final long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                final SplittableRandom random = seeds.split();
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        final long started = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = call.invoke(random);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            log.debug("{} failed: {}", name, e.toString());
+                            ok = false;
+                        }
+                        latencyMicros.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - started) / 1_000));
+                        if (!ok) {
+                            errors.increment();
+                        }
+                    }
+                });
+            }
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        final long total = latencyMicros.getTotalCount();
+        final int slash = name.indexOf('/');
+        return new Result(name.substring(0, slash), name.substring(slash + 1), total, errors.sum(),
+                Math.round((total - errors.sum()) / seconds * 10) / 10.0,
+                latencyMicros.getValueAtPercentile(50) / 1000.0, latencyMicros.getValueAtPercentile(99) / 1000.0);
+    }
+
+    private static boolean send(HttpClient http, HttpRequest request) throws Exception {
+        final int status = http.send(request, BodyHandlers.discarding()).statusCode();
+        return status < 400 || status == 404;
+    }
+
+    private static boolean grpc(Runnable call) {
+        try {
+            call.run();
+            return true;
+        } catch (StatusRuntimeException e) {
+            return e.getStatus().getCode() == Status.Code.NOT_FOUND;
+        }
+    }
+
+    private static void print(List<Result> results, PrintStream out) {
+        out.printf("%n%-12s %-10s %10s %8s %10s %10s%n", "operation", "transport", "calls/s", "errors", "p50 ms", "p99 ms");
+        for (Result result : results) {
+            out.printf("%-12s %-10s %10.1f %8d %10.2f %10.2f%n", result.operation(), result.transport(),
+                    result.callsPerSecond(), result.errors(), result.p50(), result.p99());
+        }
+    }
+}
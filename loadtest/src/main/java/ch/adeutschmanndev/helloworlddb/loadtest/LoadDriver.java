@@ -0,0 +1,147 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule at the configured rate, each on its own virtual
+ * thread, and latency is measured from the scheduled start. A slow server therefore shows up as latency instead of
+ * silently lowering the offered load (no coordinated omission).
+ */
+public final class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    private final Workload workload;
+    private final LoadTestConfig config;
+    private final HttpClient client;
+
+    public LoadDriver(Workload workload, LoadTestConfig config) {
+        this.workload = workload;
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Latencies and outcomes of one operation
+     */
+    public static final class OperationStats {
+
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder failures = new LongAdder();
+    }
+
+    /**
+     * Outcome of a run
+     *
+     * @param dropped Requests not sent because max-in-flight requests were outstanding
+     */
+    public record RunResult(Map<Operation, OperationStats> operations, long dropped, Duration elapsed) {
+    }
+
+    public RunResult run(Duration duration, long seed) throws InterruptedException {
+        final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        workload.weights().keySet().forEach(operation -> stats.put(operation, new OperationStats()));
+
+        final SplittableRandom random = new SplittableRandom(seed);
+        final Semaphore inFlight = new Semaphore(config.maxInFlight());
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        final long durationNanos = duration.toNanos();
+        long dropped = 0;
+
+        final long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i * intervalNanos < durationNanos; i++) {
+                final long intended = start + i * intervalNanos;
+                final long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                final Operation operation = workload.next(random);
+                final HttpRequest request = operation.newRequest(workload, random);
+                if (request == null) {
+                    continue;
+                }
+                if (!inFlight.tryAcquire()) {
+                    dropped++;
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        send(operation, request, intended, stats.get(operation));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return new RunResult(stats, dropped, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void send(Operation operation, HttpRequest request, long intended, OperationStats stats) {
+        try {
+            final int status;
+            switch (operation) {
+                case CREATE -> {
+                    final HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+                    status = response.statusCode();
+                    final Matcher id = ID_PATTERN.matcher(response.body());
+                    if (status == 201 && id.find()) {
+                        workload.addCreatedId(UUID.fromString(id.group(1)));
+                    }
+                }
+                case STREAM -> {
+                    final HttpResponse<InputStream> response = client.send(request, BodyHandlers.ofInputStream());
+                    status = response.statusCode();
+                    response.body().close();
+                }
+                default -> status = client.send(request, BodyHandlers.discarding()).statusCode();
+            }
+            stats.latencyMicros.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - intended) / 1_000));
+
+            if (status == 503 || status == 429) {
+                stats.rejected.increment();
+            } else if (status >= 500) {
+                stats.serverErrors.increment();
+            } else if (status >= 400 && status != 404) {
+                stats.clientErrors.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            stats.failures.increment();
+            log.debug("{} failed: {}", operation, e.toString());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import ch.adeutschmanndev.helloworlddb.loadtest.DatasetSeeder.Dataset;
+import ch.adeutschmanndev.helloworlddb.loadtest.LoadDriver.RunResult;
+import ch.adeutschmanndev.helloworlddb.loadtest.Report.ServiceUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Seeded load test of the service: starts PostgreSQL (Testcontainers, unless --db-url is given) and the service jar,
+ * seeds greetings, drives the operation mix and writes a latency report for the current commit.
+ * Exits with status 2 when p99 latencies regressed against --baseline.
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadTestConfig config = LoadTestConfig.parse(args);
+        final String commit = gitCommit() + config.label().map(label -> "-" + label).orElse("");
+        Files.createDirectories(config.resultsDir().resolve(commit));
+
+        PostgreSQLContainer<?> postgres = null;
+        final int exitCode;
+        try {
+            final String jdbcUrl;
+            if (config.dbUrl().isPresent()) {
+                jdbcUrl = config.dbUrl().get();
+            } else {
+                postgres = startPostgres(config);
+                jdbcUrl = postgres.getJdbcUrl();
+            }
+
+            try (ServiceProcess service = ServiceProcess.start(config, jdbcUrl,
+                    config.resultsDir().resolve(commit).resolve("service.log"),
+                    List.of("--helloworld.grpc.port=" + config.grpcPort()))) {
+                final DatasetSeeder seeder = new DatasetSeeder(config, jdbcUrl);
+                if (config.seedData()) {
+                    seeder.seed();
+                }
+                exitCode = run(config, commit, service, new Workload(service.baseUri(), seeder.load(), config));
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    static PostgreSQLContainer<?> startPostgres(LoadTestConfig config) {
+        final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(config.postgresImage())
+                .withUsername(config.dbUser())
+                .withPassword(config.dbPassword())
+                // Fixed server settings, so results do not depend on the image defaults of the day
+                .withCommand("postgres", "-c", "shared_buffers=256MB", "-c", "max_connections=200",
+                        "-c", "synchronous_commit=on", "-c", "max_wal_size=2GB");
+        postgres.start();
+        return postgres;
+    }
+
+    private static int run(LoadTestConfig config, String commit, ServiceProcess service, Workload workload)
+            throws Exception {
+        // Read before this run's report is written, which replaces the baseline when re-running the same commit
+        final Optional<Report> baseline = config.baseline().isEmpty() ? Optional.empty() : Optional.of(Report.read(
+                config.baseline().get().endsWith(".json")
+                        ? Path.of(config.baseline().get())
+                        : config.resultsDir().resolve(config.baseline().get() + ".json")));
+        final LoadDriver driver = new LoadDriver(workload, config);
+
+        log.info("Warming up for {} at {} requests/s", config.warmup(), config.rate());
+        driver.run(config.warmup(), config.randomSeed() + 1);
+
+        log.info("Measuring for {} at {} requests/s", config.duration(), config.rate());
+        final Duration cpuBefore = service.cpuTime();
+        final long logBytesBefore = service.logBytes();
+        final RunResult result = driver.run(config.duration(), config.randomSeed());
+        final ServiceUsage usage = new ServiceUsage(service.cpuTime().minus(cpuBefore),
+                service.logBytes() - logBytesBefore);
+
+        final Report report = Report.of(commit, result, usage, environment(config), settings(config, workload));
+        report.write(config.resultsDir(), result);
+        report.print(System.out);
+        log.info("Report written to {}", config.resultsDir().resolve(commit + ".json"));
+
+        if (baseline.isEmpty()) {
+            return 0;
+        }
+        final List<String> regressions = report.compare(baseline.get(), config.regressionThreshold(), System.out);
+        if (!regressions.isEmpty()) {
+            log.warn("p99 latency regressed for {}", regressions);
+            return 2;
+        }
+        return 0;
+    }
+
+    static Map<String, Object> environment(LoadTestConfig config) {
+        final Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("java", System.getProperty("java.version"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("cpus", Runtime.getRuntime().availableProcessors());
+        environment.put("database", config.dbUrl().isPresent() ? "external" : config.postgresImage());
+        environment.put("serviceJvmArgs", config.appJvmArgs());
+        environment.put("serviceArgs", config.appArgs());
+        return environment;
+    }
+
+    private static Map<String, Object> settings(LoadTestConfig config, Workload workload) {
+        final Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rows", config.rows());
+        settings.put("participants", config.participants());
+        settings.put("zipfExponent", config.zipfExponent());
+        settings.put("randomSeed", config.randomSeed());
+        settings.put("rate", config.rate());
+        settings.put("warmup", config.warmup().toString());
+        settings.put("duration", config.duration().toString());
+        settings.put("maxInFlight", config.maxInFlight());
+        final Map<String, Integer> mix = new LinkedHashMap<>();
+        workload.weights().forEach((operation, weight) -> mix.put(operation.propertyName(), weight));
+        settings.put("mix", mix);
+        return settings;
+    }
+
+    // Short SHA of HEAD, suffixed with -dirty when the working tree has changes
+    static String gitCommit() throws IOException, InterruptedException {
+        final String sha = git("rev-parse", "--short", "HEAD");
+        if (sha.isEmpty()) {
+            return "unknown";
+        }
+        return git("status", "--porcelain", "--untracked-files=no").isEmpty() ? sha : sha + "-dirty";
+    }
+
+    private static String git(String... args) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        final String output = new String(process.getInputStream().readAllBytes()).trim();
+        return process.waitFor() == 0 ? output : "";
+    }
+}
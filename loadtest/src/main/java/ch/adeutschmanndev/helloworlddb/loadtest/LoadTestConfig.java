@@ -0,0 +1,115 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Load test settings, given as --name=value arguments; arguments after a lone -- are passed to the service
+ * concurrency (closed-loop clients per operation) is used by GrpcThroughput only
+ */
+public record LoadTestConfig(
+        Path appJar,
+        String appJvmArgs,
+        List<String> appArgs,
+        int appPort,
+        int grpcPort,
+        String postgresImage,
+        Optional<String> dbUrl,
+        String dbUser,
+        String dbPassword,
+        boolean seedData,
+        long rows,
+        int participants,
+        double zipfExponent,
+        long randomSeed,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        int concurrency,
+        Optional<Path> mix,
+        Path resultsDir,
+        Optional<String> label,
+        Optional<String> baseline,
+        double regressionThreshold) {
+
+    public static LoadTestConfig parse(String[] args) {
+        final Map<String, String> values = new HashMap<>();
+        final List<String> appArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if (arg.equals("--")) {
+                appArgs.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                break;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        final LoadTestConfig config = new LoadTestConfig(
+                Optional.ofNullable(values.remove("app-jar")).map(Path::of).orElseGet(LoadTestConfig::findAppJar),
+                take(values, "app-jvm-args", "-Xms512m -Xmx512m"),
+                List.copyOf(appArgs),
+                Integer.parseInt(take(values, "app-port", "18080")),
+                Integer.parseInt(take(values, "grpc-port", "19090")),
+                take(values, "postgres-image", "postgres:17-alpine"),
+                Optional.ofNullable(values.remove("db-url")),
+                take(values, "db-user", "postgres"),
+                take(values, "db-password", "postgres"),
+                Boolean.parseBoolean(take(values, "seed-data", "true")),
+                Long.parseLong(take(values, "rows", "1000000")),
+                Integer.parseInt(take(values, "participants", "10000")),
+                Double.parseDouble(take(values, "zipf-exponent", "1.1")),
+                Long.parseLong(take(values, "random-seed", "42")),
+                Integer.parseInt(take(values, "rate", "500")),
+                Duration.parse("PT" + take(values, "warmup", "30s")),
+                Duration.parse("PT" + take(values, "duration", "120s")),
+                Integer.parseInt(take(values, "max-in-flight", "1000")),
+                Integer.parseInt(take(values, "concurrency", "8")),
+                Optional.ofNullable(values.remove("mix")).map(Path::of),
+                Path.of(take(values, "results-dir", "loadtest/results")),
+                Optional.ofNullable(values.remove("label")),
+                Optional.ofNullable(values.remove("baseline")),
+                Double.parseDouble(take(values, "regression-threshold", "0.10")));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return config;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        final String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    // The service jar built by the root project, when run from the repository root or from loadtest/
+    private static Path findAppJar() {
+        for (Path dir : new Path[]{Path.of("target"), Path.of("../target")}) {
+            if (Files.isDirectory(dir)) {
+                try (var files = Files.list(dir)) {
+                    final Optional<Path> jar = files
+                            .filter(file -> file.getFileName().toString().matches("helloworlddb-.*\\.jar"))
+                            .findFirst();
+                    if (jar.isPresent()) {
+                        return jar.get();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        throw new IllegalStateException("Service jar not found; run 'mvn package' in the repository root or pass --app-jar");
+    }
+}
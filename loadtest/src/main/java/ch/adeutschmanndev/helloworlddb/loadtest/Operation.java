@@ -0,0 +1,99 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Every route of the service, with the request the workload sends for it
+ * Property names in workload.properties are the lower-case, hyphenated constant names
+ */
+public enum Operation {
+
+    HELLO((w, r) -> get(w, "/api/hello")),
+    CREATE((w, r) -> json(w, "/api/greetings").POST(BodyPublishers.ofString(w.greetingJson(r)))),
+    GET_ALL((w, r) -> get(w, "/api/greetings")),
+    GET_BY_ID((w, r) -> get(w, "/api/greetings/" + w.sampleId(r))),
+    HEAD((w, r) -> request(w, "/api/greetings/" + w.sampleId(r)).method("HEAD", BodyPublishers.noBody())),
+    UPDATE((w, r) -> json(w, "/api/greetings/" + w.sampleId(r)).PUT(BodyPublishers.ofString(w.greetingJson(r)))),
+    // Deletes greetings created by this run, so the seeded dataset stays intact
+    DELETE((w, r) -> {
+        final UUID id = w.pollCreatedId();
+        return id == null ? null : request(w, "/api/greetings/" + id).DELETE();
+    }),
+    BY_SENDER((w, r) -> get(w, "/api/greetings/sender/" + w.participant(r))),
+    BY_RECIPIENT((w, r) -> get(w, "/api/greetings/recipient/" + w.participant(r))),
+    // Measures the time to the response headers of the event stream; the connection is closed right after
+    STREAM((w, r) -> request(w, "/api/greetings/recipient/" + w.participant(r) + "/stream")
+            .header("Accept", "text/event-stream")),
+    SEARCH((w, r) -> get(w, "/api/greetings/search?message=" + w.searchPhrase(r))),
+    BETWEEN((w, r) -> get(w, "/api/greetings/between?sender=" + w.participant(r) + "&recipient=" + w.participant(r))),
+    AFTER((w, r) -> get(w, "/api/greetings/after?date=" + LocalDateTime.now().minusSeconds(30).truncatedTo(ChronoUnit.SECONDS))),
+    LATEST((w, r) -> get(w, "/api/greetings/latest/" + w.participant(r))),
+    COUNT((w, r) -> get(w, "/api/greetings/count")),
+    CONVERSATIONS((w, r) -> get(w, "/api/conversations?participant=" + w.participant(r) + "&limit=20")),
+    THREAD((w, r) -> get(w, "/api/conversations/" + w.participant(r) + "/" + w.participant(r) + "?limit=20")),
+    ANALYTICS_VOLUME((w, r) -> get(w, "/api/analytics/volume?granularity=hour")),
+    ANALYTICS_TOP_SENDERS((w, r) -> get(w, "/api/analytics/top-senders?limit=10")),
+    ANALYTICS_MESSAGE_LENGTHS((w, r) -> get(w, "/api/analytics/message-lengths")),
+    EXPORT((w, r) -> {
+        final LocalDateTime from = w.randomInstant(r);
+        return request(w, "/api/greetings/export?from=" + from + "&to=" + from.plusMinutes(10));
+    }),
+    IMPORT((w, r) -> request(w, "/api/greetings/import")
+            .header("Content-Type", "text/csv")
+            .POST(BodyPublishers.ofString(w.importCsv(r)))),
+    IMPORTS((w, r) -> get(w, "/api/greetings/imports")),
+    // Client errors (404 and 400), weighted 0 by default; errors.properties drives an error-heavy mix
+    GET_MISSING((w, r) -> get(w, "/api/greetings/" + randomId(r))),
+    UPDATE_MISSING((w, r) -> json(w, "/api/greetings/" + randomId(r)).PUT(BodyPublishers.ofString(w.greetingJson(r)))),
+    DELETE_MISSING((w, r) -> request(w, "/api/greetings/" + randomId(r)).DELETE()),
+    INVALID_ID((w, r) -> get(w, "/api/greetings/not-a-uuid-" + r.nextInt(1000))),
+    INVALID_DATE((w, r) -> get(w, "/api/greetings/after?date=yesterday")),
+    INVALID_EXPORT((w, r) -> request(w, "/api/greetings/export?format=xml"));
+
+    private final BiFunction<Workload, RandomGenerator, HttpRequest.Builder> requestFactory;
+
+    Operation(BiFunction<Workload, RandomGenerator, HttpRequest.Builder> requestFactory) {
+        this.requestFactory = requestFactory;
+    }
+
+    public String propertyName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Builds the next request, or null when the operation has nothing to act on yet
+     */
+    HttpRequest newRequest(Workload workload, RandomGenerator random) {
+        final HttpRequest.Builder builder = requestFactory.apply(workload, random);
+        return builder == null ? null : builder.build();
+    }
+
+    private static UUID randomId(RandomGenerator random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static HttpRequest.Builder request(Workload workload, String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(workload.baseUri() + pathAndQuery)).timeout(Workload.REQUEST_TIMEOUT);
+    }
+
+    private static HttpRequest.Builder get(Workload workload, String pathAndQuery) {
+        return request(workload, pathAndQuery).header("Accept", "application/json");
+    }
+
+    private static HttpRequest.Builder json(Workload workload, String path) {
+        return get(workload, path).header("Content-Type", "application/json");
+    }
+}
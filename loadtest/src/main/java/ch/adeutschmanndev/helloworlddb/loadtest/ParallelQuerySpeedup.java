@@ -0,0 +1,155 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the full-table routes (search, created-after, count) with parallel queries enabled and disabled
+ * The service is started once per mode against the same seeded dataset; one client calls each route in turn, so every
+ * split query gets the whole slice budget. Writes results/&lt;commit&gt;-parallel-query.json
+ */
+public final class ParallelQuerySpeedup {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelQuerySpeedup.class);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final List<Operation> OPERATIONS = List.of(Operation.SEARCH, Operation.AFTER, Operation.COUNT);
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ParallelQuerySpeedup() {
+    }
+
+    /**
+     * Latency percentiles in milliseconds of one operation with parallel queries enabled (split) or disabled (unsplit)
+     */
+    public record Result(String operation, String mode, long calls, long errors, double mean, double p50, double p99) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadTestConfig config = LoadTestConfig.parse(args);
+        final String commit = LoadTest.gitCommit() + config.label().map(label -> "-" + label).orElse("");
+        Files.createDirectories(config.resultsDir().resolve(commit));
+
+        PostgreSQLContainer<?> postgres = null;
+        try {
+            final String jdbcUrl;
+            if (config.dbUrl().isPresent()) {
+                jdbcUrl = config.dbUrl().get();
+            } else {
+                postgres = LoadTest.startPostgres(config);
+                jdbcUrl = postgres.getJdbcUrl();
+            }
+
+            final List<Result> results = new ArrayList<>();
+            boolean seeded = !config.seedData();
+            for (boolean enabled : new boolean[]{true, false}) {
+                final String mode = enabled ? "split" : "unsplit";
+                try (ServiceProcess service = ServiceProcess.start(config, jdbcUrl,
+                        config.resultsDir().resolve(commit).resolve("service-" + mode + ".log"),
+                        List.of("--helloworld.grpc.port=" + config.grpcPort(),
+                                "--helloworld.parallel-query.enabled=" + enabled))) {
+                    final DatasetSeeder seeder = new DatasetSeeder(config, jdbcUrl);
+                    if (!seeded) {
+                        seeder.seed();
+                        seeded = true;
+                    }
+                    final Workload workload = new Workload(service.baseUri(), seeder.load(), config);
+                    for (Operation operation : OPERATIONS) {
+                        log.info("{} ({}): warming up for {}", operation.propertyName(), mode, config.warmup());
+                        measure(workload, operation, mode, config.warmup(), config.randomSeed() + 1);
+                        log.info("{} ({}): measuring for {}", operation.propertyName(), mode, config.duration());
+                        results.add(measure(workload, operation, mode, config.duration(), config.randomSeed()));
+                    }
+                }
+            }
+
+            final Map<String, Object> report = new LinkedHashMap<>();
+            report.put("commit", commit);
+            report.put("finishedAt", Instant.now());
+            report.put("environment", LoadTest.environment(config));
+            report.put("settings", Map.of("rows", config.rows(), "participants", config.participants(),
+                    "warmup", config.warmup().toString(), "duration", config.duration().toString(),
+                    "appArgs", config.appArgs()));
+            report.put("results", results);
+            report.put("speedup", speedups(results));
+            final Path file = config.resultsDir().resolve(commit + "-parallel-query.json");
+            MAPPER.writeValue(file.toFile(), report);
+            print(results, System.out);
+            log.info("Report written to {}", file);
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Result measure(Workload workload, Operation operation, String mode, Duration duration, long seed)
+            throws Exception {
+        final HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        final Histogram latencyMicros = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final SplittableRandom random = new SplittableRandom(seed);
+        long errors = 0;
+        final long deadline = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            final long started = System.nanoTime();
+            final int status = http.send(operation.newRequest(workload, random), BodyHandlers.discarding()).statusCode();
+            latencyMicros.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - started) / 1_000));
+            if (status >= 400) {
+                errors++;
+            }
+        }
+        return new Result(operation.propertyName(), mode, latencyMicros.getTotalCount(), errors,
+                Math.round(latencyMicros.getMean()) / 1000.0,
+                latencyMicros.getValueAtPercentile(50) / 1000.0, latencyMicros.getValueAtPercentile(99) / 1000.0);
+    }
+
+    /**
+     * Median latency unsplit divided by median latency split, per operation
+     */
+    private static Map<String, Double> speedups(List<Result> results) {
+        final Map<String, Double> speedups = new LinkedHashMap<>();
+        for (Result split : results) {
+            if (split.mode().equals("split")) {
+                results.stream()
+                        .filter(unsplit -> unsplit.mode().equals("unsplit") && unsplit.operation().equals(split.operation()))
+                        .findFirst()
+                        .ifPresent(unsplit -> speedups.put(split.operation(),
+                                Math.round(unsplit.p50() / split.p50() * 100) / 100.0));
+            }
+        }
+        return speedups;
+    }
+
+    private static void print(List<Result> results, PrintStream out) {
+        out.printf("%n%-10s %-8s %8s %8s %10s %10s %10s%n", "operation", "mode", "calls", "errors", "mean ms", "p50 ms", "p99 ms");
+        for (Result result : results) {
+            out.printf("%-10s %-8s %8d %8d %10.2f %10.2f %10.2f%n", result.operation(), result.mode(), result.calls(),
+                    result.errors(), result.mean(), result.p50(), result.p99());
+        }
+        speedups(results).forEach((operation, speedup) -> out.printf("%s speedup (p50): %.2fx%n", operation, speedup));
+    }
+}
@@ -0,0 +1,156 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import ch.adeutschmanndev.helloworlddb.loadtest.LoadDriver.OperationStats;
+import ch.adeutschmanndev.helloworlddb.loadtest.LoadDriver.RunResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency report of a run, stored per commit so runs of different commits can be compared
+ */
+public record Report(
+        String commit,
+        Instant finishedAt,
+        Map<String, Object> environment,
+        Map<String, Object> settings,
+        long dropped,
+        double throughput,
+        ServiceUsage service,
+        Map<String, OperationReport> operations) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    /**
+     * Latency percentiles in milliseconds and outcome counts of one operation
+     */
+    public record OperationReport(long count, long clientErrors, long rejected, long serverErrors, long failures,
+                                  double p50, double p90, double p99, double p999, double max) {
+
+        static OperationReport of(OperationStats stats) {
+            final Histogram histogram = stats.latencyMicros;
+            return new OperationReport(histogram.getTotalCount(), stats.clientErrors.sum(), stats.rejected.sum(),
+                    stats.serverErrors.sum(), stats.failures.sum(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    /**
+     * CPU time and log output of the service process during the measured run, also per request
+     * Absent in reports written before it was recorded
+     */
+    public record ServiceUsage(double cpuSeconds, long logBytes, double cpuMicrosPerRequest, double logBytesPerRequest) {
+
+        ServiceUsage(Duration cpuTime, long logBytes) {
+            this(cpuTime.toNanos() / 1e9, logBytes, 0, 0);
+        }
+
+        private ServiceUsage perRequest(long requests) {
+            return requests == 0 ? this : new ServiceUsage(cpuSeconds, logBytes,
+                    Math.round(cpuSeconds * 1e6 / requests * 10) / 10.0, Math.round(logBytes * 10.0 / requests) / 10.0);
+        }
+    }
+
+    public static Report of(String commit, RunResult result, ServiceUsage usage,
+                            Map<String, Object> environment, Map<String, Object> settings) {
+        final Map<String, OperationReport> operations = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Operation, OperationStats> entry : result.operations().entrySet()) {
+            final OperationReport report = OperationReport.of(entry.getValue());
+            operations.put(entry.getKey().propertyName(), report);
+            total += report.count();
+        }
+        return new Report(commit, Instant.now(), environment, settings, result.dropped(),
+                total / (result.elapsed().toNanos() / 1e9), usage.perRequest(total), operations);
+    }
+
+    /**
+     * Writes {commit}.json and one HdrHistogram percentile distribution per operation to {commit}/
+     */
+    public void write(Path resultsDir, RunResult result) throws IOException {
+        final Path histograms = resultsDir.resolve(commit);
+        Files.createDirectories(histograms);
+        MAPPER.writeValue(resultsDir.resolve(commit + ".json").toFile(), this);
+
+        for (Map.Entry<Operation, OperationStats> entry : result.operations().entrySet()) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(histograms.resolve(entry.getKey().propertyName() + ".hgrm")))) {
+                entry.getValue().latencyMicros.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    public static Report read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), Report.class);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%nCommit %s, %.0f requests/s, %d dropped%n", commit, throughput, dropped);
+        if (service != null) {
+            out.printf("Service: %.1f s CPU (%.1f us/request), %d bytes logged (%.1f/request)%n", service.cpuSeconds(),
+                    service.cpuMicrosPerRequest(), service.logBytes(), service.logBytesPerRequest());
+        }
+        out.printf("%-26s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "503/429", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        operations.forEach((name, op) -> out.printf("%-26s %9d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, op.count(), op.clientErrors() + op.serverErrors() + op.failures(), op.rejected(),
+                op.p50(), op.p90(), op.p99(), op.p999(), op.max()));
+    }
+
+    /**
+     * Prints p50/p99 changes against a baseline and returns the operations whose p99 regressed beyond the threshold
+     * Differences below one millisecond are treated as noise
+     */
+    public List<String> compare(Report baseline, double threshold, PrintStream out) {
+        final List<String> regressions = new ArrayList<>();
+        out.printf("%nCompared with %s (threshold %.0f%%)%n", baseline.commit(), threshold * 100);
+        if (service != null && baseline.service() != null) {
+            out.printf("Service CPU per request %.1f -> %.1f us (%.0f%%), log bytes per request %.1f -> %.1f (%.0f%%)%n",
+                    baseline.service().cpuMicrosPerRequest(), service.cpuMicrosPerRequest(),
+                    change(baseline.service().cpuMicrosPerRequest(), service.cpuMicrosPerRequest()),
+                    baseline.service().logBytesPerRequest(), service.logBytesPerRequest(),
+                    change(baseline.service().logBytesPerRequest(), service.logBytesPerRequest()));
+        }
+        out.printf("%-26s %11s %11s %8s %11s %11s %8s%n", "operation", "p50 before", "p50 now", "change",
+                "p99 before", "p99 now", "change");
+
+        operations.forEach((name, now) -> {
+            final OperationReport before = baseline.operations().get(name);
+            if (before == null || before.count() == 0 || now.count() == 0) {
+                return;
+            }
+            final boolean regressed = now.p99() > before.p99() * (1 + threshold) && now.p99() - before.p99() >= 1.0;
+            out.printf("%-26s %11.2f %11.2f %7.0f%% %11.2f %11.2f %7.0f%%%s%n", name,
+                    before.p50(), now.p50(), change(before.p50(), now.p50()),
+                    before.p99(), now.p99(), change(before.p99(), now.p99()), regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions.add(name);
+            }
+        });
+        return regressions;
+    }
+
+    private static double change(double before, double now) {
+        return before == 0 ? 0 : (now - before) / before * 100;
+    }
+}
@@ -0,0 +1,123 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service under test, started from its jar in a separate JVM so its heap and threads are not shared with the driver
+ */
+public final class ServiceProcess implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceProcess.class);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Process process;
+    private final String baseUri;
+    private final Path logFile;
+
+    private ServiceProcess(Process process, String baseUri, Path logFile) {
+        this.process = process;
+        this.baseUri = baseUri;
+        this.logFile = logFile;
+    }
+
+    public static ServiceProcess start(LoadTestConfig config, String jdbcUrl, Path logFile)
+            throws IOException, InterruptedException {
+        return start(config, jdbcUrl, logFile, List.of());
+    }
+
+    /**
+     * @param defaultArgs Service arguments applied unless the same property is given in the configured service arguments
+     */
+    public static ServiceProcess start(LoadTestConfig config, String jdbcUrl, Path logFile, List<String> defaultArgs)
+            throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(config.appJvmArgs().trim().split("\\s+")));
+        command.addAll(List.of("-jar", config.appJar().toString(), "--server.port=" + config.appPort()));
+        // A single load generator would otherwise be throttled as one client
+        if (config.appArgs().stream().noneMatch(arg -> arg.startsWith("--helloworld.rate-limit.enabled="))) {
+            command.add("--helloworld.rate-limit.enabled=false");
+        }
+        for (String arg : defaultArgs) {
+            final String property = arg.substring(0, arg.indexOf('=') + 1);
+            if (config.appArgs().stream().noneMatch(appArg -> appArg.startsWith(property))) {
+                command.add(arg);
+            }
+        }
+        command.addAll(config.appArgs());
+
+        final ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile());
+        builder.environment().put("SPRING_DATASOURCE_URL", jdbcUrl);
+        builder.environment().put("SPRING_DATASOURCE_USERNAME", config.dbUser());
+        builder.environment().put("SPRING_DATASOURCE_PASSWORD", config.dbPassword());
+
+        log.info("Starting {} (log: {})", config.appJar(), logFile);
+        final ServiceProcess service = new ServiceProcess(builder.start(), "http://localhost:" + config.appPort(), logFile);
+        service.awaitHealthy();
+        return service;
+    }
+
+    public String baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * CPU time the service process has used so far, all threads together
+     */
+    public Duration cpuTime() {
+        return process.info().totalCpuDuration().orElse(Duration.ZERO);
+    }
+
+    /**
+     * Bytes the service has logged so far (stdout and stderr)
+     */
+    public long logBytes() throws IOException {
+        return Files.size(logFile);
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        final HttpClient client = HttpClient.newHttpClient();
+        final long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Service exited with code " + process.exitValue());
+            }
+            try {
+                final var response = client.send(HttpRequest.newBuilder(URI.create(baseUri + "/actuator/health")).build(),
+                        BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    log.info("Service is up at {}", baseUri);
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Service did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
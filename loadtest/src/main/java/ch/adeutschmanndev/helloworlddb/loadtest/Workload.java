@@ -0,0 +1,130 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import ch.adeutschmanndev.helloworlddb.loadtest.DatasetSeeder.Dataset;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted operation mix and the request parameters drawn from the seeded dataset
+ */
+public final class Workload {
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int IMPORT_ROWS = 100;
+    private static final String[] SEARCH_PHRASES = {"good morning", "see you soon", "great news", "coffee today", "review project"};
+
+    private final String baseUri;
+    private final Dataset dataset;
+    private final ZipfDistribution participants;
+    private final Map<Operation, Integer> weights;
+    private final Operation[] schedule;
+    private final Queue<UUID> createdIds = new ConcurrentLinkedQueue<>();
+
+    public Workload(String baseUri, Dataset dataset, LoadTestConfig config) {
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.participants = new ZipfDistribution(config.participants(), config.zipfExponent());
+        this.weights = loadWeights(config.mix());
+
+        // One slot per unit of weight: picking an operation is a single array lookup
+        this.schedule = weights.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+        if (schedule.length == 0) {
+            throw new IllegalArgumentException("The operation mix has no operation with a positive weight");
+        }
+    }
+
+    public Map<Operation, Integer> weights() {
+        return weights;
+    }
+
+    public Operation next(RandomGenerator random) {
+        return schedule[random.nextInt(schedule.length)];
+    }
+
+    String baseUri() {
+        return baseUri;
+    }
+
+    UUID sampleId(RandomGenerator random) {
+        return dataset.sampleIds().get(random.nextInt(dataset.sampleIds().size()));
+    }
+
+    String participant(RandomGenerator random) {
+        return ZipfDistribution.participant(participants.sample(random));
+    }
+
+    String searchPhrase(RandomGenerator random) {
+        return Operation.encode(SEARCH_PHRASES[random.nextInt(SEARCH_PHRASES.length)]);
+    }
+
+    LocalDateTime randomInstant(RandomGenerator random) {
+        final long seconds = ChronoUnit.SECONDS.between(dataset.oldest(), dataset.newest());
+        return dataset.oldest().plusSeconds(seconds > 0 ? random.nextLong(seconds) : 0);
+    }
+
+    String greetingJson(RandomGenerator random) {
+        return "{\"message\":\"" + DatasetSeeder.message(new SplittableRandom(random.nextLong()))
+                + "\",\"sender\":\"" + participant(random) + "\",\"recipient\":\"" + participant(random) + "\"}";
+    }
+
+    String importCsv(RandomGenerator random) {
+        final SplittableRandom messages = new SplittableRandom(random.nextLong());
+        final StringBuilder csv = new StringBuilder("message,sender,recipient\n");
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            csv.append('"').append(DatasetSeeder.message(messages)).append("\",")
+                    .append(participant(random)).append(',').append(participant(random)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    void addCreatedId(UUID id) {
+        createdIds.add(id);
+    }
+
+    UUID pollCreatedId() {
+        return createdIds.poll();
+    }
+
+    private static Map<Operation, Integer> loadWeights(Optional<Path> mix) {
+        final Properties properties = new Properties();
+        try (InputStream in = mix.isPresent()
+                ? Files.newInputStream(mix.get())
+                : Workload.class.getResourceAsStream("/workload.properties")) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            final int weight = Integer.parseInt(properties.getProperty(operation.propertyName(), "0").strip());
+            if (weight > 0) {
+                weights.put(operation, weight);
+            }
+            properties.remove(operation.propertyName());
+        }
+        if (!properties.isEmpty()) {
+            throw new IllegalArgumentException("Unknown operations in mix: " + properties.keySet());
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,36 @@
+package ch.adeutschmanndev.helloworlddb.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf distribution over ranks 1..n: rank k is drawn with probability proportional to 1 / k^exponent
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int sample(RandomGenerator random) {
+        final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min((index >= 0 ? index : -index - 1) + 1, cumulative.length);
+    }
+
+    /**
+     * Participant name of a rank; rank 1 is the most active participant
+     */
+    public static String participant(int rank) {
+        return "user" + rank;
+    }
+}
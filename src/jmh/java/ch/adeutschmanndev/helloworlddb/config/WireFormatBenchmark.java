@@ -0,0 +1,89 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import ch.adeutschmanndev.helloworlddb.model.dto.GreetingResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization time of greeting payloads with the mappers of the negotiated wire formats; the payload size of
+ * each combination is printed once per trial
+ * Run with: mvn -Pjmh compile exec:exec -Djmh.benchmarks=WireFormatBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "10000"})
+    private int greetings;
+
+    private ObjectMapper mapper;
+    private Object payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final WireFormatConfig config = new WireFormatConfig();
+        // Each mapper gets its own builder, like the prototype-scoped builder bean of the application
+        mapper = switch (format) {
+            case "json" -> applicationBuilder().build();
+            case "cbor" -> config.cborHttpMessageConverter(applicationBuilder()).getObjectMapper();
+            case "smile" -> config.smileHttpMessageConverter(applicationBuilder()).getObjectMapper();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+
+        final SplittableRandom random = new SplittableRandom(42);
+        final List<GreetingResponseDto> dtos = new ArrayList<>(greetings);
+        final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < greetings; i++) {
+            final LocalDateTime createdAt = start.plusSeconds(random.nextInt(30_000_000)).plusNanos(random.nextInt(1_000_000) * 1000L);
+            dtos.add(GreetingResponseDto.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .message("Hello from sender " + random.nextInt(1000) + ", have a nice day!")
+                    .sender("sender-" + random.nextInt(1000))
+                    .recipient("recipient-" + random.nextInt(1000))
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+        }
+        // A single greeting is sent as an object, several as a list, like the greeting routes do
+        payload = greetings == 1 ? dtos.get(0) : dtos;
+
+        System.out.printf("%n%s, %d greeting(s): %d bytes%n", format, greetings, mapper.writeValueAsBytes(payload).length);
+    }
+
+    // Spring Boot's defaults for the application's Jackson2ObjectMapperBuilder
+    private static Jackson2ObjectMapperBuilder applicationBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(payload);
+    }
+}
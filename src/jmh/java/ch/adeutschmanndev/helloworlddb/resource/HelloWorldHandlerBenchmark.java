@@ -0,0 +1,85 @@
+package ch.adeutschmanndev.helloworlddb.resource;
+
+import ch.adeutschmanndev.helloworlddb.model.dto.HelloWorldResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/hello response written to a servlet response: the former handler (new HelloWorldResponse,
+ * content negotiation and Jackson per request) against the pre-serialized body of HelloWorldHandler
+ * Run with: mvn -Pjmh compile exec:exec -Djmh.benchmarks=HelloWorldHandlerBenchmark -Djmh.args="-prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HelloWorldHandlerBenchmark {
+
+    private HelloWorldHandler handler;
+    private ServerResponse.Context context;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final List<HttpMessageConverter<?>> converters = List.of(new MappingJackson2HttpMessageConverter(objectMapper));
+        handler = new HelloWorldHandler(objectMapper);
+        context = () -> converters;
+        request = new MockHttpServletRequest("GET", "/api/hello");
+        request.addHeader("Accept", MediaType.APPLICATION_JSON_VALUE);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public int responseReset() {
+        // Baseline: the cost of reusing the mock response, included in both handlers below
+        reset();
+        return response.getContentLength();
+    }
+
+    @Benchmark
+    public int serializedPerRequest() throws Exception {
+        // GET /api/hello before the pre-serialized body
+        reset();
+        ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new HelloWorldResponse("Hello World"))
+                .writeTo(request, response, context);
+        return response.getContentLength();
+    }
+
+    @Benchmark
+    public int preSerialized() throws Exception {
+        reset();
+        handler.hello(null).writeTo(request, response, context);
+        return response.getContentLength();
+    }
+
+    private void reset() {
+        response.setCommitted(false);
+        response.reset();
+    }
+}
@@ -0,0 +1,99 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path cost of RateLimitFilter: route matching plus one permit from a client's bucket
+ * Run with: mvn -Pjmh compile exec:exec
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private RateLimiter.LimitedRoute route;
+    private PathContainer path;
+    private String[] clients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final RateLimitProperties.Route search = new RateLimitProperties.Route();
+        search.setName("search");
+        search.setMethod("GET");
+        search.setPath("/api/greetings/search");
+        // High enough that the allowed path is measured; throttling takes the same CAS loop
+        search.setRefillPerSecond(1_000_000_000);
+        search.setCapacity(1_000);
+
+        final RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(search));
+        rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+        route = rateLimiter.match("GET", PathContainer.parsePath("/api/greetings/search"));
+        path = PathContainer.parsePath("/api/greetings/search");
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private int next;
+
+        private String next(String[] clients) {
+            next = (next + 1) % clients.length;
+            return clients[next];
+        }
+    }
+
+    @Benchmark
+    public RateLimiter.LimitedRoute matchRoute() {
+        return rateLimiter.match("GET", path);
+    }
+
+    @Benchmark
+    public long acquireSingleClient() {
+        return rateLimiter.tryAcquire(route, clients[0]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long acquireSingleClientContended() {
+        return rateLimiter.tryAcquire(route, clients[0]);
+    }
+
+    @Benchmark
+    public long acquireManyClients(Client client) {
+        return rateLimiter.tryAcquire(route, client.next(clients));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long acquireManyClientsContended(Client client) {
+        return rateLimiter.tryAcquire(route, client.next(clients));
+    }
+}
@@ -0,0 +1,28 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the incremental analytics rollups
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.analytics")
+public class AnalyticsProperties {
+
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of greeting changes folded into the rollups per transaction
+     */
+    private int batchSize = 50_000;
+
+    /**
+     * Width of the message length buckets; changing it requires rebuilding greetings_length_rollup from greetings
+     */
+    private int lengthBucketWidth = 50;
+}
@@ -0,0 +1,26 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import com.netflix.concurrency.limits.limit.Gradient2Limit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.ServerRequest;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public SimpleLimiter<ServerRequest> greetingsConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return SimpleLimiter.newBuilder()
+                .named("greetings")
+                .limit(Gradient2Limit.newBuilder()
+                        .initialLimit(properties.getInitialLimit())
+                        .minLimit(properties.getMinLimit())
+                        .maxConcurrency(properties.getMaxLimit())
+                        .rttTolerance(properties.getRttTolerance())
+                        .smoothing(properties.getSmoothing())
+                        .longWindow(properties.getLongWindow())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the adaptive (gradient) concurrency limiter in front of the Greetings API routes
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * Tolerated ratio between the current and the long-term request latency before the limit shrinks
+     */
+    private double rttTolerance = 1.5;
+
+    private double smoothing = 0.2;
+
+    /**
+     * Number of samples in the long-term latency average
+     */
+    private int longWindow = 600;
+}
@@ -0,0 +1,17 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the bulk greetings export
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.export")
+public class ExportProperties {
+
+    /**
+     * Maximum number of exports running at once; each holds a pool connection for its whole COPY
+     */
+    private int maxConcurrent = 2;
+}
@@ -0,0 +1,32 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import ch.adeutschmanndev.helloworlddb.jfr.RepositoryEventInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds the JFR repository events to the Spring Data repositories of the primary database
+ * The repositories of additional shards get them in ShardingConfig
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+    // Static and reading the shard name from the environment, so the post-processor does not initialize other beans early
+    @Bean
+    public static BeanPostProcessor repositoryEventPostProcessor(Environment environment) {
+        final String primaryShard = environment.getProperty("helloworld.sharding.primary-name", "primary");
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor(RepositoryEventInterceptor.postProcessor(primaryShard)));
+                }
+                return bean;
+            }
+        };
+    }
+}
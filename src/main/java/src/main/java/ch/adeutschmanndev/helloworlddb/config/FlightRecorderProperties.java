@@ -0,0 +1,47 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the continuous flight recording and the flightrecording actuator endpoint
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.flight-recorder")
+public class FlightRecorderProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * JFR settings the recording starts from: "default" (about 1% overhead) or "profile" (more detail, about 2%)
+     */
+    private String settings = "default";
+
+    /**
+     * Recorded data older than this is discarded; also the longest window the endpoint can return
+     */
+    private Duration maxAge = Duration.ofMinutes(15);
+
+    /**
+     * Disk space the recording may use before the oldest data is discarded
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Only requests taking at least this long are recorded as GreetingsRoute events
+     */
+    private Duration routeThreshold = Duration.ZERO;
+
+    /**
+     * Only repository calls taking at least this long are recorded as GreetingsRepository events
+     */
+    private Duration repositoryThreshold = Duration.ofMillis(1);
+
+    /**
+     * Bearer token required by /actuator/flightrecording; without one the endpoint rejects all requests
+     */
+    private String token;
+}
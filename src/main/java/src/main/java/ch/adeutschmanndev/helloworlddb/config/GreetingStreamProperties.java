@@ -0,0 +1,31 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the Server-Sent Events greeting feed
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.stream")
+public class GreetingStreamProperties {
+
+    /**
+     * Events buffered per subscriber; a subscriber whose buffer overflows is evicted
+     */
+    private int bufferSize = 64;
+
+    private int maxSubscribers = 50_000;
+
+    /**
+     * Comment sent on idle streams so proxies keep the connection open and dead clients are detected
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * Lifetime of a stream before the client has to reconnect
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
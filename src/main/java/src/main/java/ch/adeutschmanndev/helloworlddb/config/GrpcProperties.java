@@ -0,0 +1,40 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the gRPC server running next to the HTTP routes
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.grpc")
+public class GrpcProperties {
+
+    private boolean enabled = true;
+
+    private int port = 9090;
+
+    /**
+     * Number of streamed create requests saved per transaction in BulkCreateGreetings
+     */
+    private int bulkBatchSize = 500;
+
+    /**
+     * Streaming calls (lists and bulk create) running at once; each holds a database connection while it runs,
+     * so this stays below the connection pool size
+     */
+    private int maxConcurrentStreams = 6;
+
+    /**
+     * Time a streaming list waits for a client that stopped reading before the call is cancelled,
+     * releasing its transaction and connection
+     */
+    private Duration maxStreamStall = Duration.ofSeconds(30);
+
+    /**
+     * Time running calls get to complete on shutdown before they are cancelled
+     */
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+}
@@ -0,0 +1,37 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level and query cache regions, backed by Caffeine through JCache
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.cache")
+public class HibernateCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Every region Hibernate uses must be listed; a missing region fails startup
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /**
+         * Maximum number of entries; for query regions one entry is one cached result list
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * Time after which an entry expires regardless of use; unset means no expiry
+         */
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,36 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for detecting hot senders and the special handling they get
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.hot-keys")
+public class HotKeyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of senders tracked by the Space-Saving sketch; senders with a smaller share than 1 / capacity may be missed
+     */
+    private int capacity = 64;
+
+    /**
+     * Hot senders are re-evaluated and all counts halved at this interval, so the detector follows the current traffic
+     */
+    private Duration decayInterval = Duration.ofSeconds(5);
+
+    /**
+     * Share of the tracked calls a sender needs to be hot
+     */
+    private double hotShare = 0.05;
+
+    /**
+     * Minimum guaranteed count in one interval for a sender to be hot, so a quiet instance has no hot senders
+     */
+    private long minCount = 50;
+}
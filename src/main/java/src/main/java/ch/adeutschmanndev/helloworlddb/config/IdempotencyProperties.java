@@ -0,0 +1,40 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for Idempotency-Key support on POST /api/greetings
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a key is remembered; a retry after that creates a new greeting
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    private int maxKeyLength = 255;
+
+    /**
+     * Keys per TTL the in-memory Bloom filter is sized for; more keys raise its false-positive rate
+     */
+    private int expectedKeys = 1_000_000;
+
+    /**
+     * Target share of first-time keys that still take the database lookup
+     */
+    private double falsePositiveRate = 0.01;
+
+    private Duration cleanupInterval = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of expired keys deleted per statement
+     */
+    private int cleanupBatchSize = 5_000;
+}
@@ -0,0 +1,22 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the bulk greetings import
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.import")
+public class ImportProperties {
+
+    /**
+     * Maximum number of rejected rows listed in an import result; the rejected count is always exact
+     */
+    private int maxReportedRejections = 1000;
+
+    /**
+     * Number of finished imports kept for GET /api/greetings/imports
+     */
+    private int historySize = 20;
+}
@@ -0,0 +1,33 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory index of the latest greeting per sender
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.latest-greetings")
+public class LatestGreetingsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of senders held; beyond it the senders least likely to be read again are dropped and read from
+     * the database on their next lookup
+     */
+    private int maxSenders = 100_000;
+
+    /**
+     * Time a sender is held after its latest greeting was stored; bounds how long greetings written through other
+     * instances are not seen
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Load the most recently active senders with one DISTINCT ON scan once the application is ready
+     */
+    private boolean warmUp = true;
+}
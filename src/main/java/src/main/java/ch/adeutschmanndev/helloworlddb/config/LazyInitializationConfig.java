@@ -0,0 +1,31 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.RouterFunction;
+
+/**
+ * Keeps the request path eager when lazy initialization is enabled (see application-prod.yml)
+ * Routes, handlers, services and repositories are created at startup so the first request
+ * does not pay for their initialization; everything else (OpenAPI, springdoc, ...) is deferred
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    private static final String BASE_PACKAGE = "ch.adeutschmanndev.helloworlddb.";
+
+    @Bean
+    static LazyInitializationExcludeFilter requestPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                RouterFunction.class.isAssignableFrom(beanType)
+                        || isInPackage(beanType, "resource")
+                        || isInPackage(beanType, "service")
+                        || isInPackage(beanType, "repository")
+                        || isInPackage(beanType, "converter");
+    }
+
+    private static boolean isInPackage(Class<?> beanType, String subPackage) {
+        return beanType.getName().startsWith(BASE_PACKAGE + subPackage + ".");
+    }
+}
@@ -6,7 +6,14 @@ import io.swagger.v3.oas.models.info.Info;
 import org.springdoc.core.models.GroupedOpenApi;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
+/**
+ * OpenAPI metadata and groups
+ * springdoc's api-docs resources are created eagerly (even with lazy initialization) and pull in every
+ * GroupedOpenApi bean; the prod profile therefore has no group and uses springdoc.paths-to-match instead,
+ * so only the single-document resource is created at startup and the spec itself on the first request
+ */
 @Configuration
 public class OpenApiConfig {
 
@@ -24,6 +31,7 @@ public class OpenApiConfig {
     }
 
     @Bean
+    @Profile("!prod")
     public GroupedOpenApi publicApi() {
         return GroupedOpenApi.builder()
                 .group("public")
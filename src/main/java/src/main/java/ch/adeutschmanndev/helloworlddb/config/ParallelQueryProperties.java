@@ -0,0 +1,37 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for splitting full-table greetings queries into block ranges read on parallel connections
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.parallel-query")
+public class ParallelQueryProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of slices, and so of pool connections, per shard for one query
+     */
+    private int parallelism = 4;
+
+    /**
+     * Maximum number of slices running at once per shard across all queries; queries that would exceed it are not split.
+     * Capped at half the shard's maximum-pool-size, which other requests share
+     */
+    private int maxConcurrentSlices = 4;
+
+    /**
+     * Tables smaller than two slices of this many 8 KB pages are read with a single query
+     */
+    private int minPagesPerSlice = 1024;
+
+    /**
+     * How long the table size estimate from pg_class is reused
+     */
+    private Duration pageEstimateTtl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,34 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for resizing the Hikari pool from observed connection wait time and utilisation
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.pool-autosizing")
+public class PoolAutoSizingProperties {
+
+    private boolean enabled = true;
+
+    private int minPoolSize = 5;
+
+    private int maxPoolSize = 30;
+
+    private int step = 2;
+
+    /**
+     * Mean connection acquire time above which the pool grows
+     */
+    private Duration targetAcquireTime = Duration.ofMillis(5);
+
+    /**
+     * Utilisation (active / total) below which the pool shrinks
+     */
+    private double shrinkUtilisation = 0.5;
+
+    private Duration interval = Duration.ofSeconds(10);
+}
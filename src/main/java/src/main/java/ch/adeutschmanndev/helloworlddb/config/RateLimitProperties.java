@@ -0,0 +1,78 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Settings for the per-client token-bucket rate limiter in front of the Greetings API routes
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Request header identifying a client; requests without a known key are limited per remote address
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * Known API keys, each limited on its own bucket; unknown keys are ignored, so a client cannot get a fresh bucket
+     * by sending a new key with every request
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Maximum number of client buckets held in memory across all routes;
+     * once reached, new clients of a route share one overflow bucket until idle buckets are swept
+     */
+    private int maxClients = 100_000;
+
+    /**
+     * A bucket that has been full for this long is dropped; a new one starts full again, so nothing is lost
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * Limited routes, matched in order; requests matching none of them are not limited
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * Name used in metrics and logs
+         */
+        private String name;
+
+        /**
+         * HTTP method, or empty for any method
+         */
+        private String method;
+
+        /**
+         * Path pattern, e.g. /api/greetings/{id}
+         */
+        private String path;
+
+        /**
+         * Burst size: number of requests a client may send at once after being idle
+         */
+        private int capacity = 10;
+
+        /**
+         * Sustained requests per second per client
+         */
+        private double refillPerSecond = 5;
+    }
+}
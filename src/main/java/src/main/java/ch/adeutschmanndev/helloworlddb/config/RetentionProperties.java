@@ -0,0 +1,43 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for moving old greetings into the archive table
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.retention")
+public class RetentionProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Only count and log the greetings that would be archived
+     */
+    private boolean dryRun = false;
+
+    /**
+     * Greetings older than this are archived
+     */
+    private Duration maxAge = Duration.ofDays(365);
+
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Maximum number of greetings archived per transaction; keeps row locks and WAL bursts short
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Pause between batches, leaving the database to foreground requests
+     */
+    private Duration pause = Duration.ofMillis(200);
+
+    /**
+     * Upper bound of batches per run; the rest is archived by the next run
+     */
+    private int maxBatchesPerRun = 500;
+}
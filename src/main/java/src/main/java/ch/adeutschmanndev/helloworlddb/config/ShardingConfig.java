@@ -0,0 +1,183 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsProjectionRepositoryImpl;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsRepository;
+import ch.adeutschmanndev.helloworlddb.jfr.RepositoryEventInterceptor;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.observation.boot.autoconfigure.DataSourceObservationBeanPostProcessor;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.HikariCheckpointRestoreLifecycle;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the greetings shards from helloworld.sharding
+ * Every additional shard gets its own Hikari pool (with the spring.datasource.hikari settings), Flyway migration
+ * (the shared scripts plus db/shard-migration, which removes the V1 sample rows),
+ * entity manager factory and repository; the second-level and query caches stay on the primary only,
+ * since Hibernate cache keys do not tell databases apart. The pools are not beans, so they are wrapped for JDBC
+ * observations and suspended around CRaC checkpoints here
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class ShardingConfig {
+
+    private static final String SHARD_MIGRATIONS = "classpath:db/shard-migration";
+
+    private final Environment environment;
+    private final DataSourceProperties dataSourceProperties;
+    private final JpaProperties jpaProperties;
+    private final HibernateProperties hibernateProperties;
+    private final ObjectProvider<HibernatePropertiesCustomizer> hibernatePropertiesCustomizers;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<DataSourceObservationBeanPostProcessor> dataSourceObservation;
+
+    @Bean(destroyMethod = "close")
+    public GreetingsShards greetingsShards(ShardingProperties properties,
+                                           GreetingsRepository greetingsRepository,
+                                           EntityManager entityManager,
+                                           PlatformTransactionManager transactionManager,
+                                           DataSource dataSource,
+                                           Flyway flyway,
+                                           EntityManagerFactoryBuilder entityManagerFactoryBuilder) {
+        final List<GreetingsShards.Shard> shards = new ArrayList<>();
+        final List<AutoCloseable> resources = new ArrayList<>();
+        shards.add(new GreetingsShards.Shard(properties.getPrimaryName(), greetingsRepository, entityManager, transactionManager,
+                dataSource));
+
+        if (properties.isEnabled()) {
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+                shards.add(connect(shard, flyway, entityManagerFactoryBuilder, resources));
+            }
+            log.info("Sharding greetings by recipient over {}", shards);
+        }
+        return new GreetingsShards(shards, properties.getVirtualNodes(), resources);
+    }
+
+    /**
+     * Suspends the pools of the additional shards and closes their connections before a CRaC checkpoint, and resumes
+     * them after restore, as Spring Boot does for the primary pool (with spring.datasource.hikari.allow-pool-suspension)
+     */
+    @Bean
+    public Lifecycle shardPoolsCheckpointRestoreLifecycle(GreetingsShards greetingsShards,
+                                                          ConfigurableApplicationContext applicationContext) {
+        final List<HikariCheckpointRestoreLifecycle> pools = greetingsShards.getShards().stream()
+                .filter(shard -> shard != greetingsShards.primary())
+                .map(shard -> new HikariCheckpointRestoreLifecycle(shard.dataSource(), applicationContext))
+                .toList();
+        return new Lifecycle() {
+            @Override
+            public void start() {
+                pools.forEach(HikariCheckpointRestoreLifecycle::start);
+            }
+
+            @Override
+            public void stop() {
+                pools.forEach(HikariCheckpointRestoreLifecycle::stop);
+            }
+
+            @Override
+            public boolean isRunning() {
+                return pools.stream().anyMatch(HikariCheckpointRestoreLifecycle::isRunning);
+            }
+        };
+    }
+
+    /**
+     * Connects and migrates one additional shard; created resources are added to the list so they are closed on shutdown
+     */
+    private GreetingsShards.Shard connect(ShardingProperties.Shard shard, Flyway flyway,
+                                          EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                          List<AutoCloseable> resources) {
+        final HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(dataSource.getPoolName() + "-" + shard.getName());
+        dataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
+        dataSource.setJdbcUrl(shard.getUrl());
+        dataSource.setUsername(StringUtils.hasText(shard.getUsername()) ? shard.getUsername() : dataSourceProperties.getUsername());
+        dataSource.setPassword(StringUtils.hasText(shard.getPassword()) ? shard.getPassword() : dataSourceProperties.getPassword());
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        resources.add(dataSource);
+        final DataSource observedDataSource = observed(dataSource);
+
+        // Shard-only migrations (db/shard-migration) run between the shared ones; out of order, so shards migrated
+        // before one was added still get it
+        final List<Location> locations = new ArrayList<>(List.of(flyway.getConfiguration().getLocations()));
+        locations.add(new Location(SHARD_MIGRATIONS));
+        Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .locations(locations.toArray(Location[]::new))
+                .outOfOrder(true)
+                .dataSource(observedDataSource)
+                .load()
+                .migrate();
+
+        final Map<String, Object> vendorProperties = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(),
+                new HibernateSettings().hibernatePropertiesCustomizers(hibernatePropertiesCustomizers.orderedStream().toList()));
+        vendorProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        vendorProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        vendorProperties.remove(AvailableSettings.CACHE_REGION_FACTORY);
+        vendorProperties.remove(ConfigSettings.CACHE_MANAGER);
+
+        final LocalContainerEntityManagerFactoryBean factoryBean = entityManagerFactoryBuilder
+                .dataSource(observedDataSource)
+                .packages(Greetings.class)
+                .persistenceUnit("greetings-" + shard.getName())
+                .properties(vendorProperties)
+                .build();
+        factoryBean.afterPropertiesSet();
+        final EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        resources.add(entityManagerFactory);
+
+        final EntityManager shardEntityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        final JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(shardEntityManager);
+        repositoryFactory.addRepositoryProxyPostProcessor(RepositoryEventInterceptor.postProcessor(shard.getName()));
+        final GreetingsRepository repository = repositoryFactory.getRepository(
+                GreetingsRepository.class,
+                RepositoryFragments.just(new GreetingsProjectionRepositoryImpl(shardEntityManager)));
+        return new GreetingsShards.Shard(shard.getName(), repository, shardEntityManager,
+                new JpaTransactionManager(entityManagerFactory), observedDataSource);
+    }
+
+    private DataSource observed(HikariDataSource dataSource) {
+        final DataSourceObservationBeanPostProcessor postProcessor = dataSourceObservation.getIfAvailable();
+        return postProcessor == null ? dataSource : (DataSource) postProcessor.postProcessAfterInitialization(dataSource, dataSource.getPoolName());
+    }
+}
@@ -0,0 +1,54 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for spreading helloworld.greetings over several PostgreSQL databases by recipient
+ * The primary datasource (spring.datasource) is always the first shard
+ */
+@Data
+@ConfigurationProperties(prefix = "helloworld.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Name of the primary datasource on the hash ring; renaming a shard moves its keys
+     */
+    private String primaryName = "primary";
+
+    /**
+     * Points per shard on the consistent-hash ring; more points spread recipients more evenly
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Additional shards; each is migrated with the same Flyway scripts on startup
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        /**
+         * Name used on the hash ring, in pool names and in logs
+         */
+        private String name;
+
+        private String url;
+
+        /**
+         * Defaults to spring.datasource.username
+         */
+        private String username;
+
+        /**
+         * Defaults to spring.datasource.password
+         */
+        private String password;
+    }
+}
@@ -0,0 +1,113 @@
+package ch.adeutschmanndev.helloworlddb.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Observes writing response bodies, so Jackson serialization shows up as its own span next to route dispatch
+ * Route dispatch is observed by RouteObservationFilter, service methods by @Observed and JDBC by datasource-micrometer
+ */
+@Configuration
+public class TracingConfig {
+
+    // Runs after Spring Boot's configurers, which look for the Jackson converters by type, e.g. for actuator responses
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public WebMvcConfigurer serializationObservationConfigurer(ObservationRegistry observationRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.replaceAll(converter -> converter instanceof AbstractJackson2HttpMessageConverter jackson
+                        ? new ObservedMessageConverter(jackson, observationRegistry)
+                        : converter);
+            }
+        };
+    }
+
+    /**
+     * Jackson converter whose writes are observed as greetings.serialization, tagged with the wire format
+     */
+    private static final class ObservedMessageConverter implements GenericHttpMessageConverter<Object> {
+
+        private final AbstractJackson2HttpMessageConverter delegate;
+        private final ObservationRegistry observationRegistry;
+        private final String format;
+
+        private ObservedMessageConverter(AbstractJackson2HttpMessageConverter delegate, ObservationRegistry observationRegistry) {
+            this.delegate = delegate;
+            this.observationRegistry = observationRegistry;
+            this.format = delegate.getSupportedMediaTypes().getFirst().getSubtype();
+        }
+
+        @Override
+        public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+            return delegate.canRead(type, contextClass, mediaType);
+        }
+
+        @Override
+        public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+            return delegate.read(type, contextClass, inputMessage);
+        }
+
+        @Override
+        public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+            return delegate.canWrite(type, clazz, mediaType);
+        }
+
+        @Override
+        public void write(Object value, Type type, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+            observation().observeChecked(() -> delegate.write(value, type, contentType, outputMessage));
+        }
+
+        @Override
+        public boolean canRead(Class<?> clazz, MediaType mediaType) {
+            return delegate.canRead(clazz, mediaType);
+        }
+
+        @Override
+        public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+            return delegate.canWrite(clazz, mediaType);
+        }
+
+        @Override
+        public List<MediaType> getSupportedMediaTypes() {
+            return delegate.getSupportedMediaTypes();
+        }
+
+        @Override
+        public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+            return delegate.getSupportedMediaTypes(clazz);
+        }
+
+        @Override
+        public Object read(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+            return delegate.read(clazz, inputMessage);
+        }
+
+        @Override
+        public void write(Object value, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+            observation().observeChecked(() -> delegate.write(value, contentType, outputMessage));
+        }
+
+        private Observation observation() {
+            return Observation.createNotStarted("greetings.serialization", observationRegistry)
+                    .contextualName("serialize " + format)
+                    .lowCardinalityKeyValue("format", format);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ch.adeutschmanndev.helloworlddb.converter;
+
+import ch.adeutschmanndev.helloworlddb.model.dto.ConversationListResponseDto;
+import ch.adeutschmanndev.helloworlddb.model.dto.ConversationResponseDto;
+import ch.adeutschmanndev.helloworlddb.model.dto.ConversationThreadResponseDto;
+import ch.adeutschmanndev.helloworlddb.model.entity.Conversations;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.service.ConversationsService.ConversationCursor;
+import ch.adeutschmanndev.helloworlddb.service.ConversationsService.ThreadCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Converter class for conversation summaries, thread pages and their pagination cursors
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationConverter {
+
+    private static final String CURSOR_SEPARATOR = "~";
+    // Participants are free text, but PostgreSQL text can never hold a NUL character
+    private static final String PARTICIPANT_SEPARATOR = "\u0000";
+
+    private final GreetingConverter greetingConverter;
+
+    /**
+     * Converts a Conversations entity to ConversationResponseDto
+     *
+     * @param conversation The entity to convert
+     * @return Converted DTO representation
+     */
+    public ConversationResponseDto toResponseDto(Conversations conversation) {
+        return ConversationResponseDto.builder()
+                .participants(List.of(conversation.getParticipantLow(), conversation.getParticipantHigh()))
+                .messageCount(conversation.getMessageCount())
+                .lastGreetingId(conversation.getLastGreetingId())
+                .lastMessage(conversation.getLastMessage())
+                .lastSender(conversation.getLastSender())
+                .lastActivity(conversation.getLastActivity())
+                .build();
+    }
+
+    /**
+     * Converts a page of conversations; a full page carries the cursor for the next one
+     *
+     * @param conversations The conversations on the page
+     * @param limit         The requested page size
+     * @return Page DTO
+     */
+    public ConversationListResponseDto toListResponseDto(List<Conversations> conversations, int limit) {
+        log.debug("Converting {} conversations to ConversationListResponseDto", conversations.size());
+
+        String nextCursor = null;
+        if (conversations.size() >= limit) {
+            final Conversations last = conversations.get(conversations.size() - 1);
+            nextCursor = encodeConversationCursor(new ConversationCursor(
+                    last.getLastActivity(), last.getParticipantLow(), last.getParticipantHigh()));
+        }
+
+        return ConversationListResponseDto.builder()
+                .conversations(conversations.stream().map(this::toResponseDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Converts a page of a conversation thread; a full page carries the cursor for the next one
+     *
+     * @param participant      The participant the thread was requested for
+     * @param otherParticipant The other participant
+     * @param greetings        The greetings on the page, newest first
+     * @param limit            The requested page size
+     * @return Thread page DTO
+     */
+    public ConversationThreadResponseDto toThreadResponseDto(String participant, String otherParticipant,
+                                                             List<Greetings> greetings, int limit) {
+        log.debug("Converting {} greetings to ConversationThreadResponseDto", greetings.size());
+
+        String nextCursor = null;
+        if (greetings.size() >= limit) {
+            final Greetings last = greetings.get(greetings.size() - 1);
+            nextCursor = encodeThreadCursor(new ThreadCursor(last.getCreatedAt(), last.getId()));
+        }
+
+        return ConversationThreadResponseDto.builder()
+                .participants(List.of(participant, otherParticipant))
+                .greetings(greetingConverter.toResponseDtoList(greetings))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Encodes a conversation list cursor as an opaque URL-safe token
+     */
+    public String encodeConversationCursor(ConversationCursor cursor) {
+        return encode(cursor.lastActivity() + PARTICIPANT_SEPARATOR + cursor.participantLow() + PARTICIPANT_SEPARATOR
+                + cursor.participantHigh());
+    }
+
+    /**
+     * Decodes a token created by {@link #encodeConversationCursor(ConversationCursor)}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public ConversationCursor decodeConversationCursor(String token) {
+        final String[] parts = decode(token).split(PARTICIPANT_SEPARATOR, 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        try {
+            return new ConversationCursor(LocalDateTime.parse(parts[0]), parts[1], parts[2]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Encodes a thread cursor as an opaque URL-safe token
+     */
+    public String encodeThreadCursor(ThreadCursor cursor) {
+        return encode(cursor.createdAt() + CURSOR_SEPARATOR + cursor.id());
+    }
+
+    /**
+     * Decodes a token created by {@link #encodeThreadCursor(ThreadCursor)}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public ThreadCursor decodeThreadCursor(String token) {
+        final String[] parts = decode(token).split(CURSOR_SEPARATOR, 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        try {
+            return new ThreadCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String token) {
+        return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package ch.adeutschmanndev.helloworlddb.converter;
+
+import ch.adeutschmanndev.helloworlddb.grpc.proto.CreateGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.Greeting;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.UpdateGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.model.dto.CreateGreetingRequestDto;
+import ch.adeutschmanndev.helloworlddb.model.dto.UpdateGreetingRequestDto;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import com.google.protobuf.Timestamp;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Converter between Greetings entities and the gRPC messages
+ * Timestamps are stored as server-local date-times and mapped through the system time zone
+ */
+@Component
+public class GreetingProtoConverter {
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    /**
+     * Convert Greetings entity to its gRPC message
+     *
+     * @param greeting The entity to convert
+     * @return Converted message
+     */
+    public Greeting toGreeting(Greetings greeting) {
+        final Greeting.Builder builder = Greeting.newBuilder()
+                .setId(greeting.getId().toString())
+                .setMessage(greeting.getMessage());
+        if (greeting.getSender() != null) {
+            builder.setSender(greeting.getSender());
+        }
+        if (greeting.getRecipient() != null) {
+            builder.setRecipient(greeting.getRecipient());
+        }
+        if (greeting.getCreatedAt() != null) {
+            builder.setCreatedAt(toTimestamp(greeting.getCreatedAt()));
+        }
+        if (greeting.getUpdatedAt() != null) {
+            builder.setUpdatedAt(toTimestamp(greeting.getUpdatedAt()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a gRPC create request to the REST request DTO, so both share one set of validation rules
+     */
+    public CreateGreetingRequestDto toCreateRequestDto(CreateGreetingRequest request) {
+        return CreateGreetingRequestDto.builder()
+                .message(request.getMessage())
+                .sender(request.hasSender() ? request.getSender() : null)
+                .recipient(request.hasRecipient() ? request.getRecipient() : null)
+                .build();
+    }
+
+    /**
+     * Convert a gRPC update request to the REST request DTO
+     */
+    public UpdateGreetingRequestDto toUpdateRequestDto(UpdateGreetingRequest request) {
+        return UpdateGreetingRequestDto.builder()
+                .message(request.getMessage())
+                .sender(request.hasSender() ? request.getSender() : null)
+                .recipient(request.hasRecipient() ? request.getRecipient() : null)
+                .build();
+    }
+
+    public Timestamp toTimestamp(LocalDateTime dateTime) {
+        final Instant instant = dateTime.atZone(zone).toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    public LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()), zone);
+    }
+}
@@ -0,0 +1,64 @@
+package ch.adeutschmanndev.helloworlddb.converter;
+
+import ch.adeutschmanndev.helloworlddb.model.dto.ImportProgressDto;
+import ch.adeutschmanndev.helloworlddb.model.dto.ImportRejectionDto;
+import ch.adeutschmanndev.helloworlddb.model.dto.ImportResultDto;
+import ch.adeutschmanndev.helloworlddb.service.GreetingsBulkService.ImportResult;
+import ch.adeutschmanndev.helloworlddb.service.ImportProgressRegistry.ImportProgress;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Converter class for bulk import results and progress
+ */
+@Component
+public class ImportConverter {
+
+    /**
+     * Converts a completed import to ImportResultDto
+     *
+     * @param result The import result to convert
+     * @return Converted DTO representation
+     */
+    public ImportResultDto toResultDto(ImportResult result) {
+        final ImportProgress progress = result.progress();
+        return ImportResultDto.builder()
+                .importId(progress.getId())
+                .rowsReceived(progress.getRowsReceived().get())
+                .rowsImported(progress.getRowsImported())
+                .rowsRejected(progress.getRowsRejected())
+                .durationMs(Duration.between(progress.getStartedAt(), progress.getFinishedAt()).toMillis())
+                .rejections(result.rejections().stream()
+                        .map(rejected -> ImportRejectionDto.builder()
+                                .row(rejected.rowNumber())
+                                .reason(rejected.reason())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Converts a list of tracked imports to ImportProgressDto list
+     *
+     * @param imports The imports to convert
+     * @return List of converted DTOs
+     */
+    public List<ImportProgressDto> toProgressDtoList(List<ImportProgress> imports) {
+        return imports.stream()
+                .map(progress -> ImportProgressDto.builder()
+                        .importId(progress.getId())
+                        .format(progress.getFormat())
+                        .phase(progress.getPhase().name())
+                        .bytesReceived(progress.getBytesReceived().get())
+                        .rowsReceived(progress.getRowsReceived().get())
+                        .rowsImported(progress.getRowsImported())
+                        .rowsRejected(progress.getRowsRejected())
+                        .startedAt(progress.getStartedAt())
+                        .finishedAt(progress.getFinishedAt())
+                        .error(progress.getError())
+                        .build())
+                .toList();
+    }
+}
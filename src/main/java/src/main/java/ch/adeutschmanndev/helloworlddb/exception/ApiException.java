@@ -0,0 +1,19 @@
+package ch.adeutschmanndev.helloworlddb.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Expected failure of an API request, mapped to an error response by {@code ErrorMappingFilter}
+ * These are raised for ordinary client errors, so they skip stack trace capture and suppression
+ */
+@Getter
+public abstract class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    protected ApiException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+}
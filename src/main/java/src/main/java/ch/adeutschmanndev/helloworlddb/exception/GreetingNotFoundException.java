@@ -0,0 +1,12 @@
+package ch.adeutschmanndev.helloworlddb.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+public class GreetingNotFoundException extends ApiException {
+
+    public GreetingNotFoundException(UUID id) {
+        super(HttpStatus.NOT_FOUND, "Greeting not found with ID: " + id);
+    }
+}
@@ -0,0 +1,10 @@
+package ch.adeutschmanndev.helloworlddb.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ImportUnavailableException extends ApiException {
+
+    public ImportUnavailableException(String message) {
+        super(HttpStatus.NOT_IMPLEMENTED, message);
+    }
+}
@@ -0,0 +1,10 @@
+package ch.adeutschmanndev.helloworlddb.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends ApiException {
+
+    public InvalidRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
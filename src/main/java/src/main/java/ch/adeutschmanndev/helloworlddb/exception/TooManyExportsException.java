@@ -0,0 +1,10 @@
+package ch.adeutschmanndev.helloworlddb.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyExportsException extends ApiException {
+
+    public TooManyExportsException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports running, please retry later");
+    }
+}
@@ -0,0 +1,13 @@
+package ch.adeutschmanndev.helloworlddb.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A feature reading tables kept on the primary only was called while sharding is enabled
+ */
+public class UnavailableWhileShardedException extends ApiException {
+
+    public UnavailableWhileShardedException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,81 @@
+package ch.adeutschmanndev.helloworlddb.filter;
+
+import ch.adeutschmanndev.helloworlddb.config.ConcurrencyLimitProperties;
+import ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto;
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.Optional;
+
+/**
+ * Adaptive concurrency limiter for the Greetings API routes
+ * Requests above the current limit are rejected immediately with 503 instead of queueing
+ * on the connection pool; the limit follows the observed request latency (gradient algorithm)
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final SimpleLimiter<ServerRequest> limiter;
+    private final ConcurrencyLimitProperties properties;
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimitFilter(SimpleLimiter<ServerRequest> limiter,
+                                  ConcurrencyLimitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.properties = properties;
+        this.rejectedCounter = Counter.builder("greetings.concurrency.rejected")
+                .description("Requests rejected by the adaptive concurrency limiter")
+                .register(meterRegistry);
+        Gauge.builder("greetings.concurrency.limit", limiter, SimpleLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("greetings.concurrency.inflight", limiter, SimpleLimiter::getInflight)
+                .description("Requests currently in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        if (!properties.isEnabled()) {
+            return next.handle(request);
+        }
+
+        final Optional<Limiter.Listener> listener = limiter.acquire(request);
+        if (listener.isEmpty()) {
+            rejectedCounter.increment();
+            log.debug("Rejecting {} {}: concurrency limit {} reached", request.method(), request.path(), limiter.getLimit());
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ErrorResponseDto.builder()
+                            .message("Service is overloaded, please retry later")
+                            .build());
+        }
+
+        try {
+            final ServerResponse response = next.handle(request);
+            if (response.statusCode().is5xxServerError()) {
+                // Typically a connection-pool timeout, i.e. the backend is saturated
+                listener.get().onDropped();
+            } else {
+                listener.get().onSuccess();
+            }
+            return response;
+        } catch (Exception e) {
+            listener.get().onIgnore();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ch.adeutschmanndev.helloworlddb.filter;
+
+import ch.adeutschmanndev.helloworlddb.exception.ApiException;
+import ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.format.DateTimeParseException;
+
+/**
+ * Maps exceptions thrown by the Greetings API handlers to error responses in one place
+ * Handlers report invalid input as ApiException; client errors are logged at debug level without stack traces,
+ * constraint violations at warn level, and only unexpected failures are logged as errors
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ErrorMappingFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        try {
+            return next.handle(request);
+        } catch (ApiException e) {
+            return clientError(request, e.getStatus(), e.getMessage());
+        } catch (DateTimeParseException e) {
+            return clientError(request, HttpStatus.BAD_REQUEST, "Invalid date format. Use ISO format (yyyy-MM-ddTHH:mm:ss)");
+        } catch (HttpMessageNotReadableException e) {
+            return clientError(request, HttpStatus.BAD_REQUEST, "Malformed request body");
+        } catch (HttpMediaTypeNotSupportedException e) {
+            return clientError(request, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Content-Type must be application/json");
+        } catch (DataIntegrityViolationException e) {
+            // The constraint details stay in the log: they name tables and columns and may come from a server-side bug
+            log.warn("Data constraint violated by {} {}: {}", request.method(), request.path(), e.getMostSpecificCause().getMessage());
+            return errorResponse(HttpStatus.CONFLICT, "Request conflicts with the stored data");
+        } catch (Exception e) {
+            log.error("Error processing {} {}: {}", request.method(), request.path(), e.getMessage(), e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+        }
+    }
+
+    private ServerResponse clientError(ServerRequest request, HttpStatus status, String message) {
+        log.debug("Rejecting {} {} with {}: {}", request.method(), request.path(), status.value(), message);
+        return errorResponse(status, message);
+    }
+
+    private ServerResponse errorResponse(HttpStatus status, String message) {
+        meterRegistry.counter("greetings.errors", "status", String.valueOf(status.value())).increment();
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorResponseDto.builder()
+                        .message(message)
+                        .build());
+    }
+}
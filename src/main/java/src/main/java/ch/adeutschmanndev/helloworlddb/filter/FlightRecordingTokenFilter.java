@@ -0,0 +1,74 @@
+package ch.adeutschmanndev.helloworlddb.filter;
+
+import ch.adeutschmanndev.helloworlddb.config.FlightRecorderProperties;
+import ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Requires the configured bearer token for /actuator/flightrecording, since a recording exposes internals of the process
+ * Without a configured token every request is rejected
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecordingTokenFilter extends OncePerRequestFilter {
+
+    // Also matches the path without a trailing segment
+    private static final PathPattern PATH = PathPatternParser.defaultInstance.parse("/actuator/flightrecording/**");
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final FlightRecorderProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Matches the path the handler mappings see: percent-decoded and without ;-parameters, so neither bypasses the check
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !PATH.matches(ServletRequestPathUtils.parseAndCache(request).pathWithinApplication());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!StringUtils.hasText(properties.getToken())) {
+            reject(response, HttpStatus.FORBIDDEN, "Flight recording access is not configured");
+            return;
+        }
+        final String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX) || !MessageDigest.isEqual(
+                authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8),
+                properties.getToken().getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejecting unauthenticated flight recording request from {}", request.getRemoteAddr());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            reject(response, HttpStatus.UNAUTHORIZED, "A valid bearer token is required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponseDto.builder().message(message).build());
+    }
+}
@@ -0,0 +1,69 @@
+package ch.adeutschmanndev.helloworlddb.filter;
+
+import ch.adeutschmanndev.helloworlddb.config.RateLimitProperties;
+import ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto;
+import ch.adeutschmanndev.helloworlddb.service.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiter for the Greetings API routes
+ * Clients are identified by a known API key (helloworld.rate-limit.api-keys), otherwise by remote address;
+ * requests over the configured rate are rejected with 429 and a Retry-After header
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        if (!properties.isEnabled()) {
+            return next.handle(request);
+        }
+
+        final RateLimiter.LimitedRoute route = rateLimiter.match(request.method().name(), request.requestPath().pathWithinApplication());
+        if (route == null) {
+            return next.handle(request);
+        }
+
+        final long waitNanos = rateLimiter.tryAcquire(route, clientOf(request));
+        if (waitNanos == 0) {
+            return next.handle(request);
+        }
+
+        final long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        log.debug("Throttling {} {} on route {}: retry after {}s", request.method(), request.path(), route.getName(), retryAfterSeconds);
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorResponseDto.builder()
+                        .message("Rate limit exceeded, please retry in " + retryAfterSeconds + " seconds")
+                        .build());
+    }
+
+    private String clientOf(ServerRequest request) {
+        final String apiKey = request.headers().firstHeader(properties.getApiKeyHeader());
+        if (apiKey != null && properties.getApiKeys().contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.remoteAddress()
+                .map(InetSocketAddress::getAddress)
+                .map(address -> address.getHostAddress())
+                .orElse("unknown");
+    }
+}
@@ -0,0 +1,44 @@
+package ch.adeutschmanndev.helloworlddb.filter;
+
+import ch.adeutschmanndev.helloworlddb.jfr.DatabaseTime;
+import ch.adeutschmanndev.helloworlddb.jfr.GreetingsRouteEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Records a GreetingsRouteEvent for every Greetings API request, with the rows and time of its repository calls
+ * Streamed responses (export, SSE) write their body after the handler returns, so only the work up to then is included
+ */
+@Component
+public class RouteEventFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        final GreetingsRouteEvent event = new GreetingsRouteEvent();
+        event.begin();
+        final DatabaseTime databaseTime = DatabaseTime.start();
+        ServerResponse response = null;
+        try {
+            response = next.handle(request);
+            return response;
+        } finally {
+            databaseTime.close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.method().name();
+                event.route = request.attribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)
+                        .map(Object::toString)
+                        .orElse(request.path());
+                event.status = response != null ? response.statusCode().value() : 500;
+                event.rows = databaseTime.rows();
+                event.repositoryCalls = databaseTime.calls();
+                event.databaseTime = databaseTime.nanos();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ch.adeutschmanndev.helloworlddb.filter;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.Locale;
+
+/**
+ * Observes the dispatch of a Greetings API request through the route filters and its handler as greetings.route
+ * The response body is written after this span ends, in its own greetings.serialization span (see TracingConfig)
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteObservationFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        final String route = request.attribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)
+                .map(Object::toString)
+                .orElse("UNKNOWN");
+        // Span names are lower-hyphenated by the tracer, so "GET" would become "g-e-t"
+        final Observation observation = Observation.createNotStarted("greetings.route", observationRegistry)
+                .contextualName("route " + request.method().name().toLowerCase(Locale.ROOT) + " " + route)
+                .lowCardinalityKeyValue("method", request.method().name())
+                .lowCardinalityKeyValue("route", route)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            final ServerResponse response = next.handle(request);
+            observation.lowCardinalityKeyValue("status", String.valueOf(response.statusCode().value()));
+            return response;
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package ch.adeutschmanndev.helloworlddb.grpc;
+
+import ch.adeutschmanndev.helloworlddb.config.GrpcProperties;
+import ch.adeutschmanndev.helloworlddb.converter.GreetingConverter;
+import ch.adeutschmanndev.helloworlddb.converter.GreetingProtoConverter;
+import ch.adeutschmanndev.helloworlddb.exception.ApiException;
+import ch.adeutschmanndev.helloworlddb.exception.GreetingNotFoundException;
+import ch.adeutschmanndev.helloworlddb.exception.InvalidRequestException;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.BulkCreateGreetingsResponse;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.CreateGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.DeleteGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GetGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.Greeting;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GreetingsServiceGrpc;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.ListGreetingsByRecipientRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.ListGreetingsBySenderRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.ListGreetingsCreatedAfterRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.SearchGreetingsByMessageRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.UpdateGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.model.dto.UpdateGreetingRequestDto;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.service.GreetingsService;
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC implementation of the Greetings API on top of GreetingsService
+ * Streaming lists send each row as it is read and pause reading while the client is not ready for more;
+ * the by-sender list is read whole through the same cached path as the HTTP route, then sent
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GreetingsGrpcService extends GreetingsServiceGrpc.GreetingsServiceImplBase {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+    private static final long READY_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int ON_READY_THRESHOLD_BYTES = 512 * 1024;
+
+    private final GreetingsService greetingsService;
+    private final GreetingConverter greetingConverter;
+    private final GreetingProtoConverter protoConverter;
+    private final Validator validator;
+    private final GrpcProperties properties;
+
+    @Override
+    public void getGreeting(GetGreetingRequest request, StreamObserver<Greeting> responseObserver) {
+        unary(responseObserver, () -> {
+            final UUID id = parseId(request.getId());
+            return protoConverter.toGreeting(greetingsService.findGreetingById(id)
+                    .orElseThrow(() -> new GreetingNotFoundException(id)));
+        });
+    }
+
+    @Override
+    public void createGreeting(CreateGreetingRequest request, StreamObserver<Greeting> responseObserver) {
+        unary(responseObserver, () -> protoConverter.toGreeting(greetingsService.saveGreeting(toEntity(request))));
+    }
+
+    @Override
+    public void updateGreeting(UpdateGreetingRequest request, StreamObserver<Greeting> responseObserver) {
+        unary(responseObserver, () -> {
+            final UUID id = parseId(request.getId());
+            final UpdateGreetingRequestDto updateRequest = validated(protoConverter.toUpdateRequestDto(request));
+            final Greetings updateData = Greetings.builder()
+                    .message(updateRequest.getMessage())
+                    .sender(updateRequest.getSender())
+                    .recipient(updateRequest.getRecipient())
+                    .build();
+            return protoConverter.toGreeting(greetingsService.updateGreeting(id, updateData));
+        });
+    }
+
+    @Override
+    public void deleteGreeting(DeleteGreetingRequest request, StreamObserver<Empty> responseObserver) {
+        unary(responseObserver, () -> {
+            greetingsService.deleteGreeting(parseId(request.getId()));
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public void listGreetingsBySender(ListGreetingsBySenderRequest request, StreamObserver<Greeting> responseObserver) {
+        stream(responseObserver, consumer -> greetingsService.streamGreetingsBySender(request.getSender(), consumer));
+    }
+
+    @Override
+    public void listGreetingsByRecipient(ListGreetingsByRecipientRequest request, StreamObserver<Greeting> responseObserver) {
+        stream(responseObserver, consumer -> greetingsService.streamGreetingsByRecipient(request.getRecipient(), consumer));
+    }
+
+    @Override
+    public void searchGreetingsByMessage(SearchGreetingsByMessageRequest request, StreamObserver<Greeting> responseObserver) {
+        stream(responseObserver, consumer -> greetingsService.streamGreetingsByMessage(request.getMessage(), consumer));
+    }
+
+    @Override
+    public void listGreetingsCreatedAfter(ListGreetingsCreatedAfterRequest request, StreamObserver<Greeting> responseObserver) {
+        stream(responseObserver, consumer -> {
+            if (!request.hasCreatedAfter()) {
+                throw new InvalidRequestException("created_after is required");
+            }
+            final LocalDateTime createdAfter;
+            try {
+                createdAfter = protoConverter.toLocalDateTime(request.getCreatedAfter());
+            } catch (DateTimeException e) {
+                throw new InvalidRequestException("created_after is out of range");
+            }
+            return greetingsService.streamGreetingsAfterDate(createdAfter, consumer);
+        });
+    }
+
+    @Override
+    public StreamObserver<CreateGreetingRequest> bulkCreateGreetings(StreamObserver<BulkCreateGreetingsResponse> responseObserver) {
+        return new StreamObserver<>() {
+
+            private final List<Greetings> batch = new ArrayList<>(properties.getBulkBatchSize());
+            private long created;
+            private boolean failed;
+
+            @Override
+            public void onNext(CreateGreetingRequest request) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    batch.add(toEntity(request));
+                    if (batch.size() >= properties.getBulkBatchSize()) {
+                        flush();
+                    }
+                } catch (Exception e) {
+                    failed = true;
+                    responseObserver.onError(toStatus(e));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Bulk create aborted by the client after {} greetings: {}", created, t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) {
+                    return;
+                }
+                try {
+                    flush();
+                    log.info("Bulk created {} greetings", created);
+                    responseObserver.onNext(BulkCreateGreetingsResponse.newBuilder().setGreetingsCreated(created).build());
+                    responseObserver.onCompleted();
+                } catch (Exception e) {
+                    responseObserver.onError(toStatus(e));
+                }
+            }
+
+            private void flush() {
+                if (!batch.isEmpty()) {
+                    created += greetingsService.saveGreetings(List.copyOf(batch)).size();
+                    batch.clear();
+                }
+            }
+        };
+    }
+
+    private Greetings toEntity(CreateGreetingRequest request) {
+        return greetingConverter.fromCreateRequestDto(validated(protoConverter.toCreateRequestDto(request)));
+    }
+
+    private <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        final T response;
+        try {
+            response = call.get();
+        } catch (Exception e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private void stream(StreamObserver<Greeting> responseObserver, ToLongFunction<Consumer<Greetings>> query) {
+        final ServerCallStreamObserver<Greeting> observer = (ServerCallStreamObserver<Greeting>) responseObserver;
+        // Buffer more than the default 32 KiB before pausing, so short client hiccups do not stall the database read
+        observer.setOnReadyThreshold(ON_READY_THRESHOLD_BYTES);
+        try {
+            final long count = query.applyAsLong(greeting -> {
+                awaitReady(observer);
+                observer.onNext(protoConverter.toGreeting(greeting));
+            });
+            log.debug("Streamed {} greetings", count);
+            observer.onCompleted();
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == Status.Code.CANCELLED) {
+                log.debug("Greeting stream cancelled by the client");
+            } else {
+                observer.onError(e);
+            }
+        } catch (Exception e) {
+            observer.onError(toStatus(e));
+        }
+    }
+
+    /**
+     * Blocks the reading thread until the transport can take the next message
+     * onReady callbacks of a call are serialized behind its running handler, so readiness is polled instead;
+     * a client that stops reading for longer than helloworld.grpc.max-stream-stall gets the call cancelled
+     */
+    private void awaitReady(ServerCallStreamObserver<?> observer) {
+        if (observer.isReady()) {
+            return;
+        }
+        final long deadline = System.nanoTime() + properties.getMaxStreamStall().toNanos();
+        while (!observer.isReady()) {
+            if (observer.isCancelled()) {
+                throw Status.CANCELLED.withDescription("Stream cancelled by the client").asRuntimeException();
+            }
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("Cancelling greeting stream: client did not read for {}", properties.getMaxStreamStall());
+                throw Status.DEADLINE_EXCEEDED
+                        .withDescription("Client did not read the stream for " + properties.getMaxStreamStall())
+                        .asRuntimeException();
+            }
+            LockSupport.parkNanos(READY_POLL_NANOS);
+        }
+    }
+
+    private static UUID parseId(String id) {
+        if (!UUID_PATTERN.matcher(id).matches()) {
+            throw new InvalidRequestException("Invalid UUID format: " + id);
+        }
+        return UUID.fromString(id);
+    }
+
+    private <T> T validated(T request) {
+        final Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return request;
+    }
+
+    /**
+     * Same rules as ErrorMappingFilter: only ApiException messages reach the client, other failures are logged here
+     */
+    private static StatusRuntimeException toStatus(Exception e) {
+        if (e instanceof ApiException apiException) {
+            final Status status = switch (apiException.getStatus()) {
+                case NOT_FOUND -> Status.NOT_FOUND;
+                case BAD_REQUEST -> Status.INVALID_ARGUMENT;
+                default -> Status.UNKNOWN;
+            };
+            return status.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof DataIntegrityViolationException violation) {
+            // The constraint details name tables and columns, so they stay in the log
+            log.warn("Data constraint violated by gRPC call: {}", violation.getMostSpecificCause().getMessage());
+            return Status.FAILED_PRECONDITION.withDescription("Request conflicts with the stored data").asRuntimeException();
+        }
+        log.error("Error processing gRPC call: {}", e.getMessage(), e);
+        return Status.INTERNAL.withDescription("Internal server error").asRuntimeException();
+    }
+}
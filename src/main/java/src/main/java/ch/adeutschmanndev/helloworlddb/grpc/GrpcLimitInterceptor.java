@@ -0,0 +1,219 @@
+package ch.adeutschmanndev.helloworlddb.grpc;
+
+import ch.adeutschmanndev.helloworlddb.config.ConcurrencyLimitProperties;
+import ch.adeutschmanndev.helloworlddb.config.GrpcProperties;
+import ch.adeutschmanndev.helloworlddb.config.RateLimitProperties;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GreetingsServiceGrpc;
+import ch.adeutschmanndev.helloworlddb.service.RateLimiter;
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies the limits of the HTTP routes to gRPC calls: the per-client rate limit of the equivalent route,
+ * the shared adaptive concurrency limit and, for streaming calls, a cap on the calls holding a database
+ * connection for their whole duration (helloworld.grpc.max-concurrent-streams)
+ */
+@Component
+@Slf4j
+public class GrpcLimitInterceptor implements ServerInterceptor {
+
+    // Rate-limited gRPC methods share the bucket of the HTTP route doing the same work
+    private static final Map<String, HttpRoute> RATE_LIMITED_METHODS = Map.of(
+            GreetingsServiceGrpc.getCreateGreetingMethod().getFullMethodName(), new HttpRoute("POST", "/api/greetings"),
+            GreetingsServiceGrpc.getSearchGreetingsByMessageMethod().getFullMethodName(), new HttpRoute("GET", "/api/greetings/search"),
+            GreetingsServiceGrpc.getBulkCreateGreetingsMethod().getFullMethodName(), new HttpRoute("POST", "/api/greetings/import"));
+
+    private final SimpleLimiter<ServerRequest> limiter;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final int maxStreams;
+    private final Semaphore streams;
+    private final Metadata.Key<String> apiKeyHeader;
+    private final Counter rejectedCounter;
+
+    public GrpcLimitInterceptor(SimpleLimiter<ServerRequest> limiter,
+                                ConcurrencyLimitProperties concurrencyLimitProperties,
+                                RateLimiter rateLimiter,
+                                RateLimitProperties rateLimitProperties,
+                                GrpcProperties grpcProperties,
+                                MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitProperties = rateLimitProperties;
+        this.maxStreams = grpcProperties.getMaxConcurrentStreams();
+        this.streams = new Semaphore(maxStreams);
+        this.apiKeyHeader = Metadata.Key.of(rateLimitProperties.getApiKeyHeader(), Metadata.ASCII_STRING_MARSHALLER);
+        this.rejectedCounter = Counter.builder("greetings.concurrency.rejected")
+                .description("Requests rejected by the adaptive concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        final String method = call.getMethodDescriptor().getFullMethodName();
+
+        final long waitNanos = rateLimitWait(call, headers, method);
+        if (waitNanos > 0) {
+            final long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            log.debug("Throttling gRPC {}: retry after {}s", method, retryAfterSeconds);
+            return reject(call, Status.RESOURCE_EXHAUSTED
+                    .withDescription("Rate limit exceeded, please retry in " + retryAfterSeconds + " seconds"));
+        }
+
+        final boolean streaming = call.getMethodDescriptor().getType() != MethodDescriptor.MethodType.UNARY;
+        if (streaming && !streams.tryAcquire()) {
+            log.debug("Rejecting gRPC {}: {} streaming calls in flight", method, maxStreams);
+            return reject(call, Status.RESOURCE_EXHAUSTED.withDescription("Too many streaming calls, please retry later"));
+        }
+
+        final Optional<Limiter.Listener> listener = concurrencyLimitProperties.isEnabled()
+                ? limiter.acquire(null)
+                : Optional.of(NoopListener.INSTANCE);
+        if (listener.isEmpty()) {
+            if (streaming) {
+                streams.release();
+            }
+            rejectedCounter.increment();
+            log.debug("Rejecting gRPC {}: concurrency limit {} reached", method, limiter.getLimit());
+            return reject(call, Status.UNAVAILABLE.withDescription("Service is overloaded, please retry later"));
+        }
+
+        final Permits permits = new Permits(listener.get(), streaming ? streams : null);
+        final ServerCall<Q, R> recordingCall = new SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                permits.status = status;
+                super.close(status, trailers);
+            }
+        };
+        try {
+            return new SimpleForwardingServerCallListener<>(next.startCall(recordingCall, headers)) {
+                @Override
+                public void onComplete() {
+                    try {
+                        super.onComplete();
+                    } finally {
+                        permits.release(false);
+                    }
+                }
+
+                @Override
+                public void onCancel() {
+                    try {
+                        super.onCancel();
+                    } finally {
+                        permits.release(true);
+                    }
+                }
+            };
+        } catch (RuntimeException e) {
+            permits.release(true);
+            throw e;
+        }
+    }
+
+    private long rateLimitWait(ServerCall<?, ?> call, Metadata headers, String method) {
+        final HttpRoute httpRoute = RATE_LIMITED_METHODS.get(method);
+        if (!rateLimitProperties.isEnabled() || httpRoute == null) {
+            return 0;
+        }
+        final RateLimiter.LimitedRoute route = rateLimiter.match(httpRoute.method(), PathContainer.parsePath(httpRoute.path()));
+        return route == null ? 0 : rateLimiter.tryAcquire(route, clientOf(call, headers));
+    }
+
+    // Same client identity as RateLimitFilter, so a client gets one bucket per route across HTTP and gRPC
+    private String clientOf(ServerCall<?, ?> call, Metadata headers) {
+        final String apiKey = headers.get(apiKeyHeader);
+        if (apiKey != null && rateLimitProperties.getApiKeys().contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        final SocketAddress remote = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        return "ip:" + (remote instanceof InetSocketAddress address && address.getAddress() != null
+                ? address.getAddress().getHostAddress()
+                : "unknown");
+    }
+
+    private static <Q, R> ServerCall.Listener<Q> reject(ServerCall<Q, R> call, Status status) {
+        call.close(status, new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    }
+
+    private record HttpRoute(String method, String path) {
+    }
+
+    /**
+     * Limiter and stream permits of one call, released once when the call completes or is cancelled
+     */
+    private static final class Permits {
+
+        private final Limiter.Listener listener;
+        private final Semaphore streams;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile Status status;
+
+        private Permits(Limiter.Listener listener, Semaphore streams) {
+            this.listener = listener;
+            this.streams = streams;
+        }
+
+        private void release(boolean cancelled) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (streams != null) {
+                streams.release();
+            }
+            if (cancelled || status == null) {
+                listener.onIgnore();
+            } else if (status.getCode() == Status.Code.INTERNAL || status.getCode() == Status.Code.UNAVAILABLE) {
+                // Typically a connection-pool timeout, i.e. the backend is saturated
+                listener.onDropped();
+            } else {
+                listener.onSuccess();
+            }
+        }
+    }
+
+    private enum NoopListener implements Limiter.Listener {
+        INSTANCE;
+
+        @Override
+        public void onSuccess() {
+        }
+
+        @Override
+        public void onIgnore() {
+        }
+
+        @Override
+        public void onDropped() {
+        }
+    }
+}
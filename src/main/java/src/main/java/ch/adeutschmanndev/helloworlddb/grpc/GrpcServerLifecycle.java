@@ -0,0 +1,78 @@
+package ch.adeutschmanndev.helloworlddb.grpc;
+
+import ch.adeutschmanndev.helloworlddb.config.GrpcProperties;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC server in the same process as the HTTP routes
+ * As a lifecycle bean it is stopped and restarted around CRaC checkpoints, like the web server
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final GrpcProperties properties;
+    private final GreetingsGrpcService greetingsGrpcService;
+    private final GrpcLimitInterceptor limitInterceptor;
+
+    private ExecutorService executor;
+    private Server server;
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Calls block on JDBC, so each runs on its own virtual thread; their number is bounded by limitInterceptor
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            server = Grpc.newServerBuilderForPort(properties.getPort(), InsecureServerCredentials.create())
+                    .executor(executor)
+                    .addService(ServerInterceptors.intercept(greetingsGrpcService, limitInterceptor))
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw new UncheckedIOException("Could not start gRPC server on port " + properties.getPort(), e);
+        }
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(properties.getShutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        server = null;
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,104 @@
+package ch.adeutschmanndev.helloworlddb.jfr;
+
+import ch.adeutschmanndev.helloworlddb.config.FlightRecorderProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Always-on flight recording kept on disk for the last max-age, from which recent windows are dumped on demand
+ * As a lifecycle bean it is closed and restarted around CRaC checkpoints, so no recording file is open in the checkpoint
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContinuousRecording implements SmartLifecycle {
+
+    private final FlightRecorderProperties properties;
+
+    private Recording recording;
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not read JFR settings " + properties.getSettings(), e);
+        }
+        recording.setName("helloworld-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.enable(GreetingsRouteEvent.class).withThreshold(properties.getRouteThreshold());
+        recording.enable(GreetingsRepositoryEvent.class).withThreshold(properties.getRepositoryThreshold());
+        recording.start();
+        log.info("Started continuous flight recording ({} settings, keeping {})", properties.getSettings(), properties.getMaxAge());
+    }
+
+    @Override
+    public void stop() {
+        if (recording == null) {
+            return;
+        }
+        recording.close();
+        recording = null;
+        log.info("Stopped continuous flight recording");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Writes the events of the last window, at most max-age, to a new temporary file
+     *
+     * @param window how far back to go; the whole retained recording if null
+     */
+    public Path dump(Duration window) throws IOException {
+        final Path snapshot = snapshot();
+        if (window == null || window.compareTo(properties.getMaxAge()) >= 0) {
+            return snapshot;
+        }
+        // The snapshot holds whole chunks; events before the window are dropped while copying
+        final Instant from = Instant.now().minus(window);
+        try (RecordingFile recordingFile = new RecordingFile(snapshot)) {
+            final Path trimmed = Files.createTempFile("helloworld-", ".jfr");
+            try {
+                recordingFile.write(trimmed, event -> !event.getEndTime().isBefore(from));
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(trimmed);
+                throw e;
+            }
+            return trimmed;
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private Path snapshot() throws IOException {
+        final Path file = Files.createTempFile("helloworld-", ".jfr");
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            snapshot.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+}
@@ -0,0 +1,66 @@
+package ch.adeutschmanndev.helloworlddb.jfr;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repository time and rows accumulated for the current request
+ * Inherited by threads started while the request runs, e.g. the virtual threads of a scatter or parallel query,
+ * so their repository calls are added to the request that started them
+ */
+public final class DatabaseTime implements AutoCloseable {
+
+    private static final InheritableThreadLocal<DatabaseTime> CURRENT = new InheritableThreadLocal<>();
+
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder calls = new LongAdder();
+    private boolean uncountedRows;
+
+    private DatabaseTime() {
+    }
+
+    /**
+     * Starts accumulating for the calling thread until the returned instance is closed
+     */
+    public static DatabaseTime start() {
+        final DatabaseTime databaseTime = new DatabaseTime();
+        CURRENT.set(databaseTime);
+        return databaseTime;
+    }
+
+    /**
+     * Adds one repository call to the current request, if there is one
+     *
+     * @param rows the rows returned, or -1 if they are not known
+     */
+    static void record(long nanos, long rows) {
+        final DatabaseTime current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        current.nanos.add(nanos);
+        current.calls.increment();
+        if (rows < 0) {
+            current.uncountedRows = true;
+        } else {
+            current.rows.add(rows);
+        }
+    }
+
+    public long nanos() {
+        return nanos.sum();
+    }
+
+    public long rows() {
+        return uncountedRows ? -1 : rows.sum();
+    }
+
+    public int calls() {
+        return calls.intValue();
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,31 @@
+package ch.adeutschmanndev.helloworlddb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to a Spring Data repository method, e.g. GreetingsRepository.findBySender
+ */
+@Name("helloworld.GreetingsRepository")
+@Label("Greetings Repository Call")
+@Category({"Hello World DB", "Database"})
+@Description("Call to a repository method, including the query and mapping its result")
+@StackTrace(false)
+public class GreetingsRepositoryEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Shard")
+    public String shard;
+
+    @Label("Rows")
+    @Description("Rows returned; -1 for streams, which are read after the call")
+    public long rows;
+}
@@ -0,0 +1,41 @@
+package ch.adeutschmanndev.helloworlddb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One request to a Greetings API route, with the repository work done for it
+ */
+@Name("helloworld.GreetingsRoute")
+@Label("Greetings Route")
+@Category({"Hello World DB", "Greetings API"})
+@Description("Request to a Greetings API route")
+@StackTrace(false)
+public class GreetingsRouteEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    @Description("Matched route pattern, e.g. /api/greetings/{id}")
+    public String route;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Rows")
+    @Description("Rows returned by the repository calls for the request; -1 if a streamed result was not counted")
+    public long rows;
+
+    @Label("Repository Calls")
+    public int repositoryCalls;
+
+    @Label("Database Time")
+    @Description("Time spent in repository calls, summed over the threads working for the request")
+    @Timespan(Timespan.NANOSECONDS)
+    public long databaseTime;
+}
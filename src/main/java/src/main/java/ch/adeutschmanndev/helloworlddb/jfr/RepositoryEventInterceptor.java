@@ -0,0 +1,69 @@
+package ch.adeutschmanndev.helloworlddb.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Records a GreetingsRepositoryEvent for every repository call and adds its time to the current request
+ */
+public class RepositoryEventInterceptor implements MethodInterceptor {
+
+    private final String repository;
+    private final String shard;
+
+    public RepositoryEventInterceptor(String repository, String shard) {
+        this.repository = repository;
+        this.shard = shard;
+    }
+
+    /**
+     * Adds the interceptor to the repositories created by a repository factory
+     *
+     * @param shard the shard the factory's repositories query
+     */
+    public static RepositoryProxyPostProcessor postProcessor(String shard) {
+        return (factory, repositoryInformation) -> factory.addAdvice(
+                new RepositoryEventInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName(), shard));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        final GreetingsRepositoryEvent event = new GreetingsRepositoryEvent();
+        event.begin();
+        final long started = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            final long rows = rows(result);
+            DatabaseTime.record(System.nanoTime() - started, rows);
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.shard = shard;
+                event.rows = rows;
+                event.commit();
+            }
+        }
+    }
+
+    private static long rows(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Collection<?> collection -> collection.size();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case Slice<?> slice -> slice.getNumberOfElements();
+            case Iterable<?> ignored -> -1;
+            case BaseStream<?, ?> ignored -> -1;
+            default -> 1;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Page of conversations, most recently active first")
+public class ConversationListResponseDto {
+
+    @Schema(description = "Conversations on this page")
+    private List<ConversationResponseDto> conversations;
+
+    @Schema(description = "Cursor for the next page, absent on the last page", example = "2025-08-31T10:15:30")
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema(description = "Summary of a conversation between two participants")
+public class ConversationResponseDto {
+
+    @Schema(description = "The two participants in database collation order", example = "[\"alice\", \"bob\"]")
+    private List<String> participants;
+
+    @Schema(description = "Number of greetings exchanged in both directions", example = "42")
+    private long messageCount;
+
+    @Schema(description = "Identifier of the most recent greeting", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID lastGreetingId;
+
+    @Schema(description = "Message of the most recent greeting", example = "How are you doing?")
+    private String lastMessage;
+
+    @Schema(description = "Sender of the most recent greeting", example = "bob")
+    private String lastSender;
+
+    @Schema(description = "When the most recent greeting was created", example = "2025-08-31T10:15:30")
+    private LocalDateTime lastActivity;
+}
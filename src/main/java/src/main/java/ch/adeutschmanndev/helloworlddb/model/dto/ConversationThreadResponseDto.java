@@ -0,0 +1,22 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Page of a conversation thread in both directions, newest first")
+public class ConversationThreadResponseDto {
+
+    @Schema(description = "The two participants in request order", example = "[\"alice\", \"bob\"]")
+    private List<String> participants;
+
+    @Schema(description = "Greetings on this page")
+    private List<GreetingResponseDto> greetings;
+
+    @Schema(description = "Cursor for the next (older) page, absent on the last page")
+    private String nextCursor;
+}
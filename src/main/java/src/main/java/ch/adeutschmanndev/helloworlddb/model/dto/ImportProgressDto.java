@@ -0,0 +1,44 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema(description = "Progress of a bulk import")
+public class ImportProgressDto {
+
+    @Schema(description = "Import identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID importId;
+
+    @Schema(description = "Upload format: csv or ndjson", example = "csv")
+    private String format;
+
+    @Schema(description = "RECEIVING, MERGING, COMPLETED or FAILED", example = "RECEIVING")
+    private String phase;
+
+    @Schema(description = "Uncompressed bytes received so far", example = "1048576")
+    private long bytesReceived;
+
+    @Schema(description = "Rows received so far; approximate while receiving", example = "12000")
+    private long rowsReceived;
+
+    @Schema(description = "Rows inserted into greetings, once merged", example = "11998")
+    private long rowsImported;
+
+    @Schema(description = "Rows failing validation, once merged", example = "2")
+    private long rowsRejected;
+
+    @Schema(description = "When the import started", example = "2025-08-31T10:15:30")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "When the import completed or failed", example = "2025-08-31T10:15:42")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Failure cause of a failed import")
+    private String error;
+}
@@ -0,0 +1,17 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Import row that was not inserted")
+public class ImportRejectionDto {
+
+    @Schema(description = "CSV record number (excluding the header) or NDJSON line number", example = "17")
+    private long row;
+
+    @Schema(description = "First validation rule the row failed", example = "Message cannot be blank")
+    private String reason;
+}
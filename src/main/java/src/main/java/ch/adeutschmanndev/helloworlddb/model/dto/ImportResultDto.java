@@ -0,0 +1,32 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema(description = "Result of a bulk import")
+public class ImportResultDto {
+
+    @Schema(description = "Import identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID importId;
+
+    @Schema(description = "Rows received", example = "1000000")
+    private long rowsReceived;
+
+    @Schema(description = "Rows inserted into greetings", example = "999998")
+    private long rowsImported;
+
+    @Schema(description = "Rows failing validation", example = "2")
+    private long rowsRejected;
+
+    @Schema(description = "Import duration in milliseconds", example = "21450")
+    private long durationMs;
+
+    @Schema(description = "Rejected rows in input order, capped at helloworld.import.max-reported-rejections")
+    private List<ImportRejectionDto> rejections;
+}
@@ -0,0 +1,20 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Number of greetings whose message length falls into a range")
+public class LengthBucketDto {
+
+    @Schema(description = "Inclusive lower bound of the message length", example = "0")
+    private int minLength;
+
+    @Schema(description = "Inclusive upper bound of the message length", example = "49")
+    private int maxLength;
+
+    @Schema(description = "Number of greetings", example = "42")
+    private long count;
+}
@@ -0,0 +1,20 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Distribution of greeting message lengths")
+public class LengthDistributionResponseDto {
+
+    @Schema(description = "Greetings created up to this instant are included", example = "2025-08-31T10:15:25")
+    private LocalDateTime freshUntil;
+
+    @Schema(description = "Non-empty length buckets in ascending order")
+    private List<LengthBucketDto> buckets;
+}
@@ -0,0 +1,17 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Number of greetings of one sender or recipient")
+public class ParticipantCountDto {
+
+    @Schema(description = "Sender or recipient name", example = "alice")
+    private String participant;
+
+    @Schema(description = "Number of greetings", example = "42")
+    private long count;
+}
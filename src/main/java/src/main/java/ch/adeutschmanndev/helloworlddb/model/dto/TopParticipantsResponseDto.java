@@ -0,0 +1,20 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Most active senders or recipients")
+public class TopParticipantsResponseDto {
+
+    @Schema(description = "Greetings created up to this instant are included", example = "2025-08-31T10:15:25")
+    private LocalDateTime freshUntil;
+
+    @Schema(description = "Participants by greeting count, descending")
+    private List<ParticipantCountDto> participants;
+}
@@ -0,0 +1,19 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Schema(description = "Number of greetings created in one time bucket")
+public class VolumeBucketDto {
+
+    @Schema(description = "Start of the bucket", example = "2025-08-31T10:00:00")
+    private LocalDateTime bucket;
+
+    @Schema(description = "Greetings created in the bucket", example = "42")
+    private long count;
+}
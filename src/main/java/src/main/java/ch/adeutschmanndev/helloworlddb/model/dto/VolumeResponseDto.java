@@ -0,0 +1,23 @@
+package ch.adeutschmanndev.helloworlddb.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Greeting volume over time")
+public class VolumeResponseDto {
+
+    @Schema(description = "Bucket size: minute, hour or day", example = "hour")
+    private String granularity;
+
+    @Schema(description = "Greetings created up to this instant are included", example = "2025-08-31T10:15:25")
+    private LocalDateTime freshUntil;
+
+    @Schema(description = "Non-empty buckets in ascending order")
+    private List<VolumeBucketDto> buckets;
+}
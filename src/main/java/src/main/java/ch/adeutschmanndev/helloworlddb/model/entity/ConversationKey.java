@@ -0,0 +1,21 @@
+package ch.adeutschmanndev.helloworlddb.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Normalized key of a conversation: the two participants ordered by LEAST/GREATEST under the database collation,
+ * independent of direction; never order a pair in Java, String.compareTo disagrees with most collations
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationKey implements Serializable {
+
+    private String participantLow;
+
+    private String participantHigh;
+}
@@ -0,0 +1,48 @@
+package ch.adeutschmanndev.helloworlddb.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Conversation summary, maintained by the maintain_greetings_conversations trigger
+ */
+@Entity
+@Table(name = "conversations")
+@IdClass(ConversationKey.class)
+@Immutable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Conversations {
+
+    @Id
+    @Column(name = "participant_low", length = 100)
+    private String participantLow;
+
+    @Id
+    @Column(name = "participant_high", length = 100)
+    private String participantHigh;
+
+    @Column(name = "message_count", nullable = false)
+    private long messageCount;
+
+    @Column(name = "last_greeting_id", nullable = false)
+    private UUID lastGreetingId;
+
+    @Column(name = "last_message", nullable = false, length = 500)
+    private String lastMessage;
+
+    @Column(name = "last_sender", length = 100)
+    private String lastSender;
+
+    @Column(name = "last_activity", nullable = false)
+    private LocalDateTime lastActivity;
+}
@@ -5,18 +5,28 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
 @Table(name = "greetings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Greetings.CACHE_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Greetings {
 
+    public static final String CACHE_REGION = "greetings";
+    public static final String QUERY_CACHE_REGION = "greetings-queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -33,17 +43,15 @@ public class Greetings {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Set by the column default and the update_greetings_updated_at trigger, then read back into the entity,
+    // so cached instances carry the database value
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // PostgreSQL stores microseconds; truncating keeps the cached instance equal to the stored row
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
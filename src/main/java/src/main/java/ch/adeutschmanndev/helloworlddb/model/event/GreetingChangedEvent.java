@@ -0,0 +1,18 @@
+package ch.adeutschmanndev.helloworlddb.model.event;
+
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+
+/**
+ * Published by GreetingsService for every write, delivered to listeners after the transaction commits
+ *
+ * @param type     Kind of change
+ * @param greeting State of the greeting after the change (before it, for deletions)
+ */
+public record GreetingChangedEvent(ChangeType type, Greetings greeting) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
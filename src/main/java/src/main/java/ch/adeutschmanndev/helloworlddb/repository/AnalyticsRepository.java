@@ -0,0 +1,140 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rollup tables behind the analytics endpoints (see V3__ANALYTICS_ROLLUPS.sql) and their delta log
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsRepository {
+
+    private static final String WATERMARK = "greetings";
+
+    // Drains up to batchSize changes from the delta log (see V8__ANALYTICS_DELTA_LOG.sql) and adds their signed counts
+    // to every rollup in one statement
+    private static final String ROLLUP_SQL = """
+            WITH delta AS (
+                DELETE FROM helloworld.greetings_rollup_delta
+                WHERE id IN (SELECT id FROM helloworld.greetings_rollup_delta ORDER BY id LIMIT :batchSize)
+                RETURNING created_at, sender, recipient, message_length, sign
+            ),
+            volume AS (
+                INSERT INTO helloworld.greetings_volume_rollup AS rollup (granularity, bucket, greeting_count)
+                SELECT granularity.name, date_trunc(granularity.name, delta.created_at), SUM(delta.sign)
+                FROM delta CROSS JOIN (VALUES ('minute'), ('hour'), ('day')) AS granularity(name)
+                GROUP BY 1, 2
+                ON CONFLICT (granularity, bucket) DO UPDATE
+                    SET greeting_count = rollup.greeting_count + EXCLUDED.greeting_count
+            ),
+            senders AS (
+                INSERT INTO helloworld.greetings_sender_rollup AS rollup (sender, greeting_count)
+                SELECT sender, SUM(sign) FROM delta WHERE sender IS NOT NULL GROUP BY sender
+                ON CONFLICT (sender) DO UPDATE
+                    SET greeting_count = rollup.greeting_count + EXCLUDED.greeting_count
+            ),
+            recipients AS (
+                INSERT INTO helloworld.greetings_recipient_rollup AS rollup (recipient, greeting_count)
+                SELECT recipient, SUM(sign) FROM delta WHERE recipient IS NOT NULL GROUP BY recipient
+                ON CONFLICT (recipient) DO UPDATE
+                    SET greeting_count = rollup.greeting_count + EXCLUDED.greeting_count
+            ),
+            lengths AS (
+                INSERT INTO helloworld.greetings_length_rollup AS rollup (min_length, greeting_count)
+                SELECT (message_length / :lengthBucketWidth) * :lengthBucketWidth, SUM(sign) FROM delta GROUP BY 1
+                ON CONFLICT (min_length) DO UPDATE
+                    SET greeting_count = rollup.greeting_count + EXCLUDED.greeting_count
+            )
+            SELECT COUNT(*) FROM delta
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks the rollup watermark; only one instance aggregates at a time
+     */
+    public void lockWatermark() {
+        jdbcTemplate.queryForObject(
+                "SELECT processed_until FROM helloworld.analytics_watermark WHERE name = :name FOR UPDATE",
+                new MapSqlParameterSource("name", WATERMARK), LocalDateTime.class);
+    }
+
+    public LocalDateTime findWatermark() {
+        return jdbcTemplate.queryForObject(
+                "SELECT processed_until FROM helloworld.analytics_watermark WHERE name = :name",
+                new MapSqlParameterSource("name", WATERMARK), LocalDateTime.class);
+    }
+
+    public void updateWatermark(LocalDateTime processedUntil) {
+        jdbcTemplate.update("UPDATE helloworld.analytics_watermark SET processed_until = :processedUntil WHERE name = :name",
+                new MapSqlParameterSource("name", WATERMARK).addValue("processedUntil", processedUntil));
+    }
+
+    /**
+     * Folds up to batchSize logged changes into all rollups and drops senders and recipients left without greetings
+     *
+     * @return Number of changes folded
+     */
+    public long rollup(int batchSize, int lengthBucketWidth) {
+        final Long count = jdbcTemplate.queryForObject(ROLLUP_SQL, new MapSqlParameterSource()
+                .addValue("batchSize", batchSize)
+                .addValue("lengthBucketWidth", lengthBucketWidth), Long.class);
+        if (count == null || count == 0) {
+            return 0;
+        }
+        jdbcTemplate.update("DELETE FROM helloworld.greetings_sender_rollup WHERE greeting_count <= 0",
+                new MapSqlParameterSource());
+        jdbcTemplate.update("DELETE FROM helloworld.greetings_recipient_rollup WHERE greeting_count <= 0",
+                new MapSqlParameterSource());
+        return count;
+    }
+
+    public List<VolumeRow> findVolume(String granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("""
+                        SELECT bucket, greeting_count FROM helloworld.greetings_volume_rollup
+                        WHERE granularity = :granularity AND bucket >= :from AND bucket < :to
+                        ORDER BY bucket
+                        """,
+                new MapSqlParameterSource("granularity", granularity).addValue("from", from).addValue("to", to),
+                (rs, rowNum) -> new VolumeRow(rs.getObject("bucket", LocalDateTime.class), rs.getLong("greeting_count")));
+    }
+
+    public List<ParticipantRow> findTopSenders(int limit) {
+        return jdbcTemplate.query("""
+                        SELECT sender, greeting_count FROM helloworld.greetings_sender_rollup
+                        ORDER BY greeting_count DESC LIMIT :limit
+                        """,
+                new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new ParticipantRow(rs.getString("sender"), rs.getLong("greeting_count")));
+    }
+
+    public List<ParticipantRow> findTopRecipients(int limit) {
+        return jdbcTemplate.query("""
+                        SELECT recipient, greeting_count FROM helloworld.greetings_recipient_rollup
+                        ORDER BY greeting_count DESC LIMIT :limit
+                        """,
+                new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new ParticipantRow(rs.getString("recipient"), rs.getLong("greeting_count")));
+    }
+
+    public List<LengthRow> findLengthDistribution() {
+        return jdbcTemplate.query(
+                "SELECT min_length, greeting_count FROM helloworld.greetings_length_rollup ORDER BY min_length",
+                (rs, rowNum) -> new LengthRow(rs.getInt("min_length"), rs.getLong("greeting_count")));
+    }
+
+    public record VolumeRow(LocalDateTime bucket, long count) {
+    }
+
+    public record ParticipantRow(String participant, long count) {
+    }
+
+    public record LengthRow(int minLength, long count) {
+    }
+}
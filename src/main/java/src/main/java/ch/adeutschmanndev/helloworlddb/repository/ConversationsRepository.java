@@ -0,0 +1,36 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import ch.adeutschmanndev.helloworlddb.model.entity.ConversationKey;
+import ch.adeutschmanndev.helloworlddb.model.entity.Conversations;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConversationsRepository extends JpaRepository<Conversations, ConversationKey> {
+
+    // Find conversations of a participant, most recently active first
+    @Query("SELECT conversations FROM Conversations conversations " +
+            "WHERE conversations.participantLow = :participant OR conversations.participantHigh = :participant " +
+            "ORDER BY conversations.lastActivity DESC, conversations.participantLow DESC, conversations.participantHigh DESC")
+    List<Conversations> findByParticipant(@Param("participant") String participant, Limit limit);
+
+    // Find conversations of a participant following a (last_activity, participant_low, participant_high) cursor,
+    // so conversations sharing last_activity across a page boundary are neither skipped nor repeated
+    @Query("SELECT conversations FROM Conversations conversations " +
+            "WHERE (conversations.participantLow = :participant OR conversations.participantHigh = :participant) " +
+            "AND (conversations.lastActivity < :before " +
+            "OR (conversations.lastActivity = :before AND (conversations.participantLow < :low " +
+            "OR (conversations.participantLow = :low AND conversations.participantHigh < :high)))) " +
+            "ORDER BY conversations.lastActivity DESC, conversations.participantLow DESC, conversations.participantHigh DESC")
+    List<Conversations> findByParticipantBefore(@Param("participant") String participant,
+                                                @Param("before") LocalDateTime before,
+                                                @Param("low") String participantLow,
+                                                @Param("high") String participantHigh,
+                                                Limit limit);
+}
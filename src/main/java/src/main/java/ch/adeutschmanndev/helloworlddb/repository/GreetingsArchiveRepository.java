@@ -0,0 +1,93 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards.Shard;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves expired greetings into helloworld.greetings_archive (see V6__GREETINGS_ARCHIVE.sql) of the shard holding them
+ * Statements run on the shard's DataSource, so they join a transaction of the shard's transaction templates
+ */
+@Repository
+public class GreetingsArchiveRepository {
+
+    // One statement per batch: picks the oldest rows from the keyset position on idx_greetings_created_at,
+    // skipping rows locked by foreground writes, deletes them and stores them as one archive row
+    private static final String ARCHIVE_BATCH_SQL = """
+            WITH batch AS (
+                SELECT id
+                FROM helloworld.greetings
+                WHERE created_at >= :after AND created_at < :cutoff
+                ORDER BY created_at
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            ),
+            moved AS (
+                DELETE FROM helloworld.greetings greeting
+                USING batch
+                WHERE greeting.id = batch.id
+                RETURNING greeting.id, greeting.message, greeting.sender, greeting.recipient,
+                          greeting.created_at, greeting.updated_at
+            ),
+            archived AS (
+                INSERT INTO helloworld.greetings_archive (first_created_at, last_created_at, greeting_count, greetings)
+                SELECT MIN(created_at), MAX(created_at), COUNT(*), jsonb_agg(to_jsonb(moved) ORDER BY created_at, id)
+                FROM moved
+                HAVING COUNT(*) > 0
+            )
+            SELECT id, created_at FROM moved
+            """;
+
+    private final Map<Shard, NamedParameterJdbcTemplate> jdbcTemplates;
+
+    public GreetingsArchiveRepository(GreetingsShards greetingsShards) {
+        this.jdbcTemplates = greetingsShards.getShards().stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                        shard -> new NamedParameterJdbcTemplate(shard.dataSource())));
+    }
+
+    /**
+     * Greeting moved to the archive
+     */
+    public record ArchivedGreeting(UUID id, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Archives up to batchSize of the oldest greetings created in [after, cutoff)
+     *
+     * @return the archived greetings, in no particular order
+     */
+    public List<ArchivedGreeting> archiveBatch(Shard shard, LocalDateTime after, LocalDateTime cutoff, int batchSize) {
+        return jdbcTemplates.get(shard).query(ARCHIVE_BATCH_SQL,
+                new MapSqlParameterSource("after", after)
+                        .addValue("cutoff", cutoff)
+                        .addValue("batchSize", batchSize),
+                (rs, rowNum) -> new ArchivedGreeting(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("created_at", LocalDateTime.class)));
+    }
+
+    /**
+     * Number of greetings created before the cutoff, from a range scan of idx_greetings_created_at
+     */
+    public long countBefore(Shard shard, LocalDateTime cutoff) {
+        return jdbcTemplates.get(shard).queryForObject(
+                "SELECT COUNT(*) FROM helloworld.greetings WHERE created_at < :cutoff",
+                new MapSqlParameterSource("cutoff", cutoff), Long.class);
+    }
+
+    public Optional<LocalDateTime> findOldestCreatedAt(Shard shard) {
+        return Optional.ofNullable(jdbcTemplates.get(shard).queryForObject(
+                "SELECT MIN(created_at) FROM helloworld.greetings",
+                new MapSqlParameterSource(), LocalDateTime.class));
+    }
+}
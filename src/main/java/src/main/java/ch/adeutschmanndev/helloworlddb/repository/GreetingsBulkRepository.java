@@ -0,0 +1,182 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk transfer of the greetings table through the PostgreSQL COPY protocol
+ */
+@Repository
+@RequiredArgsConstructor
+public class GreetingsBulkRepository {
+
+    private static final String EXPORT_COLUMNS = "id, message, sender, recipient, created_at, updated_at";
+
+    /**
+     * Columns an import may supply; id and updated_at are accepted so exports can be re-imported, but ignored
+     */
+    public static final List<String> IMPORT_COLUMNS = List.of("id", "message", "sender", "recipient", "created_at", "updated_at");
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Untyped staging table: every row lands here, so malformed values are reported instead of failing the COPY
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE greetings_import (
+                row_number  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+                id          TEXT,
+                message     TEXT,
+                sender      TEXT,
+                recipient   TEXT,
+                created_at  TEXT,
+                updated_at  TEXT,
+                parse_error TEXT
+            ) ON COMMIT DROP
+            """;
+
+    // Same rules as CreateGreetingRequestDto (@NotBlank message, @Size 500/100)
+    private static final String REJECTION_REASON = """
+            CASE
+                WHEN parse_error IS NOT NULL THEN parse_error
+                WHEN message IS NULL OR message !~ '\\S' THEN 'Message cannot be blank'
+                WHEN char_length(message) > 500 THEN 'Message cannot exceed 500 characters'
+                WHEN char_length(sender) > 100 THEN 'Sender cannot exceed 100 characters'
+                WHEN char_length(recipient) > 100 THEN 'Recipient cannot exceed 100 characters'
+                WHEN created_at IS NOT NULL AND NOT pg_input_is_valid(created_at, 'timestamp')
+                    THEN 'Invalid created_at, use ISO format (yyyy-MM-ddTHH:mm:ss)'
+            END
+            """;
+
+    private static final String MERGE_SQL = """
+            INSERT INTO helloworld.greetings (message, sender, recipient, created_at, updated_at)
+            SELECT message, sender, recipient,
+                   COALESCE(created_at::timestamp, CURRENT_TIMESTAMP), COALESCE(created_at::timestamp, CURRENT_TIMESTAMP)
+            FROM greetings_import
+            WHERE (%s) IS NULL
+            """.formatted(REJECTION_REASON);
+
+    private static final String REJECTED_SQL = """
+            SELECT row_number, reason
+            FROM (SELECT row_number, %s AS reason FROM greetings_import) checked
+            WHERE reason IS NOT NULL
+            ORDER BY row_number
+            LIMIT :limit
+            """.formatted(REJECTION_REASON);
+
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Copy format of an export
+     */
+    public enum CopyFormat {
+        CSV("FORMAT csv, HEADER"),
+        BINARY("FORMAT binary");
+
+        private final String options;
+
+        CopyFormat(String options) {
+            this.options = options;
+        }
+    }
+
+    /**
+     * Writes CSV rows for the staging table into a COPY stream
+     */
+    @FunctionalInterface
+    public interface CopyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Rejected import row with the first failed rule
+     */
+    public record RejectedRow(long rowNumber, String reason) {
+    }
+
+    /**
+     * Streams greetings created in [from, to) into the output stream; the server pushes rows as it reads them
+     *
+     * @param from Inclusive lower bound of created_at, or null
+     * @param to   Exclusive upper bound of created_at, or null
+     * @return Number of rows exported
+     */
+    public long copyOut(CopyFormat format, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws SQLException, IOException {
+        final String sql = "COPY (SELECT " + EXPORT_COLUMNS + " FROM helloworld.greetings" + whereClause(from, to)
+                + ") TO STDOUT WITH (" + format.options + ")";
+
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+        }
+    }
+
+    /**
+     * Creates the staging table; it lives until the surrounding transaction ends
+     */
+    public void createStaging() {
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_STAGING_SQL);
+    }
+
+    /**
+     * Copies CSV rows (without header) into the staging table on the connection of the current transaction
+     *
+     * @param columns Staging columns in the order the CSV provides them
+     * @return Number of rows copied
+     */
+    public long copyIntoStaging(List<String> columns, CopyWriter writer) throws SQLException, IOException {
+        final String sql = "COPY greetings_import (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        final Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            final PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, COPY_BUFFER_SIZE);
+            try {
+                writer.writeTo(copy);
+            } catch (IOException | RuntimeException e) {
+                copy.cancelCopy();
+                throw e;
+            }
+            return copy.endCopy();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Inserts all valid staged rows into greetings in one statement; every other staged row is rejected
+     *
+     * @return Number of greetings inserted
+     */
+    public long mergeStaging() {
+        return jdbcTemplate.getJdbcTemplate().update(MERGE_SQL);
+    }
+
+    public List<RejectedRow> findRejected(int limit) {
+        return jdbcTemplate.query(REJECTED_SQL, new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new RejectedRow(rs.getLong("row_number"), rs.getString("reason")));
+    }
+
+    // COPY does not accept bind parameters; LocalDateTime renders as a plain ISO literal
+    private static String whereClause(LocalDateTime from, LocalDateTime to) {
+        final List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add("created_at >= TIMESTAMP '" + from + "'");
+        }
+        if (to != null) {
+            conditions.add("created_at < TIMESTAMP '" + to + "'");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
@@ -0,0 +1,51 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for the greeting list endpoints: only the requested columns are selected and returned
+ */
+public interface GreetingsProjectionRepository {
+
+    /**
+     * Greeting fields that can be requested, named as in GreetingResponseDto and the entity
+     */
+    enum Field {
+        ID("id"),
+        MESSAGE("message"),
+        SENDER("sender"),
+        RECIPIENT("recipient"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt");
+
+        private final String attribute;
+
+        Field(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public static Field fromAttribute(String attribute) {
+            return Arrays.stream(values())
+                    .filter(field -> field.attribute.equals(attribute))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * Selects the given fields of all greetings matching the filter
+     *
+     * @return one map per greeting, keyed by field name in declaration order of {@link Field}
+     */
+    List<Map<String, Object>> findProjected(Set<Field> fields, Specification<Greetings> filter);
+}
@@ -0,0 +1,55 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Criteria tuple queries behind {@link GreetingsProjectionRepository}; picked up by Spring Data as a repository fragment
+ */
+public class GreetingsProjectionRepositoryImpl implements GreetingsProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    public GreetingsProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjected(Set<Field> fields, Specification<Greetings> filter) {
+        final List<Field> selected = List.copyOf(EnumSet.copyOf(fields));
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        final Root<Greetings> root = query.from(Greetings.class);
+
+        query.multiselect(selected.stream()
+                .<Selection<?>>map(field -> root.get(field.getAttribute()).alias(field.getAttribute()))
+                .toList());
+        final Predicate predicate = filter.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getResultStream()
+                .map(tuple -> {
+                    final Map<String, Object> row = new LinkedHashMap<>(selected.size() * 2);
+                    for (int i = 0; i < selected.size(); i++) {
+                        row.put(selected.get(i).getAttribute(), tuple.get(i));
+                    }
+                    return row;
+                })
+                .toList();
+    }
+}
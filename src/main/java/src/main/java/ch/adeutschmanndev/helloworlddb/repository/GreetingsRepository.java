@@ -1,8 +1,12 @@
 package ch.adeutschmanndev.helloworlddb.repository;
 
 import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -10,20 +14,39 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+// Sender, recipient and latest lookups are served from the query cache until the greetings table changes
 @Repository
-public interface GreetingsRepository extends JpaRepository<Greetings, UUID> {
+public interface GreetingsRepository extends JpaRepository<Greetings, UUID>, GreetingsProjectionRepository {
+
+    String STREAM_FETCH_SIZE = "500";
+
+    // Restricts a native query to the heap blocks in [fromTid, toTid), read with a TID range scan
+    String TID_RANGE = "ctid >= CAST(:fromTid AS tid) AND ctid < CAST(:toTid AS tid)";
 
     // Find greetings by sender
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Greetings.QUERY_CACHE_REGION)
+    })
     List<Greetings> findBySender(String sender);
 
     // Find greetings by recipient
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Greetings.QUERY_CACHE_REGION)
+    })
     List<Greetings> findByRecipient(String recipient);
 
     // Find greetings containing specific message text
     List<Greetings> findByMessageContainingIgnoreCase(String message);
 
     // Find greetings between sender and recipient
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Greetings.QUERY_CACHE_REGION)
+    })
     @Query("SELECT greetings FROM Greetings greetings WHERE greetings.sender = :sender AND greetings.recipient = :recipient")
     List<Greetings> findGreetingsBetween(@Param("sender") String sender, @Param("recipient") String recipient);
 
@@ -31,5 +54,82 @@ public interface GreetingsRepository extends JpaRepository<Greetings, UUID> {
     List<Greetings> findByCreatedAtAfter(LocalDateTime date);
 
     // Find latest greeting by sender
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Greetings.QUERY_CACHE_REGION)
+    })
     Optional<Greetings> findTopBySenderOrderByCreatedAtDesc(String sender);
+
+    // Stream greetings by recipient, fetching rows in chunks (requires an open transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Greetings> streamByRecipient(String recipient);
+
+    // Stream greetings containing specific message text
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Greetings> streamByMessageContainingIgnoreCase(String message);
+
+    // Stream greetings created after a specific date
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Greetings> streamByCreatedAtAfter(LocalDateTime date);
+
+    // Find the latest greeting of each sender, for the most recently active senders (one scan with DISTINCT ON)
+    @Query(value = "SELECT * FROM (" +
+            "SELECT DISTINCT ON (sender) * FROM helloworld.greetings WHERE sender IS NOT NULL " +
+            "ORDER BY sender, created_at DESC, id DESC) latest " +
+            "ORDER BY created_at DESC LIMIT :limit", nativeQuery = true)
+    List<Greetings> findLatestPerSender(@Param("limit") int limit);
+
+    // Insert a greeting keeping its ID and creation time, e.g. when a changed recipient moves it to another shard
+    @Modifying
+    @Query(value = "INSERT INTO helloworld.greetings (id, message, sender, recipient, created_at) " +
+            "VALUES (:id, :message, :sender, :recipient, :createdAt)", nativeQuery = true)
+    void insertWithId(@Param("id") UUID id,
+                      @Param("message") String message,
+                      @Param("sender") String sender,
+                      @Param("recipient") String recipient,
+                      @Param("createdAt") LocalDateTime createdAt);
+
+    // Estimated number of 8 KB pages of the greetings table, as of the last VACUUM or ANALYZE
+    @Query(value = "SELECT relpages FROM pg_class WHERE oid = 'helloworld.greetings'::regclass", nativeQuery = true)
+    int estimatePages();
+
+    // Count the greetings in a block range
+    @Query(value = "SELECT count(*) FROM helloworld.greetings WHERE " + TID_RANGE, nativeQuery = true)
+    long countSlice(@Param("fromTid") String fromTid, @Param("toTid") String toTid);
+
+    // Find greetings created after a specific date in a block range, ordered for merging
+    @Query(value = "SELECT * FROM helloworld.greetings WHERE " + TID_RANGE + " AND created_at > :date " +
+            "ORDER BY created_at, id", nativeQuery = true)
+    List<Greetings> findSliceCreatedAfter(@Param("fromTid") String fromTid,
+                                          @Param("toTid") String toTid,
+                                          @Param("date") LocalDateTime date);
+
+    // Find greetings whose upper-cased message matches a LIKE pattern (backslash escapes) in a block range, ordered for merging
+    @Query(value = "SELECT * FROM helloworld.greetings WHERE " + TID_RANGE + " AND upper(message) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY created_at, id", nativeQuery = true)
+    List<Greetings> findSliceByMessageLike(@Param("fromTid") String fromTid,
+                                           @Param("toTid") String toTid,
+                                           @Param("pattern") String pattern);
+
+    // Find the newest page of a conversation in both directions (range scan on idx_greetings_conversation)
+    // The pair is ordered with LEAST/GREATEST like the generated columns, so both use the database collation
+    @Query(value = "SELECT * FROM helloworld.greetings " +
+            "WHERE participant_low = LEAST(:participant, :otherParticipant) " +
+            "AND participant_high = GREATEST(:participant, :otherParticipant) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Greetings> findConversationPage(@Param("participant") String participant,
+                                         @Param("otherParticipant") String otherParticipant,
+                                         @Param("limit") int limit);
+
+    // Find the conversation page following a (created_at, id) cursor
+    @Query(value = "SELECT * FROM helloworld.greetings " +
+            "WHERE participant_low = LEAST(:participant, :otherParticipant) " +
+            "AND participant_high = GREATEST(:participant, :otherParticipant) " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Greetings> findConversationPageBefore(@Param("participant") String participant,
+                                               @Param("otherParticipant") String otherParticipant,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") UUID id,
+                                               @Param("limit") int limit);
 }
@@ -0,0 +1,242 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Routes greetings repository calls to the shard owning a recipient, or to all shards at once
+ * Recipients are placed on a consistent-hash ring, so adding a shard only moves the keys it takes over.
+ * With a single shard every call runs directly on the primary repository in the caller's transaction.
+ * Writes to additional shards commit in their own transaction: only inserts are undone when the caller rolls back
+ */
+@Slf4j
+public class GreetingsShards implements AutoCloseable {
+
+    /**
+     * Order of results merged across shards or block ranges
+     */
+    public static final Comparator<Greetings> CREATED_AT_ORDER = Comparator
+            .comparing(Greetings::getCreatedAt)
+            .thenComparing(Greetings::getId);
+
+    private final List<Shard> shards;
+    private final TreeMap<Long, Shard> ring = new TreeMap<>();
+    private final List<AutoCloseable> resources;
+    // Carries the caller's trace context into the virtual threads, so their JDBC spans belong to the request
+    private final ExecutorService scatterExecutor = ContextExecutorService.wrap(
+            Executors.newVirtualThreadPerTaskExecutor(), ContextSnapshotFactory.builder().build());
+
+    /**
+     * @param shards    the primary shard first, then the additional shards
+     * @param resources closed with this instance, e.g. the additional pools and entity manager factories
+     */
+    public GreetingsShards(List<Shard> shards, int virtualNodes, List<AutoCloseable> resources) {
+        this.shards = List.copyOf(shards);
+        this.resources = List.copyOf(resources);
+        for (Shard shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard.name() + "#" + i), shard);
+            }
+        }
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public Shard primary() {
+        return shards.getFirst();
+    }
+
+    /**
+     * The shard owning all greetings to the given recipient
+     */
+    public Shard forRecipient(String recipient) {
+        if (!isSharded()) {
+            return primary();
+        }
+        final Map.Entry<Long, Shard> owner = ring.ceilingEntry(hash(recipient == null ? "" : recipient));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * The shard holding the greeting with the given ID; without sharding the primary, even if it does not hold it
+     */
+    public Optional<Shard> locate(UUID id) {
+        if (!isSharded()) {
+            return Optional.of(primary());
+        }
+        final List<Boolean> found = scatter(repository -> repository.existsById(id));
+        for (int i = 0; i < shards.size(); i++) {
+            if (found.get(i)) {
+                return Optional.of(shards.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Runs the work in a read-only transaction on the shard, or in the caller's transaction on the primary
+     */
+    public <T> T read(Shard shard, Function<GreetingsRepository, T> work) {
+        return shard == primary() ? work.apply(shard.repository()) : shard.readTransactions().execute(status -> work.apply(shard.repository()));
+    }
+
+    /**
+     * Runs the work in a read-write transaction on the shard, or in the caller's transaction on the primary
+     */
+    public <T> T write(Shard shard, Function<GreetingsRepository, T> work) {
+        return shard == primary() ? work.apply(shard.repository()) : shard.writeTransactions().execute(status -> work.apply(shard.repository()));
+    }
+
+    /**
+     * Inserts greetings like write; on an additional shard, whose transaction has committed before the caller's,
+     * the inserted greetings are deleted again if the caller's transaction rolls back
+     */
+    public List<Greetings> insert(Shard shard, Function<GreetingsRepository, List<Greetings>> work) {
+        final List<Greetings> inserted = write(shard, work);
+        if (shard != primary() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            final List<UUID> ids = inserted.stream().map(Greetings::getId).toList();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        compensate(shard, ids);
+                    }
+                }
+            });
+        }
+        return inserted;
+    }
+
+    /**
+     * Runs the work on every shard in parallel, each in its own read-only transaction
+     *
+     * @return one result per shard, in shard order
+     */
+    public <T> List<T> scatter(Function<GreetingsRepository, T> work) {
+        if (!isSharded()) {
+            return List.of(work.apply(primary().repository()));
+        }
+        final List<CompletableFuture<T>> results = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(
+                        () -> shard.readTransactions().execute(status -> work.apply(shard.repository())), scatterExecutor))
+                .toList();
+        try {
+            return results.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            results.forEach(result -> result.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the query on every shard in parallel and merges the results ordered by creation time
+     */
+    public List<Greetings> gather(Function<GreetingsRepository, List<Greetings>> query) {
+        if (!isSharded()) {
+            return query.apply(primary().repository());
+        }
+        return scatter(query).stream()
+                .flatMap(List::stream)
+                .sorted(CREATED_AT_ORDER)
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        scatterExecutor.close();
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Failed to close shard resource {}: {}", resource, e.getMessage());
+            }
+        }
+    }
+
+    private static void compensate(Shard shard, List<UUID> ids) {
+        try {
+            shard.writeTransactions().executeWithoutResult(status -> shard.repository().deleteAllByIdInBatch(ids));
+            log.info("Deleted {} greetings from shard {} after the inserting transaction rolled back", ids.size(), shard);
+        } catch (RuntimeException e) {
+            log.error("Could not delete greetings {} from shard {} after the inserting transaction rolled back", ids, shard, e);
+        }
+    }
+
+    /**
+     * First 8 bytes of the MD5 digest: stable across JVMs and evenly spread, unlike String.hashCode
+     */
+    private static long hash(String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    /**
+     * One database holding a slice of the greetings, with a repository and transactions bound to it
+     *
+     * @param dataSource the DataSource of the shard's entity manager, so JDBC access joins its transactions
+     */
+    public record Shard(String name,
+                        GreetingsRepository repository,
+                        EntityManager entityManager,
+                        TransactionTemplate readTransactions,
+                        TransactionTemplate writeTransactions,
+                        DataSource dataSource) {
+
+        public Shard(String name, GreetingsRepository repository, EntityManager entityManager,
+                     PlatformTransactionManager transactionManager, DataSource dataSource) {
+            this(name, repository, entityManager, readOnly(transactionManager), new TransactionTemplate(transactionManager),
+                    dataSource);
+        }
+
+        private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+            final TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            return template;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
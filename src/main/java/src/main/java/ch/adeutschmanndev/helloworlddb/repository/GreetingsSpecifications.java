@@ -0,0 +1,55 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Filters of the greeting list endpoints, matching the corresponding GreetingsRepository finders
+ */
+public final class GreetingsSpecifications {
+
+    private GreetingsSpecifications() {
+    }
+
+    public static Specification<Greetings> all() {
+        return (root, query, criteriaBuilder) -> null;
+    }
+
+    public static Specification<Greetings> bySender(String sender) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("sender"), sender);
+    }
+
+    public static Specification<Greetings> byRecipient(String recipient) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("recipient"), recipient);
+    }
+
+    public static Specification<Greetings> between(String sender, String recipient) {
+        return bySender(sender).and(byRecipient(recipient));
+    }
+
+    public static Specification<Greetings> createdAfter(LocalDateTime date) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("createdAt"), date);
+    }
+
+    /**
+     * Case-insensitive substring match, like findByMessageContainingIgnoreCase
+     */
+    public static Specification<Greetings> messageContainingIgnoreCase(String message) {
+        final String pattern = containingIgnoreCasePattern(message);
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.like(criteriaBuilder.upper(root.get("message")), pattern, '\\');
+    }
+
+    /**
+     * Upper-cased LIKE pattern matching the text anywhere, with wildcards escaped by backslash
+     */
+    public static String containingIgnoreCasePattern(String message) {
+        return "%" + message.toUpperCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,68 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Idempotency keys with the response of their first request (see V7__IDEMPOTENCY_KEYS.sql)
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Stored key; the response is null only inside the transaction that reserved it
+     */
+    public record StoredKey(String requestHash, String response) {
+    }
+
+    /**
+     * Claims the key for the current transaction; if another transaction holds it, waits until that one ends
+     *
+     * @return false if the key already exists
+     */
+    public boolean reserve(String key, String requestHash) {
+        return jdbcTemplate.update("""
+                        INSERT INTO helloworld.idempotency_keys (idempotency_key, request_hash)
+                        VALUES (:key, :requestHash)
+                        ON CONFLICT (idempotency_key) DO NOTHING
+                        """,
+                new MapSqlParameterSource("key", key).addValue("requestHash", requestHash)) == 1;
+    }
+
+    public void complete(String key, String response) {
+        jdbcTemplate.update("UPDATE helloworld.idempotency_keys SET response = :response WHERE idempotency_key = :key",
+                new MapSqlParameterSource("key", key).addValue("response", response));
+    }
+
+    public Optional<StoredKey> find(String key) {
+        return jdbcTemplate.query(
+                        "SELECT request_hash, response FROM helloworld.idempotency_keys WHERE idempotency_key = :key",
+                        new MapSqlParameterSource("key", key),
+                        (rs, rowNum) -> new StoredKey(rs.getString("request_hash"), rs.getString("response")))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Deletes up to batchSize keys created before the cutoff, oldest first via idx_idempotency_keys_created_at
+     */
+    public int deleteCreatedBefore(LocalDateTime cutoff, int batchSize) {
+        return jdbcTemplate.update("""
+                        DELETE FROM helloworld.idempotency_keys
+                        WHERE idempotency_key IN (SELECT idempotency_key
+                                                  FROM helloworld.idempotency_keys
+                                                  WHERE created_at < :cutoff
+                                                  ORDER BY created_at
+                                                  LIMIT :batchSize)
+                        """,
+                new MapSqlParameterSource("cutoff", cutoff).addValue("batchSize", batchSize));
+    }
+}
@@ -0,0 +1,154 @@
+package ch.adeutschmanndev.helloworlddb.resource;
+
+import ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto;
+import ch.adeutschmanndev.helloworlddb.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Handler class for the analytics endpoints, all served from rollup tables
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsHandler {
+
+    private static final int DEFAULT_TOP_LIMIT = 10;
+    private static final int MAX_TOP_LIMIT = 100;
+    private static final long MAX_VOLUME_BUCKETS = 10_000;
+    private static final Map<String, Duration> BUCKET_SIZES = Map.of(
+            "minute", Duration.ofMinutes(1),
+            "hour", Duration.ofHours(1),
+            "day", Duration.ofDays(1));
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Greeting volume per time bucket
+     * GET /api/analytics/volume?granularity={minute|hour|day}&from={iso-date}&to={iso-date}
+     */
+    public ServerResponse getVolume(ServerRequest request) {
+        final String granularity = request.param("granularity").orElse("hour");
+        final Duration bucketSize = BUCKET_SIZES.get(granularity);
+
+        if (bucketSize == null) {
+            log.warn("Invalid granularity: {}", granularity);
+            return badRequest("Granularity must be one of " + AnalyticsService.GRANULARITIES);
+        }
+
+        try {
+            final LocalDateTime to = request.param("to").map(LocalDateTime::parse).orElse(LocalDateTime.now());
+            final LocalDateTime from = request.param("from").map(LocalDateTime::parse)
+                    .orElse(to.minus(bucketSize.multipliedBy(100)));
+
+            if (!from.isBefore(to) || Duration.between(from, to).dividedBy(bucketSize) > MAX_VOLUME_BUCKETS) {
+                log.warn("Invalid volume range {} - {} for granularity {}", from, to, granularity);
+                return badRequest("The range must be positive and span at most " + MAX_VOLUME_BUCKETS + " buckets");
+            }
+
+            log.info("Processing request for greeting volume per {} from {} to {}", granularity, from, to);
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(analyticsService.findVolume(granularity, from, to));
+
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid date in volume request: {}", e.getMessage());
+            return badRequest("Invalid date format. Use ISO format (yyyy-MM-ddTHH:mm:ss)");
+        } catch (Exception e) {
+            log.error("Error retrieving greeting volume: {}", e.getMessage(), e);
+            return internalServerError("Failed to retrieve greeting volume");
+        }
+    }
+
+    /**
+     * Most active senders
+     * GET /api/analytics/top-senders?limit={limit}
+     */
+    public ServerResponse getTopSenders(ServerRequest request) {
+        log.info("Processing request for top senders");
+
+        try {
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(analyticsService.findTopSenders(parseTopLimit(request)));
+
+        } catch (IllegalArgumentException e) {
+            return badRequest("Limit must be between 1 and " + MAX_TOP_LIMIT);
+        } catch (Exception e) {
+            log.error("Error retrieving top senders: {}", e.getMessage(), e);
+            return internalServerError("Failed to retrieve top senders");
+        }
+    }
+
+    /**
+     * Most active recipients
+     * GET /api/analytics/top-recipients?limit={limit}
+     */
+    public ServerResponse getTopRecipients(ServerRequest request) {
+        log.info("Processing request for top recipients");
+
+        try {
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(analyticsService.findTopRecipients(parseTopLimit(request)));
+
+        } catch (IllegalArgumentException e) {
+            return badRequest("Limit must be between 1 and " + MAX_TOP_LIMIT);
+        } catch (Exception e) {
+            log.error("Error retrieving top recipients: {}", e.getMessage(), e);
+            return internalServerError("Failed to retrieve top recipients");
+        }
+    }
+
+    /**
+     * Message length distribution
+     * GET /api/analytics/message-lengths
+     */
+    public ServerResponse getMessageLengths(ServerRequest request) {
+        log.info("Processing request for message length distribution");
+
+        try {
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(analyticsService.findLengthDistribution());
+
+        } catch (Exception e) {
+            log.error("Error retrieving message length distribution: {}", e.getMessage(), e);
+            return internalServerError("Failed to retrieve message length distribution");
+        }
+    }
+
+    private int parseTopLimit(ServerRequest request) {
+        final int limit = request.param("limit").map(Integer::parseInt).orElse(DEFAULT_TOP_LIMIT);
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+        return limit;
+    }
+
+    private ServerResponse badRequest(String message) {
+        return ServerResponse.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorResponseDto.builder()
+                        .message(message)
+                        .build());
+    }
+
+    private ServerResponse internalServerError(String message) {
+        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorResponseDto.builder()
+                        .message(message)
+                        .build());
+    }
+}
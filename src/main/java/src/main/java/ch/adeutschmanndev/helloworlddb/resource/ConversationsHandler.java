@@ -0,0 +1,129 @@
+package ch.adeutschmanndev.helloworlddb.resource;
+
+import ch.adeutschmanndev.helloworlddb.converter.ConversationConverter;
+import ch.adeutschmanndev.helloworlddb.model.dto.ConversationListResponseDto;
+import ch.adeutschmanndev.helloworlddb.model.dto.ConversationThreadResponseDto;
+import ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto;
+import ch.adeutschmanndev.helloworlddb.model.entity.Conversations;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.service.ConversationsService;
+import ch.adeutschmanndev.helloworlddb.service.ConversationsService.ConversationCursor;
+import ch.adeutschmanndev.helloworlddb.service.ConversationsService.ThreadCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Handler class for conversation summaries and threads
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationsHandler {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final ConversationsService conversationsService;
+    private final ConversationConverter conversationConverter;
+
+    /**
+     * List conversations of a participant by last activity
+     * GET /api/conversations?participant={participant}&limit={limit}&cursor={cursor}
+     */
+    public ServerResponse getConversations(ServerRequest request) {
+        final Optional<String> participantParam = request.param("participant");
+
+        if (participantParam.isEmpty()) {
+            log.warn("Participant query parameter is missing");
+            return badRequest("Participant query parameter is required");
+        }
+
+        final String participant = participantParam.get();
+        log.info("Processing request to list conversations of: {}", participant);
+
+        try {
+            final int limit = parseLimit(request);
+            final ConversationCursor cursor = request.param("cursor").map(conversationConverter::decodeConversationCursor).orElse(null);
+
+            final List<Conversations> conversations = conversationsService.findConversations(participant, cursor, limit);
+            final ConversationListResponseDto response = conversationConverter.toListResponseDto(conversations, limit);
+
+            log.info("Successfully retrieved {} conversations of {}", conversations.size(), participant);
+
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid conversation list parameters: {}", e.getMessage());
+            return badRequest("Invalid limit or cursor");
+        } catch (Exception e) {
+            log.error("Error retrieving conversations: {}", e.getMessage(), e);
+            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ErrorResponseDto.builder()
+                            .message("Failed to retrieve conversations")
+                            .build());
+        }
+    }
+
+    /**
+     * Get a page of the conversation between two participants, both directions, newest first
+     * GET /api/conversations/{participant}/{otherParticipant}?limit={limit}&cursor={cursor}
+     */
+    public ServerResponse getConversationThread(ServerRequest request) {
+        final String participant = request.pathVariable("participant");
+        final String otherParticipant = request.pathVariable("otherParticipant");
+        log.info("Processing request to get conversation thread between {} and {}", participant, otherParticipant);
+
+        try {
+            final int limit = parseLimit(request);
+            final ThreadCursor cursor = request.param("cursor").map(conversationConverter::decodeThreadCursor).orElse(null);
+
+            final List<Greetings> greetings = conversationsService.findThread(participant, otherParticipant, cursor, limit);
+            final ConversationThreadResponseDto response = conversationConverter.toThreadResponseDto(
+                    participant, otherParticipant, greetings, limit);
+
+            log.info("Successfully retrieved {} greetings between {} and {}", greetings.size(), participant, otherParticipant);
+
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid conversation thread parameters: {}", e.getMessage());
+            return badRequest("Invalid limit or cursor");
+        } catch (Exception e) {
+            log.error("Error retrieving conversation thread: {}", e.getMessage(), e);
+            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ErrorResponseDto.builder()
+                            .message("Failed to retrieve conversation thread")
+                            .build());
+        }
+    }
+
+    private int parseLimit(ServerRequest request) {
+        final int limit = request.param("limit").map(Integer::parseInt).orElse(DEFAULT_LIMIT);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private ServerResponse badRequest(String message) {
+        return ServerResponse.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorResponseDto.builder()
+                        .message(message)
+                        .build());
+    }
+}
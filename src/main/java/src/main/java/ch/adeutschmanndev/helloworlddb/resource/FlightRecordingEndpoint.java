@@ -0,0 +1,87 @@
+package ch.adeutschmanndev.helloworlddb.resource;
+
+import ch.adeutschmanndev.helloworlddb.jfr.ContinuousRecording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Actuator endpoint returning the recent part of the continuous flight recording as a .jfr file
+ * GET /actuator/flightrecording?window=5m (bearer token required, see FlightRecordingTokenFilter)
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecordingEndpoint {
+
+    private final ContinuousRecording continuousRecording;
+    private final ReentrantLock dumpLock = new ReentrantLock();
+
+    /**
+     * @param window how far back the recording goes, e.g. 5m; the whole retained recording if omitted
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Nullable Duration window) {
+        if (!continuousRecording.isRunning()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        // Dumps copy the recording to disk; one at a time keeps them from piling up
+        if (!dumpLock.tryLock()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try {
+            final Path file = continuousRecording.dump(window);
+            log.info("Dumped flight recording of the last {} ({} bytes)", window != null ? window : "max-age", Files.size(file));
+            return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+        } catch (IOException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        } finally {
+            dumpLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the dumped file once the response has been written
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        // Not a file to the response writer, so the body is copied through getInputStream and the file is deleted
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -1,21 +1,49 @@
 package ch.adeutschmanndev.helloworlddb.resource;
 
 import ch.adeutschmanndev.helloworlddb.converter.GreetingConverter;
+import ch.adeutschmanndev.helloworlddb.converter.ImportConverter;
 import ch.adeutschmanndev.helloworlddb.model.dto.*;
 import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.config.GreetingStreamProperties;
+import ch.adeutschmanndev.helloworlddb.exception.GreetingNotFoundException;
+import ch.adeutschmanndev.helloworlddb.exception.InvalidRequestException;
+import ch.adeutschmanndev.helloworlddb.exception.TooManyExportsException;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsBulkRepository.CopyFormat;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsProjectionRepository.Field;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsSpecifications;
+import ch.adeutschmanndev.helloworlddb.service.GreetingStreamHub;
+import ch.adeutschmanndev.helloworlddb.service.GreetingsBulkService;
+import ch.adeutschmanndev.helloworlddb.service.GreetingsBulkService.ImportFormat;
+import ch.adeutschmanndev.helloworlddb.service.GreetingsBulkService.ImportResult;
+import ch.adeutschmanndev.helloworlddb.service.ImportProgressRegistry;
 import ch.adeutschmanndev.helloworlddb.service.GreetingsService;
+import ch.adeutschmanndev.helloworlddb.service.IdempotencyService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.function.ServerRequest;
 import org.springframework.web.servlet.function.ServerResponse;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Handler class for all Greetings API operations
@@ -26,38 +54,61 @@ import java.util.UUID;
 @Slf4j
 public class GreetingsHandler {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+    private static final MediaType APPLICATION_JSONL = new MediaType("application", "jsonl");
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    // JSON first, so it wins ties
+    private static final List<MediaType> WIRE_FORMATS =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+
     private final GreetingsService greetingsService;
     private final GreetingConverter greetingConverter;
+    private final GreetingStreamHub greetingStreamHub;
+    private final GreetingStreamProperties greetingStreamProperties;
+    private final GreetingsBulkService greetingsBulkService;
+    private final ImportProgressRegistry importProgressRegistry;
+    private final ImportConverter importConverter;
+    private final Validator validator;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a new greeting
      * POST /api/greetings
      */
-    public ServerResponse createGreeting(ServerRequest request) {
+    public ServerResponse createGreeting(ServerRequest request) throws Exception {
         log.info("Processing request to create new greeting");
 
-        try {
-            final CreateGreetingRequestDto createRequest = request.body(CreateGreetingRequestDto.class);
-            log.debug("Received create request: {}", createRequest);
-
-            final Greetings greeting = greetingConverter.fromCreateRequestDto(createRequest);
-            final Greetings savedGreeting = greetingsService.saveGreeting(greeting);
-            final GreetingResponseDto response = greetingConverter.toResponseDto(savedGreeting);
-
-            log.info("Successfully created greeting with ID: {}", savedGreeting.getId());
+        final CreateGreetingRequestDto createRequest = validated(request.body(CreateGreetingRequestDto.class));
+        log.debug("Received create request: {}", createRequest);
 
+        final String idempotencyKey = request.headers().firstHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey == null || !idempotencyService.isEnabled()) {
             return ServerResponse.status(HttpStatus.CREATED)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+                    .contentType(wireFormat(request))
+                    .body(create(createRequest));
+        }
 
-        } catch (Exception e) {
-            log.error("Error creating greeting: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Failed to create greeting: " + e.getMessage())
-                            .build());
+        final IdempotencyService.Outcome<GreetingResponseDto> outcome = idempotencyService.execute(
+                idempotencyKey, createRequest, GreetingResponseDto.class, () -> create(createRequest));
+        if (outcome.replayed()) {
+            log.info("Replaying greeting with ID {} for idempotency key {}", outcome.response().getId(), idempotencyKey);
         }
+        return ServerResponse.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                .contentType(wireFormat(request))
+                .body(outcome.response());
+    }
+
+    private GreetingResponseDto create(CreateGreetingRequestDto createRequest) {
+        final Greetings greeting = greetingConverter.fromCreateRequestDto(createRequest);
+        final Greetings savedGreeting = greetingsService.saveGreeting(greeting);
+        log.info("Successfully created greeting with ID: {}", savedGreeting.getId());
+        return greetingConverter.toResponseDto(savedGreeting);
     }
 
     /**
@@ -65,44 +116,16 @@ public class GreetingsHandler {
      * GET /api/greetings/{id}
      */
     public ServerResponse getGreetingById(ServerRequest request) {
-        final String idParam = request.pathVariable("id");
-        log.info("Processing request to get greeting by ID: {}", idParam);
+        final UUID id = parseId(request.pathVariable("id"));
+        log.info("Processing request to get greeting by ID: {}", id);
 
-        try {
-            final UUID id = UUID.fromString(idParam);
-            final Optional<Greetings> greeting = greetingsService.findGreetingById(id);
-
-            if (greeting.isPresent()) {
-                final GreetingResponseDto response = greetingConverter.toResponseDto(greeting.get());
-                log.info("Successfully retrieved greeting with ID: {}", id);
-
-                return ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(response);
-            } else {
-                log.warn("Greeting not found with ID: {}", id);
-                return ServerResponse.status(HttpStatus.NOT_FOUND)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(ErrorResponseDto.builder()
-                                .message("Greeting not found with ID: " + id)
-                                .build());
-            }
+        final Greetings greeting = greetingsService.findGreetingById(id)
+                .orElseThrow(() -> new GreetingNotFoundException(id));
+        log.info("Successfully retrieved greeting with ID: {}", id);
 
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid UUID format: {}", idParam);
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Invalid UUID format: " + idParam)
-                            .build());
-        } catch (Exception e) {
-            log.error("Error retrieving greeting: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Internal server error")
-                            .build());
-        }
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(greetingConverter.toResponseDto(greeting));
     }
 
     /**
@@ -112,76 +135,46 @@ public class GreetingsHandler {
     public ServerResponse getAllGreetings(ServerRequest request) {
         log.info("Processing request to get all greetings");
 
-        try {
-            final List<Greetings> greetings = greetingsService.findAllGreetings();
-            final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
+        final Optional<Set<Field>> fields = fieldsOf(request);
+        if (fields.isPresent()) {
+            return projected(request, fields.get(), GreetingsSpecifications.all());
+        }
 
-            log.info("Successfully retrieved {} greetings", greetings.size());
+        final List<Greetings> greetings = greetingsService.findAllGreetings();
+        final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+        log.info("Successfully retrieved {} greetings", greetings.size());
 
-        } catch (Exception e) {
-            log.error("Error retrieving all greetings: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Failed to retrieve greetings")
-                            .build());
-        }
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
     }
 
     /**
      * Update greeting by ID
      * PUT /api/greetings/{id}
      */
-    public ServerResponse updateGreeting(ServerRequest request) {
-        final String idParam = request.pathVariable("id");
-        log.info("Processing request to update greeting with ID: {}", idParam);
+    public ServerResponse updateGreeting(ServerRequest request) throws Exception {
+        final UUID id = parseId(request.pathVariable("id"));
+        log.info("Processing request to update greeting with ID: {}", id);
 
-        try {
-            final UUID id = UUID.fromString(idParam);
-            final UpdateGreetingRequestDto updateRequest = request.body(UpdateGreetingRequestDto.class);
-            log.debug("Received update request for ID {}: {}", id, updateRequest);
+        final UpdateGreetingRequestDto updateRequest = validated(request.body(UpdateGreetingRequestDto.class));
+        log.debug("Received update request for ID {}: {}", id, updateRequest);
 
-            final Greetings updateData = Greetings.builder()
-                    .message(updateRequest.getMessage())
-                    .sender(updateRequest.getSender())
-                    .recipient(updateRequest.getRecipient())
-                    .build();
+        final Greetings updateData = Greetings.builder()
+                .message(updateRequest.getMessage())
+                .sender(updateRequest.getSender())
+                .recipient(updateRequest.getRecipient())
+                .build();
 
-            final Greetings updatedGreeting = greetingsService.updateGreeting(id, updateData);
-            final GreetingResponseDto response = greetingConverter.toResponseDto(updatedGreeting);
+        final Greetings updatedGreeting = greetingsService.updateGreeting(id, updateData);
+        final GreetingResponseDto response = greetingConverter.toResponseDto(updatedGreeting);
 
-            log.info("Successfully updated greeting with ID: {}", id);
+        log.info("Successfully updated greeting with ID: {}", id);
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
-
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid UUID format: {}", idParam);
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Invalid UUID format: " + idParam)
-                            .build());
-        } catch (RuntimeException e) {
-            log.error("Greeting not found for update: {}", e.getMessage());
-            return ServerResponse.status(HttpStatus.NOT_FOUND)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message(e.getMessage())
-                            .build());
-        } catch (Exception e) {
-            log.error("Error updating greeting: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Failed to update greeting")
-                            .build());
-        }
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
     }
 
     /**
@@ -189,39 +182,14 @@ public class GreetingsHandler {
      * DELETE /api/greetings/{id}
      */
     public ServerResponse deleteGreeting(ServerRequest request) {
-        final String idParam = request.pathVariable("id");
-        log.info("Processing request to delete greeting with ID: {}", idParam);
-
-        try {
-            final UUID id = UUID.fromString(idParam);
-            greetingsService.deleteGreeting(id);
+        final UUID id = parseId(request.pathVariable("id"));
+        log.info("Processing request to delete greeting with ID: {}", id);
 
-            log.info("Successfully deleted greeting with ID: {}", id);
+        greetingsService.deleteGreeting(id);
 
-            return ServerResponse.noContent().build();
+        log.info("Successfully deleted greeting with ID: {}", id);
 
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid UUID format: {}", idParam);
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Invalid UUID format: " + idParam)
-                            .build());
-        } catch (RuntimeException e) {
-            log.error("Greeting not found for deletion: {}", e.getMessage());
-            return ServerResponse.status(HttpStatus.NOT_FOUND)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message(e.getMessage())
-                            .build());
-        } catch (Exception e) {
-            log.error("Error deleting greeting: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Failed to delete greeting")
-                            .build());
-        }
+        return ServerResponse.noContent().build();
     }
 
     /**
@@ -232,24 +200,19 @@ public class GreetingsHandler {
         final String sender = request.pathVariable("sender");
         log.info("Processing request to get greetings by sender: {}", sender);
 
-        try {
-            final List<Greetings> greetings = greetingsService.findGreetingsBySender(sender);
-            final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
+        final Optional<Set<Field>> fields = fieldsOf(request);
+        if (fields.isPresent()) {
+            return projected(request, fields.get(), GreetingsSpecifications.bySender(sender));
+        }
 
-            log.info("Successfully retrieved {} greetings for sender: {}", greetings.size(), sender);
+        final List<Greetings> greetings = greetingsService.findGreetingsBySender(sender);
+        final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+        log.info("Successfully retrieved {} greetings for sender: {}", greetings.size(), sender);
 
-        } catch (Exception e) {
-            log.error("Error retrieving greetings by sender: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Failed to retrieve greetings by sender")
-                            .build());
-        }
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
     }
 
     /**
@@ -260,24 +223,43 @@ public class GreetingsHandler {
         final String recipient = request.pathVariable("recipient");
         log.info("Processing request to get greetings by recipient: {}", recipient);
 
-        try {
-            final List<Greetings> greetings = greetingsService.findGreetingsByRecipient(recipient);
-            final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
+        final Optional<Set<Field>> fields = fieldsOf(request);
+        if (fields.isPresent()) {
+            return projected(request, fields.get(), GreetingsSpecifications.byRecipient(recipient));
+        }
 
-            log.info("Successfully retrieved {} greetings for recipient: {}", greetings.size(), recipient);
+        final List<Greetings> greetings = greetingsService.findGreetingsByRecipient(recipient);
+        final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+        log.info("Successfully retrieved {} greetings for recipient: {}", greetings.size(), recipient);
+
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
+    }
+
+    /**
+     * Stream greetings for a recipient as Server-Sent Events
+     * GET /api/greetings/recipient/{recipient}/stream
+     */
+    public ServerResponse streamGreetingsByRecipient(ServerRequest request) {
+        final String recipient = request.pathVariable("recipient");
+        log.info("Processing request to stream greetings for recipient: {}", recipient);
 
-        } catch (Exception e) {
-            log.error("Error retrieving greetings by recipient: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        if (greetingStreamHub.getSubscriberCount() >= greetingStreamProperties.getMaxSubscribers()) {
+            log.warn("Greeting stream limit reached, rejecting stream for recipient: {}", recipient);
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(ErrorResponseDto.builder()
-                            .message("Failed to retrieve greetings by recipient")
+                            .message("Too many open greeting streams, please retry later")
                             .build());
         }
+
+        return ServerResponse.sse(sse -> {
+            if (!greetingStreamHub.subscribe(recipient, sse)) {
+                sse.complete();
+            }
+        }, greetingStreamProperties.getTimeout());
     }
 
     /**
@@ -285,38 +267,23 @@ public class GreetingsHandler {
      * GET /api/greetings/search?message={message}
      */
     public ServerResponse searchGreetingsByMessage(ServerRequest request) {
-        final Optional<String> messageParam = request.param("message");
-
-        if (messageParam.isEmpty()) {
-            log.warn("Message query parameter is missing");
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Message query parameter is required")
-                            .build());
-        }
-
-        final String message = messageParam.get();
+        final String message = request.param("message")
+                .orElseThrow(() -> new InvalidRequestException("Message query parameter is required"));
         log.info("Processing request to search greetings by message: {}", message);
 
-        try {
-            final List<Greetings> greetings = greetingsService.findGreetingsByMessage(message);
-            final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
+        final Optional<Set<Field>> fields = fieldsOf(request);
+        if (fields.isPresent()) {
+            return projected(request, fields.get(), GreetingsSpecifications.messageContainingIgnoreCase(message));
+        }
 
-            log.info("Successfully found {} greetings containing message: {}", greetings.size(), message);
+        final List<Greetings> greetings = greetingsService.findGreetingsByMessage(message);
+        final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+        log.info("Successfully found {} greetings containing message: {}", greetings.size(), message);
 
-        } catch (Exception e) {
-            log.error("Error searching greetings by message: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Failed to search greetings by message")
-                            .build());
-        }
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
     }
 
     /**
@@ -328,36 +295,26 @@ public class GreetingsHandler {
         final Optional<String> recipientParam = request.param("recipient");
 
         if (senderParam.isEmpty() || recipientParam.isEmpty()) {
-            log.warn("Missing required query parameters: sender and/or recipient");
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Both sender and recipient query parameters are required")
-                            .build());
+            throw new InvalidRequestException("Both sender and recipient query parameters are required");
         }
 
         final String sender = senderParam.get();
         final String recipient = recipientParam.get();
         log.info("Processing request to get greetings between sender: {} and recipient: {}", sender, recipient);
 
-        try {
-            final List<Greetings> greetings = greetingsService.findGreetingsBetween(sender, recipient);
-            final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
+        final Optional<Set<Field>> fields = fieldsOf(request);
+        if (fields.isPresent()) {
+            return projected(request, fields.get(), GreetingsSpecifications.between(sender, recipient));
+        }
 
-            log.info("Successfully retrieved {} greetings between {} and {}", greetings.size(), sender, recipient);
+        final List<Greetings> greetings = greetingsService.findGreetingsBetween(sender, recipient);
+        final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+        log.info("Successfully retrieved {} greetings between {} and {}", greetings.size(), sender, recipient);
 
-        } catch (Exception e) {
-            log.error("Error retrieving greetings between users: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Failed to retrieve greetings between users")
-                            .build());
-        }
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
     }
 
     /**
@@ -365,38 +322,24 @@ public class GreetingsHandler {
      * GET /api/greetings/after?date={iso-date}
      */
     public ServerResponse getGreetingsAfterDate(ServerRequest request) {
-        final Optional<String> dateParam = request.param("date");
-
-        if (dateParam.isEmpty()) {
-            log.warn("Date query parameter is missing");
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Date query parameter is required (ISO format)")
-                            .build());
+        final LocalDateTime date = request.param("date")
+                .map(LocalDateTime::parse)
+                .orElseThrow(() -> new InvalidRequestException("Date query parameter is required (ISO format)"));
+        log.info("Processing request to get greetings after date: {}", date);
+
+        final Optional<Set<Field>> fields = fieldsOf(request);
+        if (fields.isPresent()) {
+            return projected(request, fields.get(), GreetingsSpecifications.createdAfter(date));
         }
 
-        try {
-            final LocalDateTime date = LocalDateTime.parse(dateParam.get());
-            log.info("Processing request to get greetings after date: {}", date);
-
-            final List<Greetings> greetings = greetingsService.findGreetingsAfterDate(date);
-            final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
-
-            log.info("Successfully retrieved {} greetings after date: {}", greetings.size(), date);
+        final List<Greetings> greetings = greetingsService.findGreetingsAfterDate(date);
+        final List<GreetingResponseDto> response = greetingConverter.toResponseDtoList(greetings);
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+        log.info("Successfully retrieved {} greetings after date: {}", greetings.size(), date);
 
-        } catch (Exception e) {
-            log.error("Error retrieving greetings after date: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.BAD_REQUEST)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(ErrorResponseDto.builder()
-                            .message("Invalid date format. Use ISO format (yyyy-MM-ddTHH:mm:ss)")
-                            .build());
-        }
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
     }
 
     /**
@@ -407,33 +350,21 @@ public class GreetingsHandler {
         final String sender = request.pathVariable("sender");
         log.info("Processing request to get latest greeting by sender: {}", sender);
 
-        try {
-            final Optional<Greetings> greeting = greetingsService.findLatestGreetingBySender(sender);
-
-            if (greeting.isPresent()) {
-                final GreetingResponseDto response = greetingConverter.toResponseDto(greeting.get());
-                log.info("Successfully retrieved latest greeting for sender: {}", sender);
-
-                return ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(response);
-            } else {
-                log.warn("No greetings found for sender: {}", sender);
-                return ServerResponse.status(HttpStatus.NOT_FOUND)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(ErrorResponseDto.builder()
-                                .message("No greetings found for sender: " + sender)
-                                .build());
-            }
-
-        } catch (Exception e) {
-            log.error("Error retrieving latest greeting by sender: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        final Optional<Greetings> greeting = greetingsService.findLatestGreetingBySender(sender);
+        if (greeting.isEmpty()) {
+            log.debug("No greetings found for sender: {}", sender);
+            return ServerResponse.status(HttpStatus.NOT_FOUND)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(ErrorResponseDto.builder()
-                            .message("Failed to retrieve latest greeting")
+                            .message("No greetings found for sender: " + sender)
                             .build());
         }
+
+        log.info("Successfully retrieved latest greeting for sender: {}", sender);
+
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(greetingConverter.toResponseDto(greeting.get()));
     }
 
     /**
@@ -441,28 +372,14 @@ public class GreetingsHandler {
      * HEAD /api/greetings/{id}
      */
     public ServerResponse checkGreetingExists(ServerRequest request) {
-        final String idParam = request.pathVariable("id");
-        log.info("Processing request to check if greeting exists with ID: {}", idParam);
-
-        try {
-            final UUID id = UUID.fromString(idParam);
-            final boolean exists = greetingsService.existsById(id);
+        final UUID id = parseId(request.pathVariable("id"));
+        log.info("Processing request to check if greeting exists with ID: {}", id);
 
-            log.info("Greeting existence check for ID {}: {}", id, exists);
+        final boolean exists = greetingsService.existsById(id);
 
-            if (exists) {
-                return ServerResponse.ok().build();
-            } else {
-                return ServerResponse.notFound().build();
-            }
+        log.info("Greeting existence check for ID {}: {}", id, exists);
 
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid UUID format: {}", idParam);
-            return ServerResponse.badRequest().build();
-        } catch (Exception e) {
-            log.error("Error checking greeting existence: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return exists ? ServerResponse.ok().build() : ServerResponse.notFound().build();
     }
 
     /**
@@ -472,23 +389,225 @@ public class GreetingsHandler {
     public ServerResponse getGreetingsCount(ServerRequest request) {
         log.info("Processing request to get total greetings count");
 
+        final long count = greetingsService.countGreetings();
+        final GreetingCountResponseDto response = greetingConverter.toCountResponseDto(count);
+
+        log.info("Successfully retrieved greetings count: {}", count);
+
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(response);
+    }
+
+    /**
+     * Stream all greetings, optionally limited to a created_at range, as CSV or PostgreSQL binary COPY format
+     * GET /api/greetings/export?format={csv|binary}&from={iso-date}&to={iso-date}
+     */
+    public ServerResponse exportGreetings(ServerRequest request) {
+        final CopyFormat format;
+        final LocalDateTime from;
+        final LocalDateTime to;
+
         try {
-            final long count = greetingsService.countGreetings();
-            final GreetingCountResponseDto response = greetingConverter.toCountResponseDto(count);
+            format = CopyFormat.valueOf(request.param("format").orElse("csv").toUpperCase(Locale.ROOT));
+            from = request.param("from").map(LocalDateTime::parse).orElse(null);
+            to = request.param("to").map(LocalDateTime::parse).orElse(null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException(
+                    "Invalid export parameters. Use format=csv|binary and ISO dates (yyyy-MM-ddTHH:mm:ss)");
+        }
 
-            log.info("Successfully retrieved greetings count: {}", count);
+        final boolean gzip = acceptsGzip(request);
+        final boolean csv = format == CopyFormat.CSV;
+        log.info("Processing request to export greetings as {} from {} to {}", format, from, to);
+
+        final ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .contentType(csv ? new MediaType(TEXT_CSV, StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"greetings." + (csv ? "csv" : "bin") + (gzip ? ".gz" : "") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
 
-            return ServerResponse.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response);
+        if (!greetingsBulkService.tryStartExport()) {
+            throw new TooManyExportsException();
+        }
+
+        // Rows are copied straight from the COPY stream into the servlet output; once the status is committed,
+        // failures can only abort the connection, not turn into an error body
+        return response.build((servletRequest, servletResponse) -> {
+            try {
+                greetingsBulkService.exportGreetings(format, from, to, gzip, servletResponse.getOutputStream());
+            } finally {
+                greetingsBulkService.finishExport();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Import greetings from a streamed CSV (text/csv, with header) or NDJSON (application/x-ndjson) upload
+     * POST /api/greetings/import
+     */
+    public ServerResponse importGreetings(ServerRequest request) throws IOException {
+        final Optional<ImportFormat> format = request.headers().contentType().map(contentType -> {
+            if (contentType.isCompatibleWith(TEXT_CSV)) {
+                return ImportFormat.CSV;
+            }
+            return contentType.isCompatibleWith(APPLICATION_NDJSON) || contentType.isCompatibleWith(APPLICATION_JSONL)
+                    ? ImportFormat.NDJSON : null;
+        });
 
-        } catch (Exception e) {
-            log.error("Error retrieving greetings count: {}", e.getMessage(), e);
-            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        if (format.isEmpty()) {
+            log.warn("Unsupported import content type: {}", request.headers().contentType().orElse(null));
+            return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(ErrorResponseDto.builder()
-                            .message("Failed to retrieve greetings count")
+                            .message("Content-Type must be text/csv or application/x-ndjson")
                             .build());
         }
+
+        final boolean gzip = request.headers().header(HttpHeaders.CONTENT_ENCODING).stream()
+                .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains("gzip"));
+        log.info("Processing request to import greetings as {} (gzip: {})", format.get(), gzip);
+
+        final ImportResult result = greetingsBulkService.importGreetings(
+                format.get(), request.servletRequest().getInputStream(), gzip);
+        final ImportResultDto response = importConverter.toResultDto(result);
+
+        log.info("Successfully imported {} greetings, {} rejected", response.getRowsImported(), response.getRowsRejected());
+
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
+    /**
+     * Get running and recently finished imports
+     * GET /api/greetings/imports
+     */
+    public ServerResponse getImports(ServerRequest request) {
+        log.debug("Processing request to get import progress");
+
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(importConverter.toProgressDtoList(importProgressRegistry.findAll()));
+    }
+
+    /**
+     * Parses the optional fields=id,message,... parameter of the list endpoints
+     */
+    private static Optional<Set<Field>> fieldsOf(ServerRequest request) {
+        return request.param("fields").map(param -> {
+            final Set<Field> fields = EnumSet.noneOf(Field.class);
+            for (String name : param.split(",")) {
+                final Field field = Field.fromAttribute(name.trim());
+                if (field == null) {
+                    throw new InvalidRequestException("Unknown field '" + name.trim() + "', allowed fields are "
+                            + Arrays.stream(Field.values()).map(Field::getAttribute).toList());
+                }
+                fields.add(field);
+            }
+            return fields;
+        });
+    }
+
+    /**
+     * List response with only the requested fields, selected directly from the database
+     */
+    private ServerResponse projected(ServerRequest request, Set<Field> fields, Specification<Greetings> filter) {
+        final List<Map<String, Object>> greetings = greetingsService.findGreetingFields(fields, filter);
+
+        log.info("Successfully retrieved {} greetings with fields {}", greetings.size(), fields);
+
+        return ServerResponse.ok()
+                .contentType(wireFormat(request))
+                .body(greetings);
+    }
+
+    /**
+     * Response type for greeting payloads: the one of JSON, CBOR and Smile with the highest Accept q-value
+     * Each is weighed by the most specific Accept range including it, so "application/cbor;q=0" rules CBOR out even
+     * next to a wildcard; ties go to the more specific range, then to JSON
+     */
+    private static MediaType wireFormat(ServerRequest request) {
+        final List<MediaType> accepted = request.headers().accept();
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = -1;
+        int bestSpecificity = -1;
+        for (MediaType candidate : WIRE_FORMATS) {
+            MediaType range = null;
+            for (MediaType acceptedRange : accepted) {
+                if (acceptedRange.includes(candidate) && (range == null || specificity(acceptedRange) > specificity(range))) {
+                    range = acceptedRange;
+                }
+            }
+            if (range == null || range.getQualityValue() <= 0) {
+                continue;
+            }
+            if (range.getQualityValue() > bestQuality
+                    || (range.getQualityValue() == bestQuality && specificity(range) > bestSpecificity)) {
+                best = candidate;
+                bestQuality = range.getQualityValue();
+                bestSpecificity = specificity(range);
+            }
+        }
+        return best;
+    }
+
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip, i.e. names gzip (or *, if gzip is not named) with a q-value above 0
+     */
+    private static boolean acceptsGzip(ServerRequest request) {
+        Double gzip = null;
+        Double wildcard = null;
+        for (String header : request.headers().header(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String element : header.split(",")) {
+                final String[] parts = element.split(";");
+                final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = 1.0;
+                for (int i = 1; i < parts.length; i++) {
+                    final String parameter = parts[i].trim();
+                    if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2).trim());
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                    gzip = quality;
+                } else if (coding.equals("*")) {
+                    wildcard = quality;
+                }
+            }
+        }
+        final Double quality = gzip != null ? gzip : wildcard;
+        return quality != null && quality > 0;
+    }
+
+    private static UUID parseId(String idParam) {
+        if (!UUID_PATTERN.matcher(idParam).matches()) {
+            throw new InvalidRequestException("Invalid UUID format: " + idParam);
+        }
+        return UUID.fromString(idParam);
+    }
+
+    private <T> T validated(T body) {
+        final Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return body;
     }
 }
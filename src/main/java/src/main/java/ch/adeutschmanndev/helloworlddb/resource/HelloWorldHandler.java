@@ -1,20 +1,44 @@
 package ch.adeutschmanndev.helloworlddb.resource;
 
 import ch.adeutschmanndev.helloworlddb.model.dto.HelloWorldResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.function.ServerRequest;
 import org.springframework.web.servlet.function.ServerResponse;
 
+import java.io.IOException;
+
 @Component
 @Tag(name = "Hello World Handler", description = "Handler for Hello World operations")
 public class HelloWorldHandler {
 
+    /**
+     * The response never changes, so it is serialized once with the application's ObjectMapper
+     * and written as raw bytes, bypassing content negotiation and the message converters
+     */
+    private final byte[] helloBody;
+
+    // Built once as well: its headers are read-only and writing it keeps no state
+    private final ServerResponse helloResponse;
+
+    public HelloWorldHandler(ObjectMapper objectMapper) throws JsonProcessingException {
+        this.helloBody = objectMapper.writeValueAsBytes(new HelloWorldResponse("Hello World"));
+        this.helloResponse = ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(helloBody.length)
+                .build(this::writeHelloBody);
+    }
+
     @Operation(
             summary = "Handle Hello World request",
             description = "Processes the Hello World request and returns a greeting message"
@@ -28,9 +52,11 @@ public class HelloWorldHandler {
             )
     )
     public ServerResponse hello(ServerRequest request) {
-        HelloWorldResponse response = new HelloWorldResponse("Hello World");
-        return ServerResponse.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(response);
+        return helloResponse;
+    }
+
+    private ModelAndView writeHelloBody(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.getOutputStream().write(helloBody);
+        return null;
     }
 }
@@ -0,0 +1,28 @@
+package ch.adeutschmanndev.helloworlddb.resource;
+
+import ch.adeutschmanndev.helloworlddb.service.HotKeyDetector;
+import ch.adeutschmanndev.helloworlddb.service.HotSenders;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing the senders tracked by the hot-key detector
+ * GET /actuator/hotkeys
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+
+    private final HotSenders hotSenders;
+
+    @ReadOperation
+    public Map<String, List<HotKeyDetector.Entry>> hotKeys() {
+        return Map.of("senders", hotSenders.top());
+    }
+}
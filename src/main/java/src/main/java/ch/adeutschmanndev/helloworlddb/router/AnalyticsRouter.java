@@ -0,0 +1,179 @@
+package ch.adeutschmanndev.helloworlddb.router;
+
+import ch.adeutschmanndev.helloworlddb.filter.ConcurrencyLimitFilter;
+import ch.adeutschmanndev.helloworlddb.resource.AnalyticsHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.RouterOperation;
+import org.springdoc.core.annotations.RouterOperations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.springframework.web.servlet.function.RequestPredicates.GET;
+import static org.springframework.web.servlet.function.RequestPredicates.accept;
+
+/**
+ * Router configuration for the pre-aggregated analytics endpoints
+ */
+@Configuration
+@Tag(name = "Analytics API", description = "Greeting statistics served from incrementally maintained rollups")
+public class AnalyticsRouter {
+
+    @Bean
+    @RouterOperations({
+            @RouterOperation(
+                    path = "/api/analytics/volume",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "getGreetingVolume",
+                            summary = "Get greeting volume over time",
+                            description = "Returns the number of greetings per minute, hour or day within a range",
+                            tags = {"Analytics API"},
+                            parameters = {
+                                    @Parameter(name = "granularity", description = "minute, hour (default) or day", in = ParameterIn.QUERY),
+                                    @Parameter(name = "from", description = "Inclusive start (ISO format), defaults to 100 buckets before 'to'", in = ParameterIn.QUERY),
+                                    @Parameter(name = "to", description = "Exclusive end (ISO format), defaults to now", in = ParameterIn.QUERY)
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Greeting volume per bucket",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.VolumeResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Invalid granularity or range",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Analytics are not available while sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/analytics/top-senders",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "getTopSenders",
+                            summary = "Get top senders",
+                            description = "Returns the senders with the most greetings",
+                            tags = {"Analytics API"},
+                            parameters = {
+                                    @Parameter(name = "limit", description = "Number of senders (1-100, default 10)", in = ParameterIn.QUERY)
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Top senders",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.TopParticipantsResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Analytics are not available while sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/analytics/top-recipients",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "getTopRecipients",
+                            summary = "Get top recipients",
+                            description = "Returns the recipients with the most greetings",
+                            tags = {"Analytics API"},
+                            parameters = {
+                                    @Parameter(name = "limit", description = "Number of recipients (1-100, default 10)", in = ParameterIn.QUERY)
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Top recipients",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.TopParticipantsResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Analytics are not available while sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/analytics/message-lengths",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "getMessageLengthDistribution",
+                            summary = "Get message length distribution",
+                            description = "Returns the number of greetings per message length range",
+                            tags = {"Analytics API"},
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Message length distribution",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.LengthDistributionResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Analytics are not available while sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            )
+    })
+    public RouterFunction<ServerResponse> analyticsRoutes(AnalyticsHandler analyticsHandler,
+                                                          ConcurrencyLimitFilter concurrencyLimitFilter) {
+        return RouterFunctions
+                .route(GET("/api/analytics/volume").and(accept(MediaType.APPLICATION_JSON)),
+                        analyticsHandler::getVolume)
+                .andRoute(GET("/api/analytics/top-senders").and(accept(MediaType.APPLICATION_JSON)),
+                        analyticsHandler::getTopSenders)
+                .andRoute(GET("/api/analytics/top-recipients").and(accept(MediaType.APPLICATION_JSON)),
+                        analyticsHandler::getTopRecipients)
+                .andRoute(GET("/api/analytics/message-lengths").and(accept(MediaType.APPLICATION_JSON)),
+                        analyticsHandler::getMessageLengths)
+                .filter(concurrencyLimitFilter);
+    }
+}
@@ -0,0 +1,127 @@
+package ch.adeutschmanndev.helloworlddb.router;
+
+import ch.adeutschmanndev.helloworlddb.filter.ConcurrencyLimitFilter;
+import ch.adeutschmanndev.helloworlddb.resource.ConversationsHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.RouterOperation;
+import org.springdoc.core.annotations.RouterOperations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.springframework.web.servlet.function.RequestPredicates.GET;
+import static org.springframework.web.servlet.function.RequestPredicates.accept;
+
+/**
+ * Router configuration for conversation summaries and bidirectional threads
+ */
+@Configuration
+@Tag(name = "Conversations API", description = "Two-way conversations between sender/recipient pairs")
+public class ConversationsRouter {
+
+    @Bean
+    @RouterOperations({
+            @RouterOperation(
+                    path = "/api/conversations",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "getConversations",
+                            summary = "List conversations of a participant",
+                            description = "Lists the conversations a participant takes part in, most recently active first",
+                            tags = {"Conversations API"},
+                            parameters = {
+                                    @Parameter(name = "participant", description = "Participant (sender or recipient)", required = true, in = ParameterIn.QUERY),
+                                    @Parameter(name = "limit", description = "Page size (1-100, default 20)", in = ParameterIn.QUERY),
+                                    @Parameter(name = "cursor", description = "nextCursor of the previous page", in = ParameterIn.QUERY)
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Page of conversations",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ConversationListResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Missing participant or invalid limit/cursor",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Conversations are not available while sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/conversations/{participant}/{otherParticipant}",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "getConversationThread",
+                            summary = "Get conversation thread",
+                            description = "Retrieves greetings exchanged between two participants in both directions, newest first",
+                            tags = {"Conversations API"},
+                            parameters = {
+                                    @Parameter(name = "participant", description = "One participant", required = true, in = ParameterIn.PATH),
+                                    @Parameter(name = "otherParticipant", description = "The other participant", required = true, in = ParameterIn.PATH),
+                                    @Parameter(name = "limit", description = "Page size (1-100, default 20)", in = ParameterIn.QUERY),
+                                    @Parameter(name = "cursor", description = "nextCursor of the previous page", in = ParameterIn.QUERY)
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Page of the conversation thread",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ConversationThreadResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Invalid limit or cursor",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Conversations are not available while sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            )
+    })
+    public RouterFunction<ServerResponse> conversationsRoutes(ConversationsHandler conversationsHandler,
+                                                              ConcurrencyLimitFilter concurrencyLimitFilter) {
+        return RouterFunctions
+                .route(GET("/api/conversations").and(accept(MediaType.APPLICATION_JSON)),
+                        conversationsHandler::getConversations)
+                .andRoute(GET("/api/conversations/{participant}/{otherParticipant}").and(accept(MediaType.APPLICATION_JSON)),
+                        conversationsHandler::getConversationThread)
+                .filter(concurrencyLimitFilter);
+    }
+}
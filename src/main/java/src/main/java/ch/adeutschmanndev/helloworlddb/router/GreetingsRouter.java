@@ -1,9 +1,15 @@
 package ch.adeutschmanndev.helloworlddb.router;
 
+import ch.adeutschmanndev.helloworlddb.filter.ConcurrencyLimitFilter;
+import ch.adeutschmanndev.helloworlddb.filter.ErrorMappingFilter;
+import ch.adeutschmanndev.helloworlddb.filter.RateLimitFilter;
+import ch.adeutschmanndev.helloworlddb.filter.RouteEventFilter;
+import ch.adeutschmanndev.helloworlddb.filter.RouteObservationFilter;
 import ch.adeutschmanndev.helloworlddb.resource.GreetingsHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -29,6 +35,15 @@ import static org.springframework.web.servlet.function.RequestPredicates.*;
 @Tag(name = "Greetings API", description = "Complete CRUD operations and search functionality for greetings")
 public class GreetingsRouter {
 
+    /**
+     * Greeting payloads are served as JSON, or as CBOR/Smile for clients asking for them (see WireFormatConfig)
+     */
+    private static final MediaType[] GREETING_MEDIA_TYPES = {
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR,
+            new MediaType("application", "x-jackson-smile")
+    };
+
     @Bean
     @RouterOperations({
             @RouterOperation(
@@ -37,8 +52,12 @@ public class GreetingsRouter {
                     operation = @Operation(
                             operationId = "createGreeting",
                             summary = "Create a new greeting",
-                            description = "Creates a new greeting with the provided message, sender, and recipient",
+                            description = "Creates a new greeting with the provided message, sender, and recipient. "
+                                    + "Retries sent with the same Idempotency-Key return the original response",
                             tags = {"Greetings API"},
+                            parameters = {
+                                    @Parameter(name = "Idempotency-Key", description = "Client-chosen key, e.g. a UUID; a retry with the same key and body replays the first response (Idempotent-Replayed: true)", in = ParameterIn.HEADER)
+                            },
                             requestBody = @RequestBody(
                                     description = "Greeting creation request",
                                     required = true,
@@ -63,6 +82,14 @@ public class GreetingsRouter {
                                                     mediaType = "application/json",
                                                     schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
                                             )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "422",
+                                            description = "Idempotency-Key was already used with a different request",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
                                     )
                             }
                     )
@@ -106,6 +133,9 @@ public class GreetingsRouter {
                             summary = "Get all greetings",
                             description = "Retrieves all greetings in the system",
                             tags = {"Greetings API"},
+                            parameters = {
+                                    @Parameter(name = "fields", description = "Comma-separated fields to return, e.g. id,message (default: all)", in = ParameterIn.QUERY)
+                            },
                             responses = {
                                     @ApiResponse(
                                             responseCode = "200",
@@ -190,7 +220,8 @@ public class GreetingsRouter {
                             description = "Retrieves all greetings sent by a specific sender",
                             tags = {"Greetings API"},
                             parameters = {
-                                    @Parameter(name = "sender", description = "Sender name to filter by", required = true, in = ParameterIn.PATH)
+                                    @Parameter(name = "sender", description = "Sender name to filter by", required = true, in = ParameterIn.PATH),
+                                    @Parameter(name = "fields", description = "Comma-separated fields to return, e.g. id,message (default: all)", in = ParameterIn.QUERY)
                             },
                             responses = {
                                     @ApiResponse(
@@ -213,7 +244,8 @@ public class GreetingsRouter {
                             description = "Retrieves all greetings sent to a specific recipient",
                             tags = {"Greetings API"},
                             parameters = {
-                                    @Parameter(name = "recipient", description = "Recipient name to filter by", required = true, in = ParameterIn.PATH)
+                                    @Parameter(name = "recipient", description = "Recipient name to filter by", required = true, in = ParameterIn.PATH),
+                                    @Parameter(name = "fields", description = "Comma-separated fields to return, e.g. id,message (default: all)", in = ParameterIn.QUERY)
                             },
                             responses = {
                                     @ApiResponse(
@@ -227,6 +259,37 @@ public class GreetingsRouter {
                             }
                     )
             ),
+            @RouterOperation(
+                    path = "/api/greetings/recipient/{recipient}/stream",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "streamGreetingsByRecipient",
+                            summary = "Stream greetings by recipient",
+                            description = "Server-Sent Events feed of greetings created for or updated for a specific recipient (events: created, updated)",
+                            tags = {"Greetings API"},
+                            parameters = {
+                                    @Parameter(name = "recipient", description = "Recipient name to stream greetings for", required = true, in = ParameterIn.PATH)
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Stream of greetings to the specified recipient",
+                                            content = @Content(
+                                                    mediaType = "text/event-stream",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.GreetingResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Too many open streams",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            ),
             @RouterOperation(
                     path = "/api/greetings/search",
                     method = RequestMethod.GET,
@@ -236,7 +299,8 @@ public class GreetingsRouter {
                             description = "Searches for greetings containing specific text in the message",
                             tags = {"Greetings API"},
                             parameters = {
-                                    @Parameter(name = "message", description = "Text to search for in greeting messages", required = true, in = ParameterIn.QUERY)
+                                    @Parameter(name = "message", description = "Text to search for in greeting messages", required = true, in = ParameterIn.QUERY),
+                                    @Parameter(name = "fields", description = "Comma-separated fields to return, e.g. id,message (default: all)", in = ParameterIn.QUERY)
                             },
                             responses = {
                                     @ApiResponse(
@@ -260,7 +324,8 @@ public class GreetingsRouter {
                             tags = {"Greetings API"},
                             parameters = {
                                     @Parameter(name = "startDate", description = "Start date (ISO format)", required = true, in = ParameterIn.QUERY),
-                                    @Parameter(name = "endDate", description = "End date (ISO format)", required = true, in = ParameterIn.QUERY)
+                                    @Parameter(name = "endDate", description = "End date (ISO format)", required = true, in = ParameterIn.QUERY),
+                                    @Parameter(name = "fields", description = "Comma-separated fields to return, e.g. id,message (default: all)", in = ParameterIn.QUERY)
                             },
                             responses = {
                                     @ApiResponse(
@@ -283,7 +348,8 @@ public class GreetingsRouter {
                             description = "Retrieves greetings created after a specified date",
                             tags = {"Greetings API"},
                             parameters = {
-                                    @Parameter(name = "date", description = "Date after which to retrieve greetings (ISO format)", required = true, in = ParameterIn.QUERY)
+                                    @Parameter(name = "date", description = "Date after which to retrieve greetings (ISO format)", required = true, in = ParameterIn.QUERY),
+                                    @Parameter(name = "fields", description = "Comma-separated fields to return, e.g. id,message (default: all)", in = ParameterIn.QUERY)
                             },
                             responses = {
                                     @ApiResponse(
@@ -345,6 +411,123 @@ public class GreetingsRouter {
                             }
                     )
             ),
+            @RouterOperation(
+                    path = "/api/greetings/export",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "exportGreetings",
+                            summary = "Export greetings",
+                            description = "Streams greetings using PostgreSQL COPY as CSV (with header) or PostgreSQL binary COPY format. "
+                                    + "The response is gzip-compressed when the client sends Accept-Encoding: gzip",
+                            tags = {"Greetings API"},
+                            parameters = {
+                                    @Parameter(name = "format", description = "Export format: csv (default) or binary", in = ParameterIn.QUERY),
+                                    @Parameter(name = "from", description = "Inclusive lower bound of created_at (ISO format)", in = ParameterIn.QUERY),
+                                    @Parameter(name = "to", description = "Exclusive upper bound of created_at (ISO format)", in = ParameterIn.QUERY)
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Greetings export stream",
+                                            content = {
+                                                    @Content(mediaType = "text/csv"),
+                                                    @Content(mediaType = "application/octet-stream")
+                                            }
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Invalid format or date parameters",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "503",
+                                            description = "Too many exports running, or sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/greetings/import",
+                    method = RequestMethod.POST,
+                    operation = @Operation(
+                            operationId = "importGreetings",
+                            summary = "Import greetings",
+                            description = "Streams a CSV upload (header with message and optionally sender, recipient, created_at) "
+                                    + "or NDJSON upload (objects with message, sender, recipient, createdAt) into PostgreSQL via COPY. "
+                                    + "Rows are validated like a create request and inserted in one transaction; invalid rows are "
+                                    + "reported, not inserted. Send Content-Encoding: gzip for compressed uploads",
+                            tags = {"Greetings API"},
+                            requestBody = @RequestBody(
+                                    description = "CSV or NDJSON greetings",
+                                    required = true,
+                                    content = {
+                                            @Content(mediaType = "text/csv", schema = @Schema(type = "string")),
+                                            @Content(mediaType = "application/x-ndjson", schema = @Schema(type = "string"))
+                                    }
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Import completed, with the rejected rows",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ImportResultDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Malformed upload; nothing was imported",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "415",
+                                            description = "Unsupported content type",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "501",
+                                            description = "Bulk import is not available while sharding is enabled",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ErrorResponseDto.class)
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/greetings/imports",
+                    method = RequestMethod.GET,
+                    operation = @Operation(
+                            operationId = "getImports",
+                            summary = "Get import progress",
+                            description = "Lists running and recently finished imports of this instance, newest first",
+                            tags = {"Greetings API"},
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Tracked imports",
+                                            content = @Content(
+                                                    mediaType = "application/json",
+                                                    array = @ArraySchema(schema = @Schema(implementation = ch.adeutschmanndev.helloworlddb.model.dto.ImportProgressDto.class))
+                                            )
+                                    )
+                            }
+                    )
+            ),
             @RouterOperation(
                     path = "/api/greetings/count",
                     method = RequestMethod.GET,
@@ -366,42 +549,74 @@ public class GreetingsRouter {
                     )
             )
     })
-    public RouterFunction<ServerResponse> greetingsRoutes(GreetingsHandler greetingsHandler) {
+    public RouterFunction<ServerResponse> greetingsRoutes(GreetingsHandler greetingsHandler,
+                                                          ConcurrencyLimitFilter concurrencyLimitFilter,
+                                                          RateLimitFilter rateLimitFilter,
+                                                          ErrorMappingFilter errorMappingFilter,
+                                                          RouteEventFilter routeEventFilter,
+                                                          RouteObservationFilter routeObservationFilter) {
         // Log initialization of greeting routes
         org.slf4j.LoggerFactory.getLogger(GreetingsRouter.class)
                 .info("Initializing Greetings API routes with comprehensive CRUD operations");
 
-        return RouterFunctions
+        // Bulk transfers run for as long as the client sends or reads; they stay outside the latency-based concurrency limit
+        final RouterFunction<ServerResponse> bulkRoutes = RouterFunctions
+                .route(GET("/api/greetings/export"), greetingsHandler::exportGreetings)
+                .andRoute(POST("/api/greetings/import"), greetingsHandler::importGreetings)
+                .andRoute(GET("/api/greetings/imports").and(accept(MediaType.APPLICATION_JSON)),
+                        greetingsHandler::getImports)
+                .filter(errorMappingFilter);
+
+        return bulkRoutes.and(RouterFunctions
                 // Basic CRUD operations
-                .route(POST("/api/greetings").and(accept(MediaType.APPLICATION_JSON)),
+                .route(POST("/api/greetings").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::createGreeting)
-                .andRoute(GET("/api/greetings/{id}").and(accept(MediaType.APPLICATION_JSON)),
-                        greetingsHandler::getGreetingById)
-                .andRoute(GET("/api/greetings").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(GET("/api/greetings").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::getAllGreetings)
-                .andRoute(PUT("/api/greetings/{id}").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(PUT("/api/greetings/{id}").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::updateGreeting)
                 .andRoute(DELETE("/api/greetings/{id}"),
                         greetingsHandler::deleteGreeting)
 
                 // Search and filter operations
-                .andRoute(GET("/api/greetings/sender/{sender}").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(GET("/api/greetings/sender/{sender}").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::getGreetingsBySender)
-                .andRoute(GET("/api/greetings/recipient/{recipient}").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(GET("/api/greetings/recipient/{recipient}").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::getGreetingsByRecipient)
-                .andRoute(GET("/api/greetings/search").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(GET("/api/greetings/recipient/{recipient}/stream").and(accept(MediaType.TEXT_EVENT_STREAM)),
+                        greetingsHandler::streamGreetingsByRecipient)
+                .andRoute(GET("/api/greetings/search").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::searchGreetingsByMessage)
-                .andRoute(GET("/api/greetings/between").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(GET("/api/greetings/between").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::getGreetingsBetween)
-                .andRoute(GET("/api/greetings/after").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(GET("/api/greetings/after").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::getGreetingsAfterDate)
-                .andRoute(GET("/api/greetings/latest/{sender}").and(accept(MediaType.APPLICATION_JSON)),
+                .andRoute(GET("/api/greetings/latest/{sender}").and(accept(GREETING_MEDIA_TYPES)),
                         greetingsHandler::getLatestGreetingBySender)
 
                 // Utility operations
                 .andRoute(HEAD("/api/greetings/{id}"),
                         greetingsHandler::checkGreetingExists)
-                .andRoute(GET("/api/greetings/count").and(accept(MediaType.APPLICATION_JSON)),
-                        greetingsHandler::getGreetingsCount);
+                .andRoute(GET("/api/greetings/count").and(accept(GREETING_MEDIA_TYPES)),
+                        greetingsHandler::getGreetingsCount)
+
+                // Must come after the fixed paths (search, between, after, count), which would otherwise match {id}
+                .andRoute(GET("/api/greetings/{id}").and(accept(GREETING_MEDIA_TYPES)),
+                        greetingsHandler::getGreetingById)
+
+                // Errors are mapped inside the limiter, so it sees client errors as completed requests
+                .filter(errorMappingFilter)
+
+                // Shed load with fast 503s before requests queue on the connection pool
+                .filter(concurrencyLimitFilter))
+
+                // Per-client limits apply to all routes, so throttled requests never take a concurrency slot
+                .filter(rateLimitFilter)
+
+                // Trace span for the dispatch through the filters above and the handler
+                .filter(routeObservationFilter)
+
+                // Outermost, so the JFR event covers throttled and shed requests with their status too
+                .filter(routeEventFilter);
     }
 }
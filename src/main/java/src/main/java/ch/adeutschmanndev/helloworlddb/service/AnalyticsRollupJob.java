@@ -0,0 +1,54 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.AnalyticsProperties;
+import ch.adeutschmanndev.helloworlddb.repository.AnalyticsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Folds logged greeting changes into the analytics rollups
+ * Each step drains at most batchSize changes in its own transaction; once the log is empty the watermark moves to the
+ * step's start, so freshUntil only covers changes that were committed and aggregated
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupJob {
+
+    private final AnalyticsRepository analyticsRepository;
+    private final AnalyticsProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${helloworld.analytics.interval:5s}")
+    public void run() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            long aggregated;
+            do {
+                aggregated = transactionTemplate.execute(status -> step());
+            } while (aggregated >= properties.getBatchSize());
+        } catch (RuntimeException e) {
+            log.error("Analytics rollup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private long step() {
+        // Taken before the transaction's first snapshot: every change committed by then is visible to the drain
+        final LocalDateTime startedAt = LocalDateTime.now();
+        analyticsRepository.lockWatermark();
+        final long aggregated = analyticsRepository.rollup(properties.getBatchSize(), properties.getLengthBucketWidth());
+        if (aggregated < properties.getBatchSize()) {
+            analyticsRepository.updateWatermark(startedAt);
+        }
+
+        log.debug("Aggregated {} greeting changes", aggregated);
+        return aggregated;
+    }
+}
@@ -0,0 +1,92 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.AnalyticsProperties;
+import ch.adeutschmanndev.helloworlddb.exception.UnavailableWhileShardedException;
+import ch.adeutschmanndev.helloworlddb.model.dto.*;
+import ch.adeutschmanndev.helloworlddb.repository.AnalyticsRepository;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads the pre-aggregated analytics rollups; cost is independent of the size of the greetings table
+ * The rollups only cover the greetings on the primary, so every read throws UnavailableWhileShardedException while
+ * sharding is enabled
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AnalyticsService {
+
+    public static final List<String> GRANULARITIES = List.of("minute", "hour", "day");
+
+    private final AnalyticsRepository analyticsRepository;
+    private final AnalyticsProperties properties;
+    private final GreetingsShards greetingsShards;
+
+    /**
+     * Greeting volume per bucket in [from, to)
+     */
+    public VolumeResponseDto findVolume(String granularity, LocalDateTime from, LocalDateTime to) {
+        checkUnsharded();
+        log.info("Finding greeting volume per {} from {} to {}", granularity, from, to);
+        final List<VolumeBucketDto> buckets = analyticsRepository.findVolume(granularity, from, to).stream()
+                .map(row -> VolumeBucketDto.builder().bucket(row.bucket()).count(row.count()).build())
+                .toList();
+        return VolumeResponseDto.builder()
+                .granularity(granularity)
+                .freshUntil(analyticsRepository.findWatermark())
+                .buckets(buckets)
+                .build();
+    }
+
+    public TopParticipantsResponseDto findTopSenders(int limit) {
+        checkUnsharded();
+        log.info("Finding top {} senders", limit);
+        return toTopParticipants(analyticsRepository.findTopSenders(limit));
+    }
+
+    public TopParticipantsResponseDto findTopRecipients(int limit) {
+        checkUnsharded();
+        log.info("Finding top {} recipients", limit);
+        return toTopParticipants(analyticsRepository.findTopRecipients(limit));
+    }
+
+    public LengthDistributionResponseDto findLengthDistribution() {
+        checkUnsharded();
+        log.info("Finding message length distribution");
+        final int width = properties.getLengthBucketWidth();
+        final List<LengthBucketDto> buckets = analyticsRepository.findLengthDistribution().stream()
+                .map(row -> LengthBucketDto.builder()
+                        .minLength(row.minLength())
+                        .maxLength(row.minLength() + width - 1)
+                        .count(row.count())
+                        .build())
+                .toList();
+        return LengthDistributionResponseDto.builder()
+                .freshUntil(analyticsRepository.findWatermark())
+                .buckets(buckets)
+                .build();
+    }
+
+    private void checkUnsharded() {
+        if (greetingsShards.isSharded()) {
+            throw new UnavailableWhileShardedException("Analytics are not available while sharding is enabled");
+        }
+    }
+
+    private TopParticipantsResponseDto toTopParticipants(List<AnalyticsRepository.ParticipantRow> rows) {
+        return TopParticipantsResponseDto.builder()
+                .freshUntil(analyticsRepository.findWatermark())
+                .participants(rows.stream()
+                        .map(row -> ParticipantCountDto.builder().participant(row.participant()).count(row.count()).build())
+                        .toList())
+                .build();
+    }
+}
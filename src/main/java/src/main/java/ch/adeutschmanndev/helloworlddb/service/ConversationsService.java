@@ -0,0 +1,82 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.exception.UnavailableWhileShardedException;
+import ch.adeutschmanndev.helloworlddb.model.entity.Conversations;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.repository.ConversationsRepository;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsRepository;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the conversations maintained by triggers on the primary
+ * Greetings between two participants are spread over the shards of both recipients and additional shards do not
+ * maintain conversations, so this is unavailable while sharding is enabled
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ConversationsService {
+
+    private final ConversationsRepository conversationsRepository;
+    private final GreetingsRepository greetingsRepository;
+    private final GreetingsShards greetingsShards;
+
+    /**
+     * Position in a participant's conversation list: the (last_activity, participant_low, participant_high)
+     * of the last conversation already returned
+     */
+    public record ConversationCursor(LocalDateTime lastActivity, String participantLow, String participantHigh) {
+    }
+
+    /**
+     * Position in a conversation thread: the (created_at, id) of the last greeting already returned
+     */
+    public record ThreadCursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    /**
+     * Find conversations of a participant, most recently active first
+     *
+     * @param cursor Position after which to continue, or null for the first page
+     * @throws UnavailableWhileShardedException if sharding is enabled
+     */
+    public List<Conversations> findConversations(String participant, ConversationCursor cursor, int limit) {
+        checkUnsharded();
+        log.info("Finding conversations of {} after {}", participant, cursor);
+        return cursor == null
+                ? conversationsRepository.findByParticipant(participant, Limit.of(limit))
+                : conversationsRepository.findByParticipantBefore(participant, cursor.lastActivity(),
+                cursor.participantLow(), cursor.participantHigh(), Limit.of(limit));
+    }
+
+    /**
+     * Find a page of the conversation between two participants in both directions, newest first
+     *
+     * @param cursor Position after which to continue, or null for the newest page
+     * @throws UnavailableWhileShardedException if sharding is enabled
+     */
+    public List<Greetings> findThread(String participant, String otherParticipant, ThreadCursor cursor, int limit) {
+        checkUnsharded();
+        log.info("Finding conversation thread between {} and {}", participant, otherParticipant);
+        return cursor == null
+                ? greetingsRepository.findConversationPage(participant, otherParticipant, limit)
+                : greetingsRepository.findConversationPageBefore(participant, otherParticipant,
+                cursor.createdAt(), cursor.id(), limit);
+    }
+
+    private void checkUnsharded() {
+        if (greetingsShards.isSharded()) {
+            throw new UnavailableWhileShardedException("Conversations are not available while sharding is enabled");
+        }
+    }
+}
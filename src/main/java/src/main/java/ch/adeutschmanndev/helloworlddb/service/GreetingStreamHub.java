@@ -0,0 +1,179 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.GreetingStreamProperties;
+import ch.adeutschmanndev.helloworlddb.converter.GreetingConverter;
+import ch.adeutschmanndev.helloworlddb.model.dto.GreetingResponseDto;
+import ch.adeutschmanndev.helloworlddb.model.event.GreetingChangedEvent;
+import ch.adeutschmanndev.helloworlddb.model.event.GreetingChangedEvent.ChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.function.ServerResponse.SseBuilder;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed greeting writes to Server-Sent Events subscribers per recipient
+ * Every subscriber owns a bounded buffer drained by its own virtual thread, so idle streams cost
+ * no platform thread and a slow consumer is evicted instead of slowing down the writers
+ */
+@Component
+@Slf4j
+public class GreetingStreamHub {
+
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribersByRecipient = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final GreetingStreamProperties properties;
+    private final GreetingConverter greetingConverter;
+    private final Counter evictedCounter;
+
+    public GreetingStreamHub(GreetingStreamProperties properties,
+                             GreetingConverter greetingConverter,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.greetingConverter = greetingConverter;
+        this.evictedCounter = Counter.builder("greetings.stream.evicted")
+                .description("Stream subscribers evicted because their buffer overflowed")
+                .register(meterRegistry);
+        Gauge.builder("greetings.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open greeting streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a new stream for the given recipient
+     *
+     * @return false when the subscriber limit is reached
+     */
+    public boolean subscribe(String recipient, SseBuilder sse) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            log.warn("Rejecting greeting stream for recipient {}: subscriber limit reached", recipient);
+            return false;
+        }
+
+        final Subscriber subscriber = new Subscriber(recipient, sse, new ArrayBlockingQueue<>(properties.getBufferSize()));
+        subscribersByRecipient.computeIfAbsent(recipient, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        sse.onComplete(subscriber::close)
+                .onTimeout(subscriber::close)
+                .onError(error -> subscriber.close());
+        subscriber.start();
+
+        log.debug("Opened greeting stream for recipient {}", recipient);
+        return true;
+    }
+
+    /**
+     * Fans committed creations and updates out to the recipient's subscribers
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGreetingChanged(GreetingChangedEvent event) {
+        if (event.type() == ChangeType.DELETED || event.greeting().getRecipient() == null) {
+            return;
+        }
+        final Set<Subscriber> subscribers = subscribersByRecipient.get(event.greeting().getRecipient());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        final StreamEvent streamEvent = new StreamEvent(event.type().name().toLowerCase(),
+                greetingConverter.toResponseDto(event.greeting()));
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.buffer.offer(streamEvent)) {
+                log.info("Evicting slow greeting stream subscriber for recipient {}", subscriber.recipient);
+                evictedCounter.increment();
+                subscriber.close();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribersByRecipient.computeIfPresent(subscriber.recipient, (recipient, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private record StreamEvent(String name, GreetingResponseDto greeting) {
+    }
+
+    private final class Subscriber {
+
+        private final String recipient;
+        private final SseBuilder sse;
+        private final BlockingQueue<StreamEvent> buffer;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread drainThread;
+
+        private Subscriber(String recipient, SseBuilder sse, BlockingQueue<StreamEvent> buffer) {
+            this.recipient = recipient;
+            this.sse = sse;
+            this.buffer = buffer;
+        }
+
+        private void start() {
+            drainThread = Thread.ofVirtual().name("greeting-stream-" + recipient).start(this::drain);
+        }
+
+        private void drain() {
+            final long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+            try {
+                while (!closed.get()) {
+                    final StreamEvent event = buffer.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        sse.id(event.greeting().getId().toString())
+                                .event(event.name())
+                                .data(event.greeting());
+                    } else {
+                        sse.comment("heartbeat").send();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Greeting stream for recipient {} closed: {}", recipient, e.getMessage());
+            } finally {
+                close();
+                complete();
+            }
+        }
+
+        /**
+         * Stops the stream; may run on any thread, so it only signals the drain thread,
+         * which is the only one touching the SseBuilder and completes it on its way out
+         */
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            final Thread drain = drainThread;
+            if (drain != null && drain != Thread.currentThread()) {
+                drain.interrupt();
+            }
+        }
+
+        private void complete() {
+            try {
+                sse.complete();
+            } catch (RuntimeException e) {
+                log.debug("Failed to complete greeting stream for recipient {}: {}", recipient, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.ExportProperties;
+import ch.adeutschmanndev.helloworlddb.config.ImportProperties;
+import ch.adeutschmanndev.helloworlddb.exception.ImportUnavailableException;
+import ch.adeutschmanndev.helloworlddb.exception.InvalidRequestException;
+import ch.adeutschmanndev.helloworlddb.exception.UnavailableWhileShardedException;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsBulkRepository;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsBulkRepository.CopyFormat;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsBulkRepository.RejectedRow;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import ch.adeutschmanndev.helloworlddb.service.ImportProgressRegistry.ImportProgress;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export and import of greetings with constant memory use, independent of the data size
+ */
+@Service
+@Slf4j
+public class GreetingsBulkService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_LENGTH = 1024;
+    private static final List<String> NDJSON_COLUMNS =
+            List.of("row_number", "message", "sender", "recipient", "created_at", "parse_error");
+
+    private final GreetingsBulkRepository greetingsBulkRepository;
+    private final ImportProgressRegistry importProgressRegistry;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LatestGreetingsIndex latestGreetingsIndex;
+    private final GreetingsShards greetingsShards;
+    private final Semaphore exportPermits;
+
+    public GreetingsBulkService(GreetingsBulkRepository greetingsBulkRepository,
+                                ImportProgressRegistry importProgressRegistry,
+                                ImportProperties importProperties,
+                                ExportProperties exportProperties,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                EntityManagerFactory entityManagerFactory,
+                                LatestGreetingsIndex latestGreetingsIndex,
+                                GreetingsShards greetingsShards) {
+        this.greetingsBulkRepository = greetingsBulkRepository;
+        this.importProgressRegistry = importProgressRegistry;
+        this.importProperties = importProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.latestGreetingsIndex = latestGreetingsIndex;
+        this.greetingsShards = greetingsShards;
+        this.exportPermits = new Semaphore(exportProperties.getMaxConcurrent());
+    }
+
+    /**
+     * Upload format of an import
+     */
+    public enum ImportFormat {
+        CSV, NDJSON
+    }
+
+    /**
+     * Outcome of a completed import
+     */
+    public record ImportResult(ImportProgress progress, List<RejectedRow> rejections) {
+    }
+
+    /**
+     * Reserves an export slot, to be released with {@link #finishExport()}
+     * Exports are outside the concurrency limiter and hold a pool connection for the whole COPY, so they are capped here
+     *
+     * @return false when helloworld.export.max-concurrent exports are already running
+     * @throws UnavailableWhileShardedException if sharding is enabled: the COPY reads the primary only
+     */
+    public boolean tryStartExport() {
+        if (greetingsShards.isSharded()) {
+            throw new UnavailableWhileShardedException("Export is not available while sharding is enabled");
+        }
+        return exportPermits.tryAcquire();
+    }
+
+    public void finishExport() {
+        exportPermits.release();
+    }
+
+    /**
+     * Export greetings created in [from, to) into the given stream, optionally gzip-compressed
+     */
+    public long exportGreetings(CopyFormat format, LocalDateTime from, LocalDateTime to, boolean gzip, OutputStream out)
+            throws SQLException, IOException {
+        log.info("Exporting greetings as {} created from {} to {} (gzip: {})", format, from, to, gzip);
+        final long started = System.nanoTime();
+
+        final OutputStream target = gzip ? new FastGzipOutputStream(out) : new BufferedOutputStream(out, BUFFER_SIZE);
+        final long rows = greetingsBulkRepository.copyOut(format, from, to, target);
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        target.flush();
+
+        log.info("Exported {} greetings in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    /**
+     * Import greetings from a CSV (with header) or NDJSON upload
+     * Rows are streamed into a staging table, validated like CreateGreetingRequestDto and merged in one statement;
+     * the import is atomic, invalid rows are reported instead of failing it. Imported rows reach the analytics rollups
+     * through the greetings delta log like any other insert, whatever their created_at
+     *
+     * @param gzip Whether the body is gzip-compressed
+     * @throws ImportUnavailableException if sharding is enabled: the merge writes to the primary only, where greetings
+     *                                    of recipients owned by other shards could not be found
+     */
+    public ImportResult importGreetings(ImportFormat format, InputStream body, boolean gzip) throws IOException {
+        if (greetingsShards.isSharded()) {
+            throw new ImportUnavailableException("Bulk import is not available while sharding is enabled");
+        }
+        final ImportProgress progress = importProgressRegistry.start(format.name().toLowerCase(Locale.ROOT));
+        log.info("Starting {} import {}", format, progress.getId());
+
+        final InputStream in = new ProgressInputStream(gzip ? new GZIPInputStream(body, BUFFER_SIZE) : body, progress);
+        try {
+            final List<RejectedRow> rejections = transactionTemplate.execute(status -> {
+                greetingsBulkRepository.createStaging();
+                progress.merging(format == ImportFormat.CSV ? copyCsv(in) : copyNdjson(in));
+                progress.merged(greetingsBulkRepository.mergeStaging());
+                return progress.getRowsRejected() > 0
+                        ? greetingsBulkRepository.findRejected(importProperties.getMaxReportedRejections())
+                        : List.of();
+            });
+            progress.completed();
+
+            // Hibernate and the latest greeting index do not see the JDBC insert, so they would miss the new rows
+            entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegions();
+            latestGreetingsIndex.clear();
+
+            log.info("Import {} completed: {} greetings imported, {} rejected", progress.getId(),
+                    progress.getRowsImported(), progress.getRowsRejected());
+            return new ImportResult(progress, rejections);
+        } catch (RuntimeException e) {
+            progress.failed(e.getMessage());
+            throw e;
+        }
+    }
+
+    private long copyCsv(InputStream body) {
+        final InputStream in = new BufferedInputStream(body, BUFFER_SIZE);
+        return copy(readCsvHeader(in), in::transferTo);
+    }
+
+    // NDJSON lines are re-encoded as CSV rows; malformed lines are staged with a parse error instead of failing the COPY
+    private long copyNdjson(InputStream body) {
+        return copy(NDJSON_COLUMNS, out -> {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), BUFFER_SIZE);
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    writeNdjsonRow(writer, lineNumber, line);
+                }
+            }
+            writer.flush();
+        });
+    }
+
+    private long copy(List<String> columns, GreetingsBulkRepository.CopyWriter writer) {
+        try {
+            return greetingsBulkRepository.copyIntoStaging(columns, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            // SQLSTATE class 22 (data exception) is COPY rejecting the upload; anything else is a server-side failure
+            if (e.getSQLState() != null && e.getSQLState().startsWith("22")) {
+                throw new InvalidRequestException("Malformed upload: " + e.getMessage());
+            }
+            throw new IllegalStateException("Copying the upload into the staging table failed", e);
+        }
+    }
+
+    private List<String> readCsvHeader(InputStream in) {
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try {
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                if (header.size() == MAX_HEADER_LENGTH) {
+                    throw new InvalidRequestException("CSV header line is too long");
+                }
+                header.write(b);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final List<String> columns = new ArrayList<>();
+        for (String name : header.toString(StandardCharsets.UTF_8).replace("\uFEFF", "").strip().split(",")) {
+            final String column = name.strip().replace("\"", "").toLowerCase(Locale.ROOT);
+            if (!GreetingsBulkRepository.IMPORT_COLUMNS.contains(column) || columns.contains(column)) {
+                throw new InvalidRequestException("Unexpected CSV column '" + column + "', allowed columns are "
+                        + GreetingsBulkRepository.IMPORT_COLUMNS);
+            }
+            columns.add(column);
+        }
+        if (!columns.contains("message")) {
+            throw new InvalidRequestException("CSV header must contain a message column");
+        }
+        return columns;
+    }
+
+    private void writeNdjsonRow(Writer writer, long lineNumber, String line) throws IOException {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            node = null;
+        }
+
+        writer.write(Long.toString(lineNumber));
+        if (node == null || !node.isObject()) {
+            writer.write(",,,,,");
+            writeCsvValue(writer, "Malformed JSON object");
+        } else {
+            for (String field : List.of("message", "sender", "recipient", "createdAt")) {
+                writer.write(',');
+                final JsonNode value = node.get(field);
+                writeCsvValue(writer, value == null || value.isNull() ? null : value.asText());
+            }
+            writer.write(',');
+        }
+        writer.write('\n');
+    }
+
+    // An unquoted empty field is NULL in COPY CSV, a quoted one is an empty string
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value != null) {
+            writer.write('"');
+            writer.write(value.indexOf('"') < 0 ? value : value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    // Counts received bytes and lines for progress reporting
+    private static final class ProgressInputStream extends FilterInputStream {
+
+        private final ImportProgress progress;
+
+        private ProgressInputStream(InputStream in, ImportProgress progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                progress.getBytesReceived().incrementAndGet();
+                if (b == '\n') {
+                    progress.getRowsReceived().incrementAndGet();
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                int lines = 0;
+                for (int i = offset; i < offset + read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                progress.getBytesReceived().addAndGet(read);
+                progress.getRowsReceived().addAndGet(lines);
+            }
+            return read;
+        }
+    }
+
+    // Favors throughput over ratio: exports are usually network- rather than size-bound
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+
+        private FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
@@ -1,31 +1,61 @@
 package ch.adeutschmanndev.helloworlddb.service;
 
+import ch.adeutschmanndev.helloworlddb.exception.GreetingNotFoundException;
 import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.model.event.GreetingChangedEvent;
+import ch.adeutschmanndev.helloworlddb.model.event.GreetingChangedEvent.ChangeType;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsProjectionRepository.Field;
 import ch.adeutschmanndev.helloworlddb.repository.GreetingsRepository;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards.Shard;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsSpecifications;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Every public method is observed as greetings.service, a trace span tagged with the class and method
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Observed(name = "greetings.service")
 public class GreetingsService {
 
-    private final GreetingsRepository greetingsRepository;
+    private final GreetingsShards greetingsShards;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final HotSenders hotSenders;
+    private final LatestGreetingsIndex latestGreetingsIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Save a new greeting
      */
     public Greetings saveGreeting(Greetings greeting) {
         log.info("Saving new greeting from {} to {}", greeting.getSender(), greeting.getRecipient());
-        return greetingsRepository.save(greeting);
+        // Flushed here, so the generated updated_at is read back even if the caller's transaction continues
+        final Greetings savedGreeting = greetingsShards.insert(greetingsShards.forRecipient(greeting.getRecipient()),
+                repository -> List.of(repository.saveAndFlush(greeting))).getFirst();
+        eventPublisher.publishEvent(new GreetingChangedEvent(ChangeType.CREATED, savedGreeting));
+        return savedGreeting;
     }
 
     /**
@@ -34,7 +64,9 @@ public class GreetingsService {
     @Transactional(readOnly = true)
     public Optional<Greetings> findGreetingById(UUID id) {
         log.info("Finding greeting with ID: {}", id);
-        return greetingsRepository.findById(id);
+        return greetingsShards.scatter(repository -> repository.findById(id)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
     }
 
     /**
@@ -43,7 +75,33 @@ public class GreetingsService {
     @Transactional(readOnly = true)
     public List<Greetings> findAllGreetings() {
         log.info("Retrieving all greetings");
-        return greetingsRepository.findAll();
+        return greetingsShards.gather(GreetingsRepository::findAll);
+    }
+
+    /**
+     * Save new greetings in one transaction, e.g. one batch of a bulk create
+     */
+    public List<Greetings> saveGreetings(List<Greetings> greetings) {
+        log.info("Saving {} new greetings", greetings.size());
+        final List<Greetings> savedGreetings = greetings.stream()
+                .collect(Collectors.groupingBy(greeting -> greetingsShards.forRecipient(greeting.getRecipient()),
+                        LinkedHashMap::new, Collectors.toList()))
+                .entrySet().stream()
+                .flatMap(batch -> greetingsShards.insert(batch.getKey(), repository -> repository.saveAll(batch.getValue())).stream())
+                .toList();
+        savedGreetings.forEach(savedGreeting ->
+                eventPublisher.publishEvent(new GreetingChangedEvent(ChangeType.CREATED, savedGreeting)));
+        return savedGreetings;
+    }
+
+    /**
+     * Read only the given fields of the greetings matching the filter
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findGreetingFields(Set<Field> fields, Specification<Greetings> filter) {
+        log.info("Finding greeting fields {}", fields);
+        final List<List<Map<String, Object>>> rows = greetingsShards.scatter(repository -> repository.findProjected(fields, filter));
+        return rows.size() == 1 ? rows.getFirst() : rows.stream().flatMap(List::stream).toList();
     }
 
     /**
@@ -51,14 +109,23 @@ public class GreetingsService {
      */
     public Greetings updateGreeting(UUID id, Greetings updatedGreeting) {
         log.info("Updating greeting with ID: {}", id);
-        return greetingsRepository.findById(id)
+        final Shard source = greetingsShards.locate(id).orElseThrow(() -> new GreetingNotFoundException(id));
+        final Shard target = greetingsShards.forRecipient(updatedGreeting.getRecipient());
+        return greetingsShards.write(source, repository -> repository.findById(id)
                 .map(existingGreeting -> {
+                    if (source != target) {
+                        return moveGreeting(repository, existingGreeting, updatedGreeting, target);
+                    }
                     existingGreeting.setMessage(updatedGreeting.getMessage());
                     existingGreeting.setSender(updatedGreeting.getSender());
                     existingGreeting.setRecipient(updatedGreeting.getRecipient());
-                    return greetingsRepository.save(existingGreeting);
+                    return repository.save(existingGreeting);
+                })
+                .map(savedGreeting -> {
+                    eventPublisher.publishEvent(new GreetingChangedEvent(ChangeType.UPDATED, savedGreeting));
+                    return savedGreeting;
                 })
-                .orElseThrow(() -> new RuntimeException("Greeting not found with ID: " + id));
+                .orElseThrow(() -> new GreetingNotFoundException(id)));
     }
 
     /**
@@ -66,19 +133,23 @@ public class GreetingsService {
      */
     public void deleteGreeting(UUID id) {
         log.info("Deleting greeting with ID: {}", id);
-        if (!greetingsRepository.existsById(id)) {
-            throw new RuntimeException("Greeting not found with ID: " + id);
-        }
-        greetingsRepository.deleteById(id);
+        final Shard shard = greetingsShards.locate(id).orElseThrow(() -> new GreetingNotFoundException(id));
+        final Greetings existingGreeting = greetingsShards.write(shard, repository -> {
+            final Greetings greeting = repository.findById(id).orElseThrow(() -> new GreetingNotFoundException(id));
+            repository.delete(greeting);
+            return greeting;
+        });
+        eventPublisher.publishEvent(new GreetingChangedEvent(ChangeType.DELETED, existingGreeting));
     }
 
     /**
      * Find greetings by sender
+     * Runs without a surrounding transaction, so callers waiting on a coalesced read for a hot sender hold no connection
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Greetings> findGreetingsBySender(String sender) {
         log.info("Finding greetings by sender: {}", sender);
-        return greetingsRepository.findBySender(sender);
+        return hotSenders.bySender(sender, () -> greetingsShards.gather(repository -> repository.findBySender(sender)));
     }
 
     /**
@@ -87,16 +158,19 @@ public class GreetingsService {
     @Transactional(readOnly = true)
     public List<Greetings> findGreetingsByRecipient(String recipient) {
         log.info("Finding greetings by recipient: {}", recipient);
-        return greetingsRepository.findByRecipient(recipient);
+        return greetingsShards.read(greetingsShards.forRecipient(recipient), repository -> repository.findByRecipient(recipient));
     }
 
     /**
      * Find greetings containing specific message text
+     * Runs without a surrounding transaction, so a split query does not hold an extra connection while its slices run
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Greetings> findGreetingsByMessage(String message) {
         log.info("Finding greetings containing message: {}", message);
-        return greetingsRepository.findByMessageContainingIgnoreCase(message);
+        final String pattern = GreetingsSpecifications.containingIgnoreCasePattern(message);
+        return parallelQueryExecutor.list(repository -> repository.findByMessageContainingIgnoreCase(message),
+                (repository, fromTid, toTid) -> repository.findSliceByMessageLike(fromTid, toTid, pattern));
     }
 
     /**
@@ -105,25 +179,70 @@ public class GreetingsService {
     @Transactional(readOnly = true)
     public List<Greetings> findGreetingsBetween(String sender, String recipient) {
         log.info("Finding greetings between {} and {}", sender, recipient);
-        return greetingsRepository.findGreetingsBetween(sender, recipient);
+        return greetingsShards.read(greetingsShards.forRecipient(recipient),
+                repository -> repository.findGreetingsBetween(sender, recipient));
     }
 
     /**
      * Find greetings created after a specific date
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Greetings> findGreetingsAfterDate(LocalDateTime date) {
         log.info("Finding greetings created after: {}", date);
-        return greetingsRepository.findByCreatedAtAfter(date);
+        return parallelQueryExecutor.list(repository -> repository.findByCreatedAtAfter(date),
+                (repository, fromTid, toTid) -> repository.findSliceCreatedAfter(fromTid, toTid, date));
     }
 
     /**
-     * Find latest greeting by sender
+     * Find latest greeting by sender, from memory unless the sender is not held by the index
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Greetings> findLatestGreetingBySender(String sender) {
         log.info("Finding latest greeting by sender: {}", sender);
-        return greetingsRepository.findTopBySenderOrderByCreatedAtDesc(sender);
+        return latestGreetingsIndex.latest(sender, () -> hotSenders.latest(sender, () -> greetingsShards
+                .scatter(repository -> repository.findTopBySenderOrderByCreatedAtDesc(sender)).stream()
+                .flatMap(Optional::stream)
+                .max(GreetingsShards.CREATED_AT_ORDER)));
+    }
+
+    /**
+     * Pass greetings by sender to the consumer
+     * Reads through findGreetingsBySender, so the stream shares its query cache and hot-sender coalescing and holds
+     * no connection while the client reads
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long streamGreetingsBySender(String sender, Consumer<Greetings> consumer) {
+        log.info("Streaming greetings by sender: {}", sender);
+        final List<Greetings> greetings = findGreetingsBySender(sender);
+        greetings.forEach(consumer);
+        return greetings.size();
+    }
+
+    /**
+     * Pass greetings by recipient to the consumer while they are read
+     */
+    @Transactional(readOnly = true)
+    public long streamGreetingsByRecipient(String recipient, Consumer<Greetings> consumer) {
+        log.info("Streaming greetings by recipient: {}", recipient);
+        return stream(greetingsShards.forRecipient(recipient), repository -> repository.streamByRecipient(recipient), consumer);
+    }
+
+    /**
+     * Pass greetings containing specific message text to the consumer while they are read
+     */
+    @Transactional(readOnly = true)
+    public long streamGreetingsByMessage(String message, Consumer<Greetings> consumer) {
+        log.info("Streaming greetings containing message: {}", message);
+        return streamAll(repository -> repository.streamByMessageContainingIgnoreCase(message), consumer);
+    }
+
+    /**
+     * Pass greetings created after a specific date to the consumer while they are read
+     */
+    @Transactional(readOnly = true)
+    public long streamGreetingsAfterDate(LocalDateTime date, Consumer<Greetings> consumer) {
+        log.info("Streaming greetings created after: {}", date);
+        return streamAll(repository -> repository.streamByCreatedAtAfter(date), consumer);
     }
 
     /**
@@ -131,14 +250,61 @@ public class GreetingsService {
      */
     @Transactional(readOnly = true)
     public boolean existsById(UUID id) {
-        return greetingsRepository.existsById(id);
+        return greetingsShards.scatter(repository -> repository.existsById(id)).contains(true);
     }
 
     /**
      * Count total greetings
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countGreetings() {
-        return greetingsRepository.count();
+        return parallelQueryExecutor.count(GreetingsRepository::count, GreetingsRepository::countSlice);
+    }
+
+    /**
+     * Writes the updated greeting to the shard owning its new recipient, then removes it from the current one
+     * The shards commit independently; the copy is inserted first, so a failure in between leaves a duplicate
+     */
+    private Greetings moveGreeting(GreetingsRepository source, Greetings existingGreeting, Greetings updatedGreeting, Shard target) {
+        log.info("Moving greeting {} to shard {}", existingGreeting.getId(), target);
+        final Greetings movedGreeting = greetingsShards.write(target, repository -> {
+            repository.insertWithId(existingGreeting.getId(), updatedGreeting.getMessage(), updatedGreeting.getSender(),
+                    updatedGreeting.getRecipient(), existingGreeting.getCreatedAt());
+            return repository.findById(existingGreeting.getId()).orElseThrow();
+        });
+        source.delete(existingGreeting);
+        return movedGreeting;
+    }
+
+    /**
+     * Streams from each shard in turn; results are ordered within a shard only
+     */
+    private long streamAll(Function<GreetingsRepository, Stream<Greetings>> query, Consumer<Greetings> consumer) {
+        long count = 0;
+        for (Shard shard : greetingsShards.getShards()) {
+            count += stream(shard, query, consumer);
+        }
+        return count;
+    }
+
+    private long stream(Shard shard, Function<GreetingsRepository, Stream<Greetings>> query, Consumer<Greetings> consumer) {
+        return greetingsShards.read(shard, repository -> forEach(query.apply(repository), consumer, shard.entityManager()));
+    }
+
+    /**
+     * Consumed entities are detached, so the persistence context does not grow with the result
+     */
+    private long forEach(Stream<Greetings> greetings, Consumer<Greetings> consumer, EntityManager entityManager) {
+        long count = 0;
+        try (greetings) {
+            final Iterator<Greetings> iterator = greetings.iterator();
+            while (iterator.hasNext()) {
+                final Greetings greeting = iterator.next();
+                consumer.accept(greeting);
+                entityManager.detach(greeting);
+                count++;
+            }
+        }
+        return count;
     }
 }
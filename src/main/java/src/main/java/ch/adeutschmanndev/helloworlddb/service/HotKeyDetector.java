@@ -0,0 +1,268 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Space-Saving heavy-hitter sketch: tracks at most capacity keys, the least frequent one is replaced by a new key
+ * and its count is inherited as the new key's error bound. A contended update is skipped instead of waiting for the
+ * lock; skipped calls are spread evenly over the keys, so the shares stay representative.
+ * <p>
+ * Counters are kept in a Stream-Summary: a list of buckets by ascending count, each holding the counters with that
+ * count. Incrementing a counter moves it to the next bucket and the least frequent key is the head of the first
+ * bucket, so every update is O(1)
+ */
+public class HotKeyDetector {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Counter> counters;
+    private final AtomicLong skipped = new AtomicLong();
+    private Bucket lowest;
+    private long total;
+    private volatile Set<String> hotKeys = Set.of();
+
+    HotKeyDetector(int capacity) {
+        this.capacity = capacity;
+        this.counters = HashMap.newHashMap(capacity);
+    }
+
+    /**
+     * Counted key with its share of all recorded calls
+     *
+     * @param count upper bound of the calls for the key
+     * @param error how much of the count may belong to keys it replaced
+     */
+    public record Entry(String key, long count, long error, double share, boolean hot) {
+    }
+
+    void record(String key) {
+        if (key == null) {
+            return;
+        }
+        if (!lock.tryLock()) {
+            skipped.incrementAndGet();
+            return;
+        }
+        try {
+            total++;
+            final Counter counter = counters.get(key);
+            if (counter != null) {
+                increment(counter);
+            } else if (counters.size() < capacity) {
+                final Counter added = new Counter(key, 0);
+                counters.put(key, added);
+                if (lowest == null || lowest.count != 1) {
+                    final Bucket bucket = new Bucket(1);
+                    bucket.next = lowest;
+                    if (lowest != null) {
+                        lowest.previous = bucket;
+                    }
+                    lowest = bucket;
+                }
+                lowest.add(added);
+            } else {
+                // The replaced counter is reused for the new key, so the summary keeps capacity counters
+                final Counter replaced = lowest.first;
+                counters.remove(replaced.key);
+                replaced.key = key;
+                replaced.error = lowest.count;
+                counters.put(key, replaced);
+                increment(replaced);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isHot(String key) {
+        return key != null && hotKeys.contains(key);
+    }
+
+    Set<String> hotKeys() {
+        return hotKeys;
+    }
+
+    long skipped() {
+        return skipped.get();
+    }
+
+    /**
+     * Marks keys whose guaranteed count reaches the share and minimum as hot, then halves all counts
+     *
+     * @return the new hot keys
+     */
+    Set<String> decay(double hotShare, long minCount) {
+        lock.lock();
+        try {
+            final long threshold = Math.max(minCount, (long) Math.ceil(total * hotShare));
+            hotKeys = counters.values().stream()
+                    .filter(counter -> counter.bucket.count - counter.error >= threshold)
+                    .map(counter -> counter.key)
+                    .collect(Collectors.toUnmodifiableSet());
+
+            total /= 2;
+            // Halving keeps the buckets in order; buckets whose counts become equal are merged, and zero dropped
+            Bucket kept = null;
+            for (Bucket bucket = lowest, next; bucket != null; bucket = next) {
+                next = bucket.next;
+                final long halved = bucket.count / 2;
+                for (Counter counter = bucket.first; counter != null; counter = counter.next) {
+                    counter.error /= 2;
+                    if (halved == 0) {
+                        counters.remove(counter.key);
+                    }
+                }
+                if (halved == 0) {
+                    continue;
+                }
+                if (kept != null && kept.count == halved) {
+                    kept.addAll(bucket);
+                } else {
+                    bucket.count = halved;
+                    bucket.previous = kept;
+                    if (kept == null) {
+                        lowest = bucket;
+                    } else {
+                        kept.next = bucket;
+                    }
+                    kept = bucket;
+                }
+            }
+            if (kept == null) {
+                lowest = null;
+            } else {
+                kept.next = null;
+            }
+            return hotKeys;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tracked keys by descending count
+     */
+    List<Entry> top() {
+        lock.lock();
+        try {
+            final Set<String> hot = hotKeys;
+            final List<Entry> entries = new ArrayList<>(counters.size());
+            counters.forEach((key, counter) -> entries.add(new Entry(key, counter.bucket.count, counter.error,
+                    total == 0 ? 0 : (double) counter.bucket.count / total, hot.contains(key))));
+            entries.sort(Comparator.comparingLong(Entry::count).reversed());
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Moves the counter to the bucket of count + 1, creating it after its current bucket when missing
+    private void increment(Counter counter) {
+        final Bucket from = counter.bucket;
+        Bucket to = from.next;
+        if (to == null || to.count != from.count + 1) {
+            to = new Bucket(from.count + 1);
+            to.previous = from;
+            to.next = from.next;
+            if (from.next != null) {
+                from.next.previous = to;
+            }
+            from.next = to;
+        }
+        from.remove(counter);
+        to.add(counter);
+        if (from.first == null) {
+            unlink(from);
+        }
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.previous == null) {
+            lowest = bucket.next;
+        } else {
+            bucket.previous.next = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.previous = bucket.previous;
+        }
+    }
+
+    private static final class Counter {
+
+        private String key;
+        private long error;
+        private Bucket bucket;
+        private Counter previous;
+        private Counter next;
+
+        private Counter(String key, long error) {
+            this.key = key;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Counters with the same count, oldest first
+     */
+    private static final class Bucket {
+
+        private long count;
+        private Bucket previous;
+        private Bucket next;
+        private Counter first;
+        private Counter last;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void add(Counter counter) {
+            counter.bucket = this;
+            counter.previous = last;
+            counter.next = null;
+            if (last == null) {
+                first = counter;
+            } else {
+                last.next = counter;
+            }
+            last = counter;
+        }
+
+        private void remove(Counter counter) {
+            if (counter.previous == null) {
+                first = counter.next;
+            } else {
+                counter.previous.next = counter.next;
+            }
+            if (counter.next == null) {
+                last = counter.previous;
+            } else {
+                counter.next.previous = counter.previous;
+            }
+            counter.previous = null;
+            counter.next = null;
+        }
+
+        // Appends the counters of other, which is dropped from the list by the caller
+        private void addAll(Bucket other) {
+            for (Counter counter = other.first; counter != null; counter = counter.next) {
+                counter.bucket = this;
+            }
+            other.first.previous = last;
+            if (last == null) {
+                first = other.first;
+            } else {
+                last.next = other.first;
+            }
+            last = other.last;
+        }
+    }
+}
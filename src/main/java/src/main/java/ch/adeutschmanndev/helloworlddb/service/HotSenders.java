@@ -0,0 +1,135 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.HotKeyProperties;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.model.event.GreetingChangedEvent;
+import ch.adeutschmanndev.helloworlddb.model.event.GreetingChangedEvent.ChangeType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Finds the senders behind most greetings calls and gives them special handling
+ * Every insert invalidates the Hibernate query cache for the whole table, so concurrent reads of the same hot sender
+ * share one query instead of each running it
+ */
+@Component
+@Slf4j
+public class HotSenders {
+
+    private final HotKeyProperties properties;
+    private final HotKeyDetector detector;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<ReadKey, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    public HotSenders(HotKeyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.detector = new HotKeyDetector(properties.getCapacity());
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("greetings.hotkeys.hot", detector, d -> d.hotKeys().size())
+                .description("Senders currently treated as hot")
+                .register(meterRegistry);
+        Gauge.builder("greetings.hotkeys.skipped", detector, HotKeyDetector::skipped)
+                .description("Calls not counted because the detector was busy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts the writes per sender
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGreetingChanged(GreetingChangedEvent event) {
+        if (properties.isEnabled() && event.type() == ChangeType.CREATED) {
+            detector.record(event.greeting().getSender());
+        }
+    }
+
+    /**
+     * Latest greeting of the sender read from the database; concurrent calls for a hot sender share one query
+     * Lookups served by the LatestGreetingsIndex do not reach this method and are not counted
+     */
+    public Optional<Greetings> latest(String sender, Supplier<Optional<Greetings>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        detector.record(sender);
+        return detector.isHot(sender) ? coalesced(new ReadKey("latest", sender), loader) : loader.get();
+    }
+
+    /**
+     * Greetings of the sender; concurrent calls for a hot sender share one query and its result list
+     */
+    public List<Greetings> bySender(String sender, Supplier<List<Greetings>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        detector.record(sender);
+        return detector.isHot(sender) ? coalesced(new ReadKey("sender", sender), loader) : loader.get();
+    }
+
+    /**
+     * Tracked senders by descending count, for the hotkeys actuator endpoint
+     */
+    public List<HotKeyDetector.Entry> top() {
+        return detector.top();
+    }
+
+    @Scheduled(fixedDelayString = "${helloworld.hot-keys.decay-interval:5s}")
+    public void decay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        final Set<String> before = detector.hotKeys();
+        final Set<String> hot = detector.decay(properties.getHotShare(), properties.getMinCount());
+        if (!hot.equals(before)) {
+            log.info("Hot senders: {}", hot);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesced(ReadKey key, Supplier<T> loader) {
+        final CompletableFuture<T> mine = new CompletableFuture<>();
+        final CompletableFuture<T> running = (CompletableFuture<T>) inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            count("coalesced");
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        count("loaded");
+        try {
+            final T result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("greetings.hotkeys.reads", "result", result).increment();
+    }
+
+    private record ReadKey(String query, String sender) {
+    }
+}
@@ -0,0 +1,103 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the idempotency keys seen by this instance, in two generations of one TTL each
+ * A negative answer means this instance has not seen the key within the TTL; keys stored by other instances or
+ * before a restart are not known, so a negative answer never replaces the database check, it only skips the lookup.
+ * Generations rotate instead of removing bits, so expired keys do not push up the false-positive rate
+ */
+class IdempotencyKeyFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final long generationNanos;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    IdempotencyKeyFilter(int expectedKeys, double falsePositiveRate, long generationNanos) {
+        final double ln2 = Math.log(2);
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63,
+                Math.max(64, Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2))));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * ln2));
+        this.generationNanos = generationNanos;
+        this.current = new Generation(bits, System.nanoTime());
+        this.previous = new Generation(bits, System.nanoTime());
+    }
+
+    boolean mightContain(String key) {
+        final long hash = hash(key);
+        return current.contains(hash, bits, hashes) || previous.contains(hash, bits, hashes);
+    }
+
+    void put(String key) {
+        rotateIfExpired();
+        current.put(hash(key), bits, hashes);
+    }
+
+    private void rotateIfExpired() {
+        final Generation generation = current;
+        if (System.nanoTime() - generation.startedAt < generationNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (current == generation) {
+                previous = generation;
+                current = new Generation(bits, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer for well-spread high and low halves
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final long startedAt;
+
+        private Generation(int bits, long startedAt) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+            this.startedAt = startedAt;
+        }
+
+        // Double hashing: bit i is h1 + i * h2, from the two halves of the key hash
+        private boolean contains(long hash, int bits, int hashes) {
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                final int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash, int bits, int hashes) {
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                final int bit = Math.floorMod(h1 + i * h2, bits);
+                final long mask = 1L << bit;
+                words.getAndUpdate(bit >>> 6, word -> word | mask);
+            }
+        }
+    }
+}
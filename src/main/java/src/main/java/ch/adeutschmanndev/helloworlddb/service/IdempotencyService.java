@@ -0,0 +1,156 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.IdempotencyProperties;
+import ch.adeutschmanndev.helloworlddb.exception.IdempotencyKeyReusedException;
+import ch.adeutschmanndev.helloworlddb.exception.InvalidRequestException;
+import ch.adeutschmanndev.helloworlddb.repository.IdempotencyKeyRepository;
+import ch.adeutschmanndev.helloworlddb.repository.IdempotencyKeyRepository.StoredKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key and replays its stored response for retries
+ * The key is reserved in the transaction that performs the request, so concurrent retries wait on the key's row and
+ * then replay, and nothing is stored if the request fails. The Bloom filter sends first-time keys straight to the
+ * reservation; keys it may have seen are looked up first, so a replay is a single read.
+ * Keys are stored on the primary: key and greeting are committed atomically only when the recipient's shard is the
+ * primary. A greeting on another shard commits first and is deleted again if the reservation rolls back, but a crash
+ * between the two commits leaves it without its key, so a retry creates it a second time
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final IdempotencyKeyFilter seenKeys;
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              IdempotencyProperties properties,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.seenKeys = new IdempotencyKeyFilter(properties.getExpectedKeys(), properties.getFalsePositiveRate(),
+                properties.getTtl().toNanos());
+    }
+
+    /**
+     * Response of an idempotent request
+     *
+     * @param replayed whether the response was stored by an earlier request with the same key
+     */
+    public record Outcome<T>(T response, boolean replayed) {
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Performs the action once for the key, or returns the response stored for it
+     *
+     * @param request the request body; a retry must send the same body
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     */
+    public <T> Outcome<T> execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            throw new InvalidRequestException("Idempotency-Key must be 1 to " + properties.getMaxKeyLength() + " characters");
+        }
+        final String requestHash = hash(request);
+
+        if (seenKeys.mightContain(key)) {
+            final Optional<StoredKey> stored = repository.find(key);
+            if (stored.isPresent()) {
+                return replay(stored.get(), requestHash, responseType);
+            }
+            count("false_positive");
+        }
+
+        final Outcome<T> outcome = transactionTemplate.execute(status -> {
+            if (!repository.reserve(key, requestHash)) {
+                return replay(repository.find(key).orElseThrow(), requestHash, responseType);
+            }
+            final T response = action.get();
+            repository.complete(key, write(response));
+            return new Outcome<>(response, false);
+        });
+        seenKeys.put(key);
+        if (!outcome.replayed()) {
+            count("created");
+        }
+        return outcome;
+    }
+
+    @Scheduled(fixedDelayString = "${helloworld.idempotency.cleanup-interval:10m}")
+    public void deleteExpiredKeys() {
+        final LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTtl());
+        int deleted;
+        long total = 0;
+        do {
+            // One transaction per batch: with auto-commit off (high-throughput profile) a bare delete would roll back
+            deleted = transactionTemplate.execute(status -> repository.deleteCreatedBefore(cutoff, properties.getCleanupBatchSize()));
+            total += deleted;
+        } while (deleted == properties.getCleanupBatchSize());
+        if (total > 0) {
+            log.debug("Deleted {} idempotency keys created before {}", total, cutoff);
+        }
+    }
+
+    private <T> Outcome<T> replay(StoredKey stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            count("reused");
+            throw new IdempotencyKeyReusedException();
+        }
+        count("replayed");
+        try {
+            return new Outcome<>(objectMapper.readValue(stored.response(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is not readable", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for replay", e);
+        }
+    }
+
+    /**
+     * SHA-256 of the request's JSON form, so a retry with a changed body is told apart from a replay
+     */
+    private String hash(Object request) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(write(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("greetings.idempotency.requests", "result", result).increment();
+    }
+}
@@ -0,0 +1,102 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.ImportProperties;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running and recently finished bulk imports of this instance
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportProgressRegistry {
+
+    private final ImportProperties importProperties;
+    private final Deque<ImportProgress> imports = new ConcurrentLinkedDeque<>();
+
+    public enum Phase {
+        RECEIVING, MERGING, COMPLETED, FAILED
+    }
+
+    /**
+     * Progress of one import; updated by the importing thread, read by any request
+     */
+    @Getter
+    public static final class ImportProgress {
+
+        private final UUID id = UUID.randomUUID();
+        private final String format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong bytesReceived = new AtomicLong();
+        private final AtomicLong rowsReceived = new AtomicLong();
+        private volatile Phase phase = Phase.RECEIVING;
+        private volatile long rowsImported;
+        private volatile long rowsRejected;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private ImportProgress(String format) {
+            this.format = format;
+        }
+
+        void merging(long rows) {
+            rowsReceived.set(rows);
+            phase = Phase.MERGING;
+        }
+
+        void merged(long imported) {
+            rowsImported = imported;
+            rowsRejected = rowsReceived.get() - imported;
+        }
+
+        void completed() {
+            finishedAt = LocalDateTime.now();
+            phase = Phase.COMPLETED;
+        }
+
+        void failed(String message) {
+            rowsImported = 0;
+            finishedAt = LocalDateTime.now();
+            error = message;
+            phase = Phase.FAILED;
+        }
+
+        boolean isFinished() {
+            return phase == Phase.COMPLETED || phase == Phase.FAILED;
+        }
+    }
+
+    public ImportProgress start(String format) {
+        final ImportProgress progress = new ImportProgress(format);
+        imports.addFirst(progress);
+        trim();
+        return progress;
+    }
+
+    /**
+     * All tracked imports, newest first
+     */
+    public List<ImportProgress> findAll() {
+        return List.copyOf(imports);
+    }
+
+    // Drops the oldest finished imports beyond the history size; running imports are always kept
+    private void trim() {
+        int finished = 0;
+        for (Iterator<ImportProgress> it = imports.iterator(); it.hasNext(); ) {
+            final ImportProgress progress = it.next();
+            if (progress.isFinished() && ++finished > importProperties.getHistorySize()) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.LatestGreetingsProperties;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.model.event.GreetingChangedEvent;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Latest greeting per sender, held in memory and kept current by the greetings written through this instance
+ * Filled by one DISTINCT ON scan once the application is ready. A sender that is not held, or whose latest greeting
+ * was deleted or moved to another sender, is read from the database on its next lookup. Held in a Caffeine cache of at
+ * most max-senders, so lookups take no lock; senders are also dropped after ttl, which bounds how long greetings
+ * written through other instances go unseen
+ */
+@Component
+@Slf4j
+public class LatestGreetingsIndex {
+
+    private final LatestGreetingsProperties properties;
+    private final GreetingsShards greetingsShards;
+    // Empty for senders without greetings; changes to a sender's entry are made with compute, so they are atomic
+    private final Cache<String, Optional<Greetings>> latestBySender;
+    private final Map<UUID, String> senderById = new ConcurrentHashMap<>();
+    // Incremented by every update or delete; a database read started before one is not stored, since it may be stale
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter spilled;
+
+    public LatestGreetingsIndex(LatestGreetingsProperties properties, GreetingsShards greetingsShards, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.greetingsShards = greetingsShards;
+        this.hits = reads(meterRegistry, "hit");
+        this.misses = reads(meterRegistry, "miss");
+        this.spilled = Counter.builder("greetings.latest.spilled")
+                .description("Senders dropped from the latest greeting index to stay within max-senders")
+                .register(meterRegistry);
+        this.latestBySender = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSenders())
+                .expireAfterWrite(properties.getTtl())
+                .evictionListener((String sender, Optional<Greetings> held, RemovalCause cause) -> {
+                    if (held != null) {
+                        held.ifPresent(greeting -> senderById.remove(greeting.getId(), sender));
+                    }
+                    if (cause == RemovalCause.SIZE) {
+                        spilled.increment();
+                    }
+                })
+                .build();
+        Gauge.builder("greetings.latest.senders", latestBySender, Cache::estimatedSize)
+                .description("Senders held by the latest greeting index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Latest greeting of the sender from memory, or from the loader if the sender is not held
+     */
+    public Optional<Greetings> latest(String sender, Supplier<Optional<Greetings>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        final Optional<Greetings> held = latestBySender.getIfPresent(sender);
+        if (held != null) {
+            hits.increment();
+            return held;
+        }
+
+        misses.increment();
+        final long generation = invalidations.get();
+        final Optional<Greetings> loaded = loader.get();
+        if (invalidations.get() == generation) {
+            put(sender, loaded);
+            // An update or delete counted after the check may have looked for this sender before it was stored
+            if (invalidations.get() != generation) {
+                forget(sender);
+            }
+        }
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled() || !properties.isWarmUp()) {
+            return;
+        }
+        final long started = System.nanoTime();
+        final long generation = invalidations.get();
+        try {
+            final List<Greetings> latest = greetingsShards
+                    .scatter(repository -> repository.findLatestPerSender(properties.getMaxSenders())).stream()
+                    .flatMap(List::stream)
+                    .sorted(GreetingsShards.CREATED_AT_ORDER)
+                    .toList();
+            if (invalidations.get() != generation) {
+                log.info("Skipping latest greeting warm-up: greetings were changed during the scan");
+                return;
+            }
+            latest.subList(Math.max(0, latest.size() - properties.getMaxSenders()), latest.size())
+                    .forEach(greeting -> put(greeting.getSender(), Optional.of(greeting)));
+            if (invalidations.get() != generation) {
+                log.info("Dropping latest greeting warm-up: greetings were changed while it was stored");
+                clear();
+                return;
+            }
+            log.info("Loaded the latest greeting of {} senders in {} ms", latestBySender.estimatedSize(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Latest greeting warm-up failed, senders are loaded on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies a committed change: a new greeting becomes its sender's latest, while a latest greeting that was
+     * deleted or given another sender is dropped, so the sender's previous greeting is read from the database
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGreetingChanged(GreetingChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        final Greetings greeting = event.greeting();
+        switch (event.type()) {
+            case CREATED -> {
+                if (greeting.getSender() != null) {
+                    put(greeting.getSender(), Optional.of(greeting));
+                }
+            }
+            case UPDATED -> {
+                invalidations.incrementAndGet();
+                final String previousSender = senderById.get(greeting.getId());
+                if (previousSender != null && !previousSender.equals(greeting.getSender())) {
+                    forget(previousSender);
+                }
+                if (greeting.getSender() != null && latestBySender.getIfPresent(greeting.getSender()) != null) {
+                    put(greeting.getSender(), Optional.of(greeting));
+                }
+            }
+            case DELETED -> {
+                invalidations.incrementAndGet();
+                final String previousSender = senderById.get(greeting.getId());
+                if (previousSender != null) {
+                    forget(previousSender);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the senders whose latest greeting is one of the given greetings, e.g. after they were archived
+     */
+    public void forgetGreetings(Collection<UUID> ids) {
+        invalidations.incrementAndGet();
+        for (UUID id : ids) {
+            final String sender = senderById.get(id);
+            if (sender != null) {
+                forget(sender);
+            }
+        }
+    }
+
+    /**
+     * Drops all senders, e.g. after greetings were written without change events
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        latestBySender.invalidateAll();
+        senderById.clear();
+    }
+
+    /**
+     * Stores the greeting unless a newer one is held for the sender
+     */
+    private void put(String sender, Optional<Greetings> candidate) {
+        latestBySender.asMap().compute(sender, (key, held) -> {
+            if (held != null && held.isPresent()) {
+                if (candidate.isEmpty() || GreetingsShards.CREATED_AT_ORDER.compare(held.get(), candidate.get()) > 0) {
+                    return held;
+                }
+                senderById.remove(held.get().getId(), key);
+            }
+            candidate.ifPresent(greeting -> senderById.put(greeting.getId(), key));
+            return candidate;
+        });
+    }
+
+    private void forget(String sender) {
+        latestBySender.asMap().computeIfPresent(sender, (key, held) -> {
+            held.ifPresent(greeting -> senderById.remove(greeting.getId(), key));
+            return null;
+        });
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("greetings.latest.reads")
+                .description("Latest greeting lookups served by the index or read from the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,422 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.ParallelQueryProperties;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsRepository;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards.Shard;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs full-table greetings queries as disjoint heap block ranges on parallel connections
+ * Each slice is a TID range scan in its own read-only transaction on a virtual thread; ordered slice results are
+ * k-way merged by creation time. The slices of a shard read one snapshot: the first exports it with
+ * pg_export_snapshot() and stays open until the others have imported it with SET TRANSACTION SNAPSHOT.
+ * At most max-concurrent-slices slices, and never more than half the shard's pool, run per shard across all requests.
+ * A query that would exceed them or find fewer idle pool connections than slices, small tables, and all queries when
+ * disabled, run as one query per shard
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParallelQueryExecutor {
+
+    /**
+     * Upper bound of the last slice of a table, so rows in pages added after the size estimate are included
+     */
+    private static final String LAST_TID = "(4294967295,0)";
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    /**
+     * How long the first slice of a shard keeps its snapshot open for the other slices to import it
+     */
+    private static final Duration SNAPSHOT_IMPORT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final GreetingsShards greetingsShards;
+    private final ParallelQueryProperties properties;
+    private final Map<String, PageEstimate> pageEstimates = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> slicePermits = new ConcurrentHashMap<>();
+    private final Map<String, Optional<HikariDataSource>> pools = new ConcurrentHashMap<>();
+    private final Map<String, TransactionTemplate> snapshotTransactions = new ConcurrentHashMap<>();
+
+    /**
+     * A query over the block range [fromTid, toTid)
+     */
+    @FunctionalInterface
+    public interface SliceQuery<T> {
+
+        T apply(GreetingsRepository repository, String fromTid, String toTid);
+    }
+
+    /**
+     * Finds greetings with the slice query, merged ordered by creation time, or with the whole-table query if no shard
+     * is worth splitting
+     *
+     * @param slice must return its rows ordered by created_at, id
+     */
+    public List<Greetings> list(Function<GreetingsRepository, List<Greetings>> whole, SliceQuery<List<Greetings>> slice) {
+        final List<Slice> slices = plan();
+        if (slices == null || !acquire(slices)) {
+            return greetingsShards.gather(whole);
+        }
+        try {
+            return merge(run(slices, slice));
+        } finally {
+            release(slices);
+        }
+    }
+
+    /**
+     * Counts greetings with the slice query, or with the whole-table query if no shard is worth splitting
+     */
+    public long count(Function<GreetingsRepository, Long> whole, SliceQuery<Long> slice) {
+        final List<Slice> slices = plan();
+        if (slices == null || !acquire(slices)) {
+            return greetingsShards.scatter(whole).stream().mapToLong(Long::longValue).sum();
+        }
+        try {
+            return run(slices, slice).stream().mapToLong(Long::longValue).sum();
+        } finally {
+            release(slices);
+        }
+    }
+
+    /**
+     * Splits each shard into up to parallelism block ranges of at least min-pages-per-slice pages
+     *
+     * @return the slices of all shards, or null if every shard would be read in one piece
+     */
+    private List<Slice> plan() {
+        if (!properties.isEnabled() || properties.getParallelism() < 2) {
+            return null;
+        }
+        final List<Slice> slices = new ArrayList<>();
+        boolean split = false;
+        for (Shard shard : greetingsShards.getShards()) {
+            final int pages = estimatePages(shard);
+            final int parts = Math.clamp(pages / Math.max(1, properties.getMinPagesPerSlice()), 1,
+                    Math.min(properties.getParallelism(), sliceBudget(shard)));
+            split |= parts > 1;
+            final int pagesPerPart = pages / parts;
+            for (int part = 0; part < parts; part++) {
+                slices.add(new Slice(shard,
+                        "(" + (long) part * pagesPerPart + ",0)",
+                        part == parts - 1 ? LAST_TID : "(" + (long) (part + 1) * pagesPerPart + ",0)"));
+            }
+        }
+        log.debug("Planned {} slices: {}", slices.size(), slices);
+        return split ? slices : null;
+    }
+
+    private int estimatePages(Shard shard) {
+        final long now = System.nanoTime();
+        final PageEstimate estimate = pageEstimates.get(shard.name());
+        if (estimate != null && now - estimate.readAt() < properties.getPageEstimateTtl().toNanos()) {
+            return estimate.pages();
+        }
+        final int pages = Math.max(0, shard.readTransactions().execute(status -> shard.repository().estimatePages()));
+        pageEstimates.put(shard.name(), new PageEstimate(pages, now));
+        return pages;
+    }
+
+    /**
+     * Takes one permit per slice from each shard's budget, all or none; shards are visited in a fixed order
+     *
+     * @return false if another query is using too much of a budget, or a shard's pool has fewer idle connections
+     * than slices, so the query should not be split
+     */
+    private boolean acquire(List<Slice> slices) {
+        final Map<Shard, Long> perShard = slicesPerShard(slices);
+        for (Map.Entry<Shard, Long> entry : perShard.entrySet()) {
+            if (entry.getValue() > 1 && idleConnections(entry.getKey()) < entry.getValue()) {
+                log.debug("Not splitting query: pool of shard {} has fewer than {} idle connections",
+                        entry.getKey(), entry.getValue());
+                return false;
+            }
+        }
+        final List<Map.Entry<Shard, Long>> acquired = new ArrayList<>();
+        for (Map.Entry<Shard, Long> entry : perShard.entrySet()) {
+            if (!permits(entry.getKey()).tryAcquire(entry.getValue().intValue())) {
+                acquired.forEach(taken -> permits(taken.getKey()).release(taken.getValue().intValue()));
+                log.debug("Not splitting query: slice budget of shard {} is in use", entry.getKey());
+                return false;
+            }
+            acquired.add(entry);
+        }
+        return true;
+    }
+
+    private void release(List<Slice> slices) {
+        slicesPerShard(slices).forEach((shard, count) -> permits(shard).release(count.intValue()));
+    }
+
+    private static Map<Shard, Long> slicesPerShard(List<Slice> slices) {
+        return slices.stream().collect(Collectors.groupingBy(Slice::shard, LinkedHashMap::new, Collectors.counting()));
+    }
+
+    private Semaphore permits(Shard shard) {
+        return slicePermits.computeIfAbsent(shard.name(), name -> {
+            final int budget = sliceBudget(shard);
+            if (budget < properties.getMaxConcurrentSlices()) {
+                log.warn("Running at most {} slices at once on shard {}: max-concurrent-slices {} exceeds half its pool",
+                        budget, shard, properties.getMaxConcurrentSlices());
+            }
+            return new Semaphore(budget);
+        });
+    }
+
+    /**
+     * max-concurrent-slices, capped at half the shard's pool so split queries cannot take over the pool
+     */
+    private int sliceBudget(Shard shard) {
+        final int poolSize = pool(shard).map(HikariConfigMXBean::getMaximumPoolSize).orElse(0);
+        return Math.max(1, Math.min(properties.getMaxConcurrentSlices(), poolSize / 2));
+    }
+
+    /**
+     * Connections the shard's pool can hand out without waiting; 0 if the pool is not a started Hikari pool
+     */
+    private int idleConnections(Shard shard) {
+        return pool(shard)
+                .map(HikariDataSource::getHikariPoolMXBean)
+                .map(HikariPoolMXBean::getIdleConnections)
+                .orElse(0);
+    }
+
+    private Optional<HikariDataSource> pool(Shard shard) {
+        return pools.computeIfAbsent(shard.name(), name -> Optional.ofNullable(
+                DataSourceUnwrapper.unwrap(shard.dataSource(), HikariConfigMXBean.class, HikariDataSource.class)));
+    }
+
+    /**
+     * Runs all slices concurrently; the first failure cancels the others and is rethrown
+     *
+     * @return one result per slice, in slice order
+     */
+    private <T> List<T> run(List<Slice> slices, SliceQuery<T> query) {
+        // Slices run in the caller's trace context, so their JDBC spans belong to the request
+        try (ExecutorService executor = ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(), CONTEXT_SNAPSHOTS)) {
+            final Map<Shard, SharedSnapshot> snapshots = new HashMap<>();
+            slicesPerShard(slices).forEach((shard, count) -> {
+                if (count > 1) {
+                    snapshots.put(shard, new SharedSnapshot(count.intValue() - 1));
+                }
+            });
+            final List<Future<T>> futures = new ArrayList<>(slices.size());
+            for (Slice slice : slices) {
+                final SharedSnapshot snapshot = snapshots.get(slice.shard());
+                final boolean exporter = snapshot != null && snapshot.claimExport();
+                futures.add(executor.submit(() -> runSlice(slice, query, snapshot, exporter)));
+            }
+            final List<T> results = new ArrayList<>(futures.size());
+            try {
+                for (Future<T> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Slice query failed", e.getCause());
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for slice queries", e);
+            }
+            return results;
+        }
+    }
+
+    private <T> T runSlice(Slice slice, SliceQuery<T> query, SharedSnapshot snapshot, boolean exporter) {
+        final Shard shard = slice.shard();
+        if (snapshot == null) {
+            return shard.readTransactions().execute(status -> query.apply(shard.repository(), slice.fromTid(), slice.toTid()));
+        }
+        try {
+            return snapshotTransactions(shard).execute(status -> {
+                if (exporter) {
+                    snapshot.export(shard.entityManager());
+                    final T result = query.apply(shard.repository(), slice.fromTid(), slice.toTid());
+                    snapshot.awaitImports();
+                    return result;
+                }
+                snapshot.importInto(shard.entityManager());
+                return query.apply(shard.repository(), slice.fromTid(), slice.toTid());
+            });
+        } catch (RuntimeException e) {
+            // E.g. no pool connection for this slice: the query fails, so the other slices of the shard stop waiting
+            snapshot.abandon(e);
+            throw e;
+        }
+    }
+
+    // Snapshots can only be exported from and imported into REPEATABLE READ or SERIALIZABLE transactions
+    private TransactionTemplate snapshotTransactions(Shard shard) {
+        return snapshotTransactions.computeIfAbsent(shard.name(), name -> {
+            final TransactionTemplate template = new TransactionTemplate(shard.readTransactions().getTransactionManager());
+            template.setReadOnly(true);
+            template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            return template;
+        });
+    }
+
+    /**
+     * K-way merge of lists each ordered by creation time
+     */
+    private static List<Greetings> merge(List<List<Greetings>> sorted) {
+        final PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (left, right) -> GreetingsShards.CREATED_AT_ORDER.compare(left.head, right.head));
+        int size = 0;
+        for (List<Greetings> greetings : sorted) {
+            size += greetings.size();
+            final Iterator<Greetings> iterator = greetings.iterator();
+            if (iterator.hasNext()) {
+                cursors.add(new Cursor(iterator));
+            }
+        }
+        final List<Greetings> merged = new ArrayList<>(size);
+        while (!cursors.isEmpty()) {
+            final Cursor cursor = cursors.poll();
+            merged.add(cursor.head);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private record Slice(Shard shard, String fromTid, String toTid) {
+
+        @Override
+        public String toString() {
+            return shard + fromTid + "-" + toTid;
+        }
+    }
+
+    private record PageEstimate(int pages, long readAt) {
+    }
+
+    /**
+     * The snapshot shared by the slices of one shard, exported by the first slice and imported by the others
+     */
+    private static final class SharedSnapshot {
+
+        private final CompletableFuture<String> id = new CompletableFuture<>();
+        private final CountDownLatch imports;
+        private final AtomicBoolean exportClaimed = new AtomicBoolean();
+
+        private SharedSnapshot(int importers) {
+            this.imports = new CountDownLatch(importers);
+        }
+
+        private boolean claimExport() {
+            return exportClaimed.compareAndSet(false, true);
+        }
+
+        private void export(EntityManager entityManager) {
+            try {
+                id.complete((String) entityManager.createNativeQuery("SELECT pg_export_snapshot()").getSingleResult());
+            } catch (RuntimeException e) {
+                id.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        /**
+         * Must be the first statement of the importing transaction
+         */
+        private void importInto(EntityManager entityManager) {
+            try {
+                final String snapshotId;
+                try {
+                    snapshotId = id.get(SNAPSHOT_IMPORT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the slice snapshot", e);
+                } catch (ExecutionException | TimeoutException e) {
+                    throw new IllegalStateException("Slice snapshot was not exported", e);
+                }
+                // An identifier returned by pg_export_snapshot(), which cannot be a bind parameter here
+                entityManager.createNativeQuery("SET TRANSACTION SNAPSHOT '" + snapshotId + "'").executeUpdate();
+            } finally {
+                imports.countDown();
+            }
+        }
+
+        /**
+         * Releases the exporter and the importers still waiting for the snapshot
+         */
+        private void abandon(RuntimeException cause) {
+            id.completeExceptionally(cause);
+            while (imports.getCount() > 0) {
+                imports.countDown();
+            }
+        }
+
+        private void awaitImports() {
+            try {
+                if (!imports.await(SNAPSHOT_IMPORT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Slices did not import the snapshot within " + SNAPSHOT_IMPORT_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for slices to import the snapshot", e);
+            }
+        }
+    }
+
+    private static final class Cursor {
+
+        private final Iterator<Greetings> iterator;
+        private Greetings head;
+
+        private Cursor(Iterator<Greetings> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            head = iterator.next();
+            return true;
+        }
+    }
+}
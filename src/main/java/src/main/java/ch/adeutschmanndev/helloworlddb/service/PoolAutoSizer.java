@@ -0,0 +1,78 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.PoolAutoSizingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically resizes the Hikari pool within configured bounds
+ * Grows when requests wait for connections, shrinks when most connections sit idle
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PoolAutoSizer {
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final PoolAutoSizingProperties properties;
+
+    private long lastAcquireCount;
+    private double lastAcquireTotalMillis;
+
+    @Scheduled(fixedDelayString = "${helloworld.pool-autosizing.interval:10s}")
+    public void resize() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        final HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari == null || hikari.getHikariPoolMXBean() == null) {
+            return;
+        }
+
+        final HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        final int currentMax = hikari.getMaximumPoolSize();
+        final double meanAcquireMillis = meanAcquireMillisSinceLastRun(hikari.getPoolName());
+        final int waiting = pool.getThreadsAwaitingConnection();
+        final double utilisation = pool.getTotalConnections() == 0
+                ? 0 : (double) pool.getActiveConnections() / pool.getTotalConnections();
+
+        int newMax = currentMax;
+        if (waiting > 0 || meanAcquireMillis > properties.getTargetAcquireTime().toMillis()) {
+            newMax = Math.min(currentMax + properties.getStep(), properties.getMaxPoolSize());
+        } else if (utilisation < properties.getShrinkUtilisation()) {
+            newMax = Math.max(currentMax - properties.getStep(), properties.getMinPoolSize());
+        }
+
+        if (newMax != currentMax) {
+            log.info("Resizing connection pool from {} to {} (waiting: {}, mean acquire: {} ms, utilisation: {})",
+                    currentMax, newMax, waiting, String.format("%.2f", meanAcquireMillis), String.format("%.2f", utilisation));
+            hikari.getHikariConfigMXBean().setMaximumPoolSize(newMax);
+            hikari.getHikariConfigMXBean().setMinimumIdle(Math.min(hikari.getMinimumIdle(), newMax));
+        }
+    }
+
+    private double meanAcquireMillisSinceLastRun(String poolName) {
+        final Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+        if (acquire == null) {
+            return 0;
+        }
+        final long count = acquire.count();
+        final double totalMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+        final long deltaCount = count - lastAcquireCount;
+        final double deltaMillis = totalMillis - lastAcquireTotalMillis;
+        lastAcquireCount = count;
+        lastAcquireTotalMillis = totalMillis;
+        return deltaCount > 0 ? deltaMillis / deltaCount : 0;
+    }
+}
@@ -0,0 +1,160 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets for the configured routes
+ * Each bucket is a single atomic timestamp (generic cell rate algorithm), so acquiring a permit is one map
+ * lookup plus one compare-and-set; idle buckets are swept periodically and the map size is bounded
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final List<LimitedRoute> routes;
+    private final ConcurrentHashMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new LimitedRoute(route, meterRegistry))
+                .toList();
+        Gauge.builder("greetings.ratelimit.clients", buckets, ConcurrentHashMap::size)
+                .description("Client buckets currently held by the rate limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds the first configured route matching the request, or null if the request is not limited
+     */
+    public LimitedRoute match(String method, PathContainer path) {
+        for (LimitedRoute route : routes) {
+            if (route.matches(method, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes one permit from the client's bucket for the given route
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the next permit is available
+     */
+    public long tryAcquire(LimitedRoute route, String client) {
+        final long now = System.nanoTime();
+        final BucketKey key = new BucketKey(route.name, client);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < properties.getMaxClients()
+                    ? buckets.computeIfAbsent(key, k -> new Bucket(now))
+                    : route.overflow;
+        }
+
+        final long wait = bucket.tryAcquire(now, route.emissionIntervalNanos, route.burstNanos);
+        (wait == 0 ? route.allowed : route.throttled).increment();
+        return wait;
+    }
+
+    @Scheduled(fixedDelayString = "${helloworld.rate-limit.sweep-interval:1m}")
+    public void sweepIdleBuckets() {
+        final long now = System.nanoTime();
+        final long idleNanos = properties.getIdleTimeout().toNanos();
+        final int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdleSince(now, idleNanos));
+        if (before != buckets.size()) {
+            log.debug("Swept {} idle rate-limit buckets, {} remaining", before - buckets.size(), buckets.size());
+        }
+    }
+
+    private record BucketKey(String route, String client) {
+    }
+
+    /**
+     * A configured route with its precomputed bucket parameters and meters
+     */
+    public static final class LimitedRoute {
+
+        private final String name;
+        private final String method;
+        private final PathPattern pattern;
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final Bucket overflow;
+        private final Counter allowed;
+        private final Counter throttled;
+
+        private LimitedRoute(RateLimitProperties.Route route, MeterRegistry meterRegistry) {
+            this.name = route.getName();
+            this.method = StringUtils.hasText(route.getMethod()) ? route.getMethod().toUpperCase() : null;
+            this.pattern = PathPatternParser.defaultInstance.parse(route.getPath());
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / route.getRefillPerSecond());
+            this.burstNanos = emissionIntervalNanos * route.getCapacity();
+            this.overflow = new Bucket(System.nanoTime());
+            this.allowed = counter(meterRegistry, "allowed");
+            this.throttled = counter(meterRegistry, "throttled");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private boolean matches(String requestMethod, PathContainer path) {
+            return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+        }
+
+        private Counter counter(MeterRegistry meterRegistry, String result) {
+            return Counter.builder("greetings.ratelimit.requests")
+                    .description("Requests checked by the rate limiter")
+                    .tag("route", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Token bucket stored as its theoretical arrival time: the instant at which the bucket would be full again
+     */
+    private static final class Bucket {
+
+        private final AtomicLong theoreticalArrival;
+
+        private Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        private long tryAcquire(long now, long emissionInterval, long burst) {
+            while (true) {
+                final long tat = theoreticalArrival.get();
+                final long next = Math.max(tat, now) + emissionInterval;
+                final long wait = next - now - burst;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private boolean isIdleSince(long now, long idleNanos) {
+            return now - theoreticalArrival.get() > idleNanos;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ch.adeutschmanndev.helloworlddb.service;
+
+import ch.adeutschmanndev.helloworlddb.config.RetentionProperties;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsArchiveRepository;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsArchiveRepository.ArchivedGreeting;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards.Shard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves greetings older than the retention age into the archive table of their shard
+ * Each batch is one short transaction starting from a created_at keyset position; batches are separated by a pause
+ * and a run is bounded per shard, so the purge never holds many locks or competes long with foreground requests.
+ * Shards are purged one after another
+ */
+@Component
+@Slf4j
+public class RetentionJob {
+
+    private final GreetingsArchiveRepository archiveRepository;
+    private final GreetingsShards greetingsShards;
+    private final RetentionProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LatestGreetingsIndex latestGreetingsIndex;
+    private final Counter archivedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong eligible = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public RetentionJob(GreetingsArchiveRepository archiveRepository,
+                        GreetingsShards greetingsShards,
+                        RetentionProperties properties,
+                        EntityManagerFactory entityManagerFactory,
+                        LatestGreetingsIndex latestGreetingsIndex,
+                        MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.greetingsShards = greetingsShards;
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.latestGreetingsIndex = latestGreetingsIndex;
+        this.archivedCounter = Counter.builder("greetings.retention.archived")
+                .description("Greetings moved to the archive table")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("greetings.retention.batch")
+                .description("Duration of one archive batch")
+                .register(meterRegistry);
+        Gauge.builder("greetings.retention.eligible", eligible, AtomicLong::get)
+                .description("Greetings past the retention age on all shards at the start of the last run")
+                .register(meterRegistry);
+        Gauge.builder("greetings.retention.lag", lagSeconds, AtomicLong::get)
+                .description("Seconds the oldest greeting on any shard is past the retention age")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${helloworld.retention.interval:1h}", initialDelayString = "${helloworld.retention.interval:1h}")
+    public void run() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        final LocalDateTime cutoff = LocalDateTime.now().minus(properties.getMaxAge());
+        long eligibleOnShards = 0;
+        long lagOnShards = 0;
+        for (Shard shard : greetingsShards.getShards()) {
+            try {
+                final Outcome outcome = run(shard, cutoff);
+                eligibleOnShards += outcome.eligible();
+                lagOnShards = Math.max(lagOnShards, outcome.lagSeconds());
+            } catch (RuntimeException e) {
+                log.error("Retention run on shard {} failed: {}", shard, e.getMessage(), e);
+            }
+        }
+        eligible.set(eligibleOnShards);
+        lagSeconds.set(lagOnShards);
+    }
+
+    private Outcome run(Shard shard, LocalDateTime cutoff) {
+        final Optional<LocalDateTime> oldest = archiveRepository.findOldestCreatedAt(shard);
+        if (oldest.isEmpty() || !oldest.get().isBefore(cutoff)) {
+            return new Outcome(0, 0);
+        }
+
+        final long eligibleOnShard = archiveRepository.countBefore(shard, cutoff);
+        if (properties.isDryRun()) {
+            log.info("Retention dry run: {} greetings on shard {} created before {} would be archived",
+                    eligibleOnShard, shard, cutoff);
+            return new Outcome(eligibleOnShard, lag(oldest, cutoff));
+        }
+        archive(shard, oldest.get(), cutoff);
+        return new Outcome(eligibleOnShard, lag(archiveRepository.findOldestCreatedAt(shard), cutoff));
+    }
+
+    private void archive(Shard shard, LocalDateTime oldest, LocalDateTime cutoff) {
+        LocalDateTime after = oldest;
+        long archived = 0;
+        for (int batches = 0; batches < properties.getMaxBatchesPerRun(); batches++) {
+            final LocalDateTime from = after;
+            final List<ArchivedGreeting> batch = batchTimer.record(() -> shard.writeTransactions().execute(status ->
+                    archiveRepository.archiveBatch(shard, from, cutoff, properties.getBatchSize())));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            evictFromCache(batch);
+            archivedCounter.increment(batch.size());
+            archived += batch.size();
+            after = batch.stream().map(ArchivedGreeting::createdAt).max(Comparator.naturalOrder()).orElseThrow();
+            log.debug("Archived {} greetings on shard {} created up to {}", batch.size(), shard, after);
+
+            if (batch.size() < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+        log.info("Archived {} greetings on shard {} created before {}", archived, shard, cutoff);
+    }
+
+    /**
+     * Hibernate and the latest greeting index do not see the JDBC delete, so they would still return archived greetings
+     */
+    private void evictFromCache(List<ArchivedGreeting> batch) {
+        final Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        batch.forEach(greeting -> cache.evictEntityData(Greetings.class, greeting.id()));
+        cache.evictQueryRegions();
+        latestGreetingsIndex.forgetGreetings(batch.stream().map(ArchivedGreeting::id).toList());
+    }
+
+    private static long lag(Optional<LocalDateTime> oldest, LocalDateTime cutoff) {
+        return oldest
+                .filter(createdAt -> createdAt.isBefore(cutoff))
+                .map(createdAt -> Duration.between(createdAt, cutoff).toSeconds())
+                .orElse(0L);
+    }
+
+    /**
+     * @return false if the thread was interrupted, e.g. on shutdown
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Greetings past the retention age on one shard at the start of a run, and the lag left after it
+     */
+    private record Outcome(long eligible, long lagSeconds) {
+    }
+}
@@ -0,0 +1,153 @@
+-- Flyway Migration V2: Conversations
+-- Normalized sender/recipient pair key, thread index and incrementally maintained conversation summaries
+
+-- Normalized pair key: the same two participants map to the same key regardless of direction
+ALTER TABLE helloworld.greetings
+    ADD COLUMN participant_low  VARCHAR(100) GENERATED ALWAYS AS (LEAST(sender, recipient)) STORED,
+    ADD COLUMN participant_high VARCHAR(100) GENERATED ALWAYS AS (GREATEST(sender, recipient)) STORED;
+
+-- A conversation thread page is a single range scan on this index
+CREATE INDEX idx_greetings_conversation
+    ON helloworld.greetings (participant_low, participant_high, created_at DESC, id DESC);
+
+-- One summary row per conversation
+CREATE TABLE helloworld.conversations
+(
+    participant_low  VARCHAR(100) NOT NULL,
+    participant_high VARCHAR(100) NOT NULL,
+    message_count    BIGINT       NOT NULL,
+    last_greeting_id UUID         NOT NULL,
+    last_message     VARCHAR(500) NOT NULL,
+    last_sender      VARCHAR(100),
+    last_activity    TIMESTAMP    NOT NULL,
+    PRIMARY KEY (participant_low, participant_high)
+);
+
+-- "My conversations" by last activity, for either side of the pair
+CREATE INDEX idx_conversations_low_activity ON helloworld.conversations (participant_low, last_activity DESC);
+CREATE INDEX idx_conversations_high_activity ON helloworld.conversations (participant_high, last_activity DESC);
+
+-- Backfill summaries from existing greetings
+INSERT INTO helloworld.conversations (participant_low, participant_high, message_count,
+                                      last_greeting_id, last_message, last_sender, last_activity)
+SELECT latest.participant_low,
+       latest.participant_high,
+       counts.message_count,
+       latest.id,
+       latest.message,
+       latest.sender,
+       latest.created_at
+FROM (SELECT DISTINCT ON (participant_low, participant_high) participant_low, participant_high,
+                                                             id, message, sender, created_at
+      FROM helloworld.greetings
+      WHERE participant_low IS NOT NULL
+      ORDER BY participant_low, participant_high, created_at DESC, id DESC) latest
+         JOIN (SELECT participant_low, participant_high, COUNT(*) AS message_count
+               FROM helloworld.greetings
+               WHERE participant_low IS NOT NULL
+               GROUP BY participant_low, participant_high) counts
+              ON counts.participant_low = latest.participant_low
+                  AND counts.participant_high = latest.participant_high;
+
+-- Adds a greeting to its conversation summary
+CREATE
+OR REPLACE FUNCTION helloworld.conversation_add(greeting helloworld.greetings)
+RETURNS VOID AS $$
+BEGIN
+    IF greeting.participant_low IS NULL THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO helloworld.conversations AS conversation (participant_low, participant_high, message_count,
+                                                          last_greeting_id, last_message, last_sender, last_activity)
+    VALUES (greeting.participant_low, greeting.participant_high, 1,
+            greeting.id, greeting.message, greeting.sender, greeting.created_at)
+    ON CONFLICT (participant_low, participant_high) DO UPDATE
+        SET message_count    = conversation.message_count + 1,
+            last_greeting_id = CASE WHEN EXCLUDED.last_activity >= conversation.last_activity
+                                    THEN EXCLUDED.last_greeting_id ELSE conversation.last_greeting_id END,
+            last_message     = CASE WHEN EXCLUDED.last_activity >= conversation.last_activity
+                                    THEN EXCLUDED.last_message ELSE conversation.last_message END,
+            last_sender      = CASE WHEN EXCLUDED.last_activity >= conversation.last_activity
+                                    THEN EXCLUDED.last_sender ELSE conversation.last_sender END,
+            last_activity    = GREATEST(EXCLUDED.last_activity, conversation.last_activity);
+END;
+$$
+language 'plpgsql';
+
+-- Removes a greeting from its conversation summary, falling back to the thread index for the new latest message
+CREATE
+OR REPLACE FUNCTION helloworld.conversation_remove(greeting helloworld.greetings)
+RETURNS VOID AS $$
+DECLARE
+    remaining BIGINT;
+    latest    RECORD;
+BEGIN
+    IF greeting.participant_low IS NULL THEN
+        RETURN;
+    END IF;
+
+    UPDATE helloworld.conversations
+    SET message_count = message_count - 1
+    WHERE participant_low = greeting.participant_low
+      AND participant_high = greeting.participant_high
+    RETURNING message_count INTO remaining;
+
+    IF remaining IS NULL THEN
+        RETURN;
+    ELSIF remaining <= 0 THEN
+        DELETE FROM helloworld.conversations
+        WHERE participant_low = greeting.participant_low
+          AND participant_high = greeting.participant_high;
+        RETURN;
+    END IF;
+
+    SELECT id, message, sender, created_at INTO latest
+    FROM helloworld.greetings
+    WHERE participant_low = greeting.participant_low
+      AND participant_high = greeting.participant_high
+    ORDER BY created_at DESC, id DESC
+    LIMIT 1;
+
+    UPDATE helloworld.conversations
+    SET last_greeting_id = latest.id,
+        last_message     = latest.message,
+        last_sender      = latest.sender,
+        last_activity    = latest.created_at
+    WHERE participant_low = greeting.participant_low
+      AND participant_high = greeting.participant_high
+      AND last_greeting_id = greeting.id;
+END;
+$$
+language 'plpgsql';
+
+CREATE
+OR REPLACE FUNCTION helloworld.maintain_conversations()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM helloworld.conversation_add(NEW);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM helloworld.conversation_remove(OLD);
+    ELSIF OLD.participant_low IS DISTINCT FROM NEW.participant_low
+        OR OLD.participant_high IS DISTINCT FROM NEW.participant_high THEN
+        PERFORM helloworld.conversation_remove(OLD);
+        PERFORM helloworld.conversation_add(NEW);
+    ELSE
+        UPDATE helloworld.conversations
+        SET last_message = NEW.message,
+            last_sender  = NEW.sender
+        WHERE participant_low = NEW.participant_low
+          AND participant_high = NEW.participant_high
+          AND last_greeting_id = NEW.id;
+    END IF;
+    RETURN NULL;
+END;
+$$
+language 'plpgsql';
+
+CREATE TRIGGER maintain_greetings_conversations
+    AFTER INSERT OR UPDATE OR DELETE
+    ON helloworld.greetings
+    FOR EACH ROW
+    EXECUTE FUNCTION helloworld.maintain_conversations();
@@ -0,0 +1,43 @@
+-- Flyway Migration V3: Analytics rollups
+-- Pre-aggregated tables maintained incrementally by AnalyticsRollupJob off idx_greetings_created_at
+
+-- Greeting volume per time bucket and granularity (minute, hour, day)
+CREATE TABLE helloworld.greetings_volume_rollup
+(
+    granularity    VARCHAR(10) NOT NULL,
+    bucket         TIMESTAMP   NOT NULL,
+    greeting_count BIGINT      NOT NULL,
+    PRIMARY KEY (granularity, bucket)
+);
+
+-- Greetings per sender / recipient, top-N is an index scan on the count
+CREATE TABLE helloworld.greetings_sender_rollup
+(
+    sender         VARCHAR(100) PRIMARY KEY,
+    greeting_count BIGINT NOT NULL
+);
+CREATE INDEX idx_greetings_sender_rollup_count ON helloworld.greetings_sender_rollup (greeting_count DESC);
+
+CREATE TABLE helloworld.greetings_recipient_rollup
+(
+    recipient      VARCHAR(100) PRIMARY KEY,
+    greeting_count BIGINT NOT NULL
+);
+CREATE INDEX idx_greetings_recipient_rollup_count ON helloworld.greetings_recipient_rollup (greeting_count DESC);
+
+-- Message length distribution, buckets identified by their lower bound
+CREATE TABLE helloworld.greetings_length_rollup
+(
+    min_length     INTEGER PRIMARY KEY,
+    greeting_count BIGINT NOT NULL
+);
+
+-- How far the rollups have consumed greetings.created_at
+CREATE TABLE helloworld.analytics_watermark
+(
+    name            VARCHAR(50) PRIMARY KEY,
+    processed_until TIMESTAMP NOT NULL
+);
+
+INSERT INTO helloworld.analytics_watermark (name, processed_until)
+VALUES ('greetings', TIMESTAMP '-infinity');
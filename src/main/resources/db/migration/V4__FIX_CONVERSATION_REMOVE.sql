@@ -0,0 +1,52 @@
+-- Flyway Migration V4: Fix conversation_remove for multi-row deletes
+-- Row triggers of a DELETE run after all its rows are gone, so the latest remaining greeting may not exist yet
+
+CREATE
+OR REPLACE FUNCTION helloworld.conversation_remove(greeting helloworld.greetings)
+RETURNS VOID AS $$
+DECLARE
+    remaining BIGINT;
+    latest    RECORD;
+BEGIN
+    IF greeting.participant_low IS NULL THEN
+        RETURN;
+    END IF;
+
+    UPDATE helloworld.conversations
+    SET message_count = message_count - 1
+    WHERE participant_low = greeting.participant_low
+      AND participant_high = greeting.participant_high
+    RETURNING message_count INTO remaining;
+
+    IF remaining IS NULL THEN
+        RETURN;
+    ELSIF remaining <= 0 THEN
+        DELETE FROM helloworld.conversations
+        WHERE participant_low = greeting.participant_low
+          AND participant_high = greeting.participant_high;
+        RETURN;
+    END IF;
+
+    SELECT id, message, sender, created_at INTO latest
+    FROM helloworld.greetings
+    WHERE participant_low = greeting.participant_low
+      AND participant_high = greeting.participant_high
+    ORDER BY created_at DESC, id DESC
+    LIMIT 1;
+
+    -- A multi-row DELETE has already removed the rows whose triggers have not fired yet; those bring the count to 0
+    IF NOT FOUND THEN
+        RETURN;
+    END IF;
+
+    UPDATE helloworld.conversations
+    SET last_greeting_id = latest.id,
+        last_message     = latest.message,
+        last_sender      = latest.sender,
+        last_activity    = latest.created_at
+    WHERE participant_low = greeting.participant_low
+      AND participant_high = greeting.participant_high
+      AND last_greeting_id = greeting.id;
+END;
+$$
+language 'plpgsql';
@@ -0,0 +1,44 @@
+-- Flyway Migration V5: Statement-level conversation maintenance for inserts
+-- A multi-row INSERT (e.g. a bulk import) now upserts each conversation once instead of once per greeting
+
+CREATE
+OR REPLACE FUNCTION helloworld.conversations_add_inserted()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO helloworld.conversations AS conversation (participant_low, participant_high, message_count,
+                                                          last_greeting_id, last_message, last_sender, last_activity)
+    SELECT DISTINCT ON (participant_low, participant_high)
+           participant_low, participant_high, COUNT(*) OVER (PARTITION BY participant_low, participant_high),
+           id, message, sender, created_at
+    FROM inserted
+    WHERE participant_low IS NOT NULL
+    ORDER BY participant_low, participant_high, created_at DESC, id DESC
+    ON CONFLICT (participant_low, participant_high) DO UPDATE
+        SET message_count    = conversation.message_count + EXCLUDED.message_count,
+            last_greeting_id = CASE WHEN EXCLUDED.last_activity >= conversation.last_activity
+                                    THEN EXCLUDED.last_greeting_id ELSE conversation.last_greeting_id END,
+            last_message     = CASE WHEN EXCLUDED.last_activity >= conversation.last_activity
+                                    THEN EXCLUDED.last_message ELSE conversation.last_message END,
+            last_sender      = CASE WHEN EXCLUDED.last_activity >= conversation.last_activity
+                                    THEN EXCLUDED.last_sender ELSE conversation.last_sender END,
+            last_activity    = GREATEST(EXCLUDED.last_activity, conversation.last_activity);
+    RETURN NULL;
+END;
+$$
+language 'plpgsql';
+
+-- Updates and deletes keep the row-level trigger from V2
+DROP TRIGGER maintain_greetings_conversations ON helloworld.greetings;
+
+CREATE TRIGGER maintain_greetings_conversations
+    AFTER UPDATE OR DELETE
+    ON helloworld.greetings
+    FOR EACH ROW
+    EXECUTE FUNCTION helloworld.maintain_conversations();
+
+CREATE TRIGGER add_inserted_greetings_conversations
+    AFTER INSERT
+    ON helloworld.greetings
+    REFERENCING NEW TABLE AS inserted
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION helloworld.conversations_add_inserted();
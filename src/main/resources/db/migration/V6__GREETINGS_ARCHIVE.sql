@@ -0,0 +1,15 @@
+-- Flyway Migration V6: Greetings archive
+-- RetentionJob moves greetings past the retention age here, one row per purge batch. The batch is stored as a jsonb
+-- array, which TOAST compresses; restore with jsonb_populate_recordset(NULL::helloworld.greetings, greetings)
+
+CREATE TABLE helloworld.greetings_archive
+(
+    id               BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    archived_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    first_created_at TIMESTAMP NOT NULL,
+    last_created_at  TIMESTAMP NOT NULL,
+    greeting_count   INTEGER   NOT NULL,
+    greetings        JSONB     NOT NULL
+);
+
+CREATE INDEX idx_greetings_archive_created_at ON helloworld.greetings_archive (first_created_at, last_created_at);
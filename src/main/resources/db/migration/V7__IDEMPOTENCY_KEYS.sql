@@ -0,0 +1,14 @@
+-- Flyway Migration V7: Idempotency keys
+-- Responses of create requests sent with an Idempotency-Key header, replayed when the key is sent again.
+-- The key is reserved before the greeting is written, so a concurrent retry waits on the primary key instead of
+-- writing a duplicate; rows older than helloworld.idempotency.ttl are deleted by IdempotencyService
+
+CREATE TABLE helloworld.idempotency_keys
+(
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash    CHAR(64)  NOT NULL,
+    response        TEXT,
+    created_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON helloworld.idempotency_keys (created_at);
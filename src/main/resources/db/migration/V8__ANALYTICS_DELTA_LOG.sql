@@ -0,0 +1,82 @@
+-- Flyway Migration V8: Analytics delta log
+-- Statement-level triggers log every change to greetings as signed rows; AnalyticsRollupJob drains the log into the
+-- rollups. Draining by DELETE ... RETURNING only sees committed changes, so a slow transaction is picked up once it
+-- commits instead of being skipped by a created_at watermark, and updates, deletes and archiving are reflected
+
+CREATE TABLE helloworld.greetings_rollup_delta
+(
+    id             BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    created_at     TIMESTAMP NOT NULL,
+    sender         VARCHAR(100),
+    recipient      VARCHAR(100),
+    message_length INTEGER   NOT NULL,
+    -- +1 for a greeting added to the rollups, -1 for one removed from them
+    sign           SMALLINT  NOT NULL
+);
+
+CREATE
+OR REPLACE FUNCTION helloworld.log_greetings_rollup_delta()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO helloworld.greetings_rollup_delta (created_at, sender, recipient, message_length, sign)
+        SELECT created_at, sender, recipient, char_length(message), 1
+        FROM added;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO helloworld.greetings_rollup_delta (created_at, sender, recipient, message_length, sign)
+        SELECT created_at, sender, recipient, char_length(message), -1
+        FROM removed;
+    ELSE
+        -- Only updates that move a greeting to other buckets are logged, as a removal plus an addition
+        INSERT INTO helloworld.greetings_rollup_delta (created_at, sender, recipient, message_length, sign)
+        SELECT changed.created_at, changed.sender, changed.recipient, changed.message_length, changed.sign
+        FROM removed
+                 JOIN added ON added.id = removed.id
+                 CROSS JOIN LATERAL (VALUES (removed.created_at, removed.sender, removed.recipient,
+                                             char_length(removed.message), -1),
+                                            (added.created_at, added.sender, added.recipient,
+                                             char_length(added.message), 1))
+            AS changed(created_at, sender, recipient, message_length, sign)
+        WHERE (removed.created_at, removed.sender, removed.recipient, char_length(removed.message))
+                  IS DISTINCT FROM (added.created_at, added.sender, added.recipient, char_length(added.message));
+    END IF;
+    RETURN NULL;
+END;
+$$
+language 'plpgsql';
+
+-- Transition tables allow a single event per trigger
+CREATE TRIGGER log_inserted_greetings_rollup_delta
+    AFTER INSERT
+    ON helloworld.greetings
+    REFERENCING NEW TABLE AS added
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION helloworld.log_greetings_rollup_delta();
+
+CREATE TRIGGER log_updated_greetings_rollup_delta
+    AFTER UPDATE
+    ON helloworld.greetings
+    REFERENCING OLD TABLE AS removed NEW TABLE AS added
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION helloworld.log_greetings_rollup_delta();
+
+CREATE TRIGGER log_deleted_greetings_rollup_delta
+    AFTER DELETE
+    ON helloworld.greetings
+    REFERENCING OLD TABLE AS removed
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION helloworld.log_greetings_rollup_delta();
+
+-- The insert-only rollups have drifted from the greetings they describe: rebuild them from the current rows.
+-- Creating the triggers locked greetings against writes until this migration commits, so no change is lost
+TRUNCATE helloworld.greetings_volume_rollup, helloworld.greetings_sender_rollup,
+    helloworld.greetings_recipient_rollup, helloworld.greetings_length_rollup;
+
+INSERT INTO helloworld.greetings_rollup_delta (created_at, sender, recipient, message_length, sign)
+SELECT created_at, sender, recipient, char_length(message), 1
+FROM helloworld.greetings
+ORDER BY created_at;
+
+UPDATE helloworld.analytics_watermark
+SET processed_until = TIMESTAMP '-infinity'
+WHERE name = 'greetings';
@@ -0,0 +1,10 @@
+-- Flyway Migration V1.1, additional shards only (see ShardingConfig): remove the sample greetings of V1
+-- They belong to the primary; on every other shard they would be duplicates in scatter-gather results
+
+DELETE
+FROM helloworld.greetings
+WHERE (message, sender, recipient) IN (('Hello World!', 'system', 'everyone'),
+                                       ('Welcome to the Hello World API', 'admin', 'users'),
+                                       ('Good morning!', 'alice', 'bob'),
+                                       ('How are you doing?', 'bob', 'alice'),
+                                       ('Have a great day!', 'system', 'all_users'));
@@ -0,0 +1,13 @@
+-- Flyway Migration V8.1, additional shards only (see ShardingConfig): stop maintaining conversations and the
+-- analytics delta log
+-- Both are read on the primary only (AnalyticsRollupJob drains the primary's log, conversations and analytics are
+-- unavailable while sharding is enabled), so on a shard the triggers only cost writes and grow the delta log
+
+DROP TRIGGER IF EXISTS maintain_greetings_conversations ON helloworld.greetings;
+DROP TRIGGER IF EXISTS add_inserted_greetings_conversations ON helloworld.greetings;
+
+DROP TRIGGER IF EXISTS log_inserted_greetings_rollup_delta ON helloworld.greetings;
+DROP TRIGGER IF EXISTS log_updated_greetings_rollup_delta ON helloworld.greetings;
+DROP TRIGGER IF EXISTS log_deleted_greetings_rollup_delta ON helloworld.greetings;
+
+TRUNCATE helloworld.greetings_rollup_delta, helloworld.conversations;
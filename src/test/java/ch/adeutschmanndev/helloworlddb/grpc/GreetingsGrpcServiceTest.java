@@ -0,0 +1,165 @@
+package ch.adeutschmanndev.helloworlddb.grpc;
+
+import ch.adeutschmanndev.helloworlddb.grpc.proto.BulkCreateGreetingsResponse;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.CreateGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.DeleteGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GetGreetingRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.Greeting;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.GreetingsServiceGrpc;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.ListGreetingsByRecipientRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.ListGreetingsBySenderRequest;
+import ch.adeutschmanndev.helloworlddb.grpc.proto.UpdateGreetingRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Smoke test of the unary and streaming RPCs over an in-process transport, against a PostgreSQL container
+ * The network server is disabled; the service runs behind the same limit interceptor as in GrpcServerLifecycle
+ */
+@SpringBootTest(properties = "helloworld.grpc.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+class GreetingsGrpcServiceTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private GreetingsGrpcService greetingsGrpcService;
+
+    @Autowired
+    private GrpcLimitInterceptor limitInterceptor;
+
+    private Server server;
+    private ManagedChannel channel;
+    private GreetingsServiceGrpc.GreetingsServiceBlockingStub blocking;
+    private GreetingsServiceGrpc.GreetingsServiceStub async;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        final String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(greetingsGrpcService, limitInterceptor))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        blocking = GreetingsServiceGrpc.newBlockingStub(channel).withDeadlineAfter(30, TimeUnit.SECONDS);
+        async = GreetingsServiceGrpc.newStub(channel).withDeadlineAfter(30, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void unaryCallsCreateReadUpdateAndDelete() {
+        final Greeting created = blocking.createGreeting(CreateGreetingRequest.newBuilder()
+                .setMessage("Hello").setSender("alice").setRecipient("bob").build());
+        assertThat(created.getId()).isNotEmpty();
+        assertThat(created.hasCreatedAt()).isTrue();
+
+        assertThat(blocking.getGreeting(GetGreetingRequest.newBuilder().setId(created.getId()).build()))
+                .isEqualTo(created);
+
+        final Greeting updated = blocking.updateGreeting(UpdateGreetingRequest.newBuilder()
+                .setId(created.getId()).setMessage("Hello again").setSender("alice").setRecipient("bob").build());
+        assertThat(updated.getMessage()).isEqualTo("Hello again");
+
+        blocking.deleteGreeting(DeleteGreetingRequest.newBuilder().setId(created.getId()).build());
+        assertThatThrownBy(() -> blocking.getGreeting(GetGreetingRequest.newBuilder().setId(created.getId()).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+    }
+
+    @Test
+    void unaryCallsRejectInvalidRequests() {
+        assertThatThrownBy(() -> blocking.getGreeting(GetGreetingRequest.newBuilder().setId("not-a-uuid").build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+        assertThatThrownBy(() -> blocking.createGreeting(CreateGreetingRequest.newBuilder().setMessage("").build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+    }
+
+    @Test
+    void serverStreamingListsEveryGreeting() {
+        final String sender = "sender-" + UUID.randomUUID();
+        final String recipient = "recipient-" + UUID.randomUUID();
+        final List<String> ids = IntStream.range(0, 3)
+                .mapToObj(i -> blocking.createGreeting(CreateGreetingRequest.newBuilder()
+                        .setMessage("Hello " + i).setSender(sender).setRecipient(recipient).build()).getId())
+                .toList();
+
+        final List<String> bySender = idsOf(() -> blocking.listGreetingsBySender(
+                ListGreetingsBySenderRequest.newBuilder().setSender(sender).build()));
+        assertThat(bySender).containsExactlyInAnyOrderElementsOf(ids);
+
+        final List<String> byRecipient = idsOf(() -> blocking.listGreetingsByRecipient(
+                ListGreetingsByRecipientRequest.newBuilder().setRecipient(recipient).build()));
+        assertThat(byRecipient).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void clientStreamingCreatesEveryGreeting() throws Exception {
+        final String sender = "bulk-" + UUID.randomUUID();
+        final CompletableFuture<BulkCreateGreetingsResponse> response = new CompletableFuture<>();
+        final StreamObserver<CreateGreetingRequest> requests = async.bulkCreateGreetings(new StreamObserver<>() {
+            @Override
+            public void onNext(BulkCreateGreetingsResponse value) {
+                response.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                response.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        for (int i = 0; i < 1_200; i++) {
+            requests.onNext(CreateGreetingRequest.newBuilder().setMessage("Bulk " + i).setSender(sender).build());
+        }
+        requests.onCompleted();
+
+        assertThat(response.get(30, TimeUnit.SECONDS).getGreetingsCreated()).isEqualTo(1_200);
+        assertThat(idsOf(() -> blocking.listGreetingsBySender(
+                ListGreetingsBySenderRequest.newBuilder().setSender(sender).build()))).hasSize(1_200);
+    }
+
+    private static List<String> idsOf(Supplier<Iterator<Greeting>> call) {
+        final List<String> ids = new ArrayList<>();
+        call.get().forEachRemaining(greeting -> ids.add(greeting.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,226 @@
+package ch.adeutschmanndev.helloworlddb.repository;
+
+import ch.adeutschmanndev.helloworlddb.exception.UnavailableWhileShardedException;
+import ch.adeutschmanndev.helloworlddb.model.entity.Greetings;
+import ch.adeutschmanndev.helloworlddb.repository.GreetingsShards.Shard;
+import ch.adeutschmanndev.helloworlddb.service.AnalyticsService;
+import ch.adeutschmanndev.helloworlddb.service.ConversationsService;
+import ch.adeutschmanndev.helloworlddb.service.GreetingsService;
+import ch.adeutschmanndev.helloworlddb.service.RetentionJob;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.Lifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routing and merged reads over three shards: the primary and two additional PostgreSQL containers
+ */
+@SpringBootTest(properties = {"helloworld.grpc.enabled=false", "helloworld.sharding.enabled=true",
+        "spring.datasource.hikari.allow-pool-suspension=true", "helloworld.retention.enabled=true"})
+@Testcontainers(disabledWithoutDocker = true)
+class GreetingsShardsTest {
+
+    private static final String IMAGE = "postgres:16-alpine";
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>(IMAGE);
+
+    @Container
+    static final PostgreSQLContainer<?> SHARD_1 = new PostgreSQLContainer<>(IMAGE);
+
+    @Container
+    static final PostgreSQLContainer<?> SHARD_2 = new PostgreSQLContainer<>(IMAGE);
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) {
+        final List<PostgreSQLContainer<?>> shards = List.of(SHARD_1, SHARD_2);
+        for (int i = 0; i < shards.size(); i++) {
+            final PostgreSQLContainer<?> shard = shards.get(i);
+            final String name = "shard-" + (i + 1);
+            final String prefix = "helloworld.sharding.shards[" + i + "].";
+            registry.add(prefix + "name", () -> name);
+            registry.add(prefix + "url", shard::getJdbcUrl);
+            registry.add(prefix + "username", shard::getUsername);
+            registry.add(prefix + "password", shard::getPassword);
+        }
+    }
+
+    @Autowired
+    private GreetingsShards greetingsShards;
+
+    @Autowired
+    private GreetingsService greetingsService;
+
+    @Autowired
+    private ConversationsService conversationsService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private RetentionJob retentionJob;
+
+    @Autowired
+    @Qualifier("shardPoolsCheckpointRestoreLifecycle")
+    private Lifecycle shardPools;
+
+    @Test
+    void greetingsAreStoredOnTheShardOfTheirRecipient() {
+        final String sender = "sender-" + UUID.randomUUID();
+        final List<Greetings> saved = IntStream.range(0, 30)
+                .mapToObj(i -> greetingsService.saveGreeting(greeting(sender, "recipient-" + i)))
+                .toList();
+
+        final Set<Shard> used = new HashSet<>();
+        for (Greetings greeting : saved) {
+            final Shard owner = greetingsShards.forRecipient(greeting.getRecipient());
+            used.add(owner);
+            for (Shard shard : greetingsShards.getShards()) {
+                final boolean stored = greetingsShards.read(shard, repository -> repository.existsById(greeting.getId()));
+                assertThat(stored)
+                        .as("greeting to %s on %s", greeting.getRecipient(), shard)
+                        .isEqualTo(shard == owner);
+            }
+        }
+        assertThat(used).hasSize(3);
+    }
+
+    @Test
+    void updateMovesAGreetingToTheShardOfItsNewRecipient() {
+        final Greetings saved = greetingsService.saveGreeting(greeting("mover", "recipient-0"));
+        final String newRecipient = IntStream.range(1, 100)
+                .mapToObj(i -> "recipient-" + i)
+                .filter(recipient -> greetingsShards.forRecipient(recipient) != greetingsShards.forRecipient("recipient-0"))
+                .findFirst()
+                .orElseThrow();
+
+        greetingsService.updateGreeting(saved.getId(), greeting("mover", newRecipient));
+
+        assertThat(greetingsShards.locate(saved.getId())).contains(greetingsShards.forRecipient(newRecipient));
+        assertThat(greetingsService.findGreetingById(saved.getId()))
+                .hasValueSatisfying(moved -> {
+                    assertThat(moved.getRecipient()).isEqualTo(newRecipient);
+                    assertThat(moved.getCreatedAt()).isEqualTo(saved.getCreatedAt());
+                });
+    }
+
+    @Test
+    void readsMergeAllShardsOrderedByCreationTime() {
+        final LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        final String sender = "sender-" + UUID.randomUUID();
+        final List<UUID> ids = greetingsService.saveGreetings(IntStream.range(0, 60)
+                        .mapToObj(i -> greeting(sender, "recipient-" + i))
+                        .toList())
+                .stream()
+                .map(Greetings::getId)
+                .toList();
+
+        final List<Greetings> bySender = greetingsService.findGreetingsBySender(sender);
+        assertThat(bySender).extracting(Greetings::getId).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(bySender).isSortedAccordingTo(GreetingsShards.CREATED_AT_ORDER);
+
+        final List<Greetings> after = greetingsService.findGreetingsAfterDate(before);
+        assertThat(after).extracting(Greetings::getId).containsAll(ids);
+        assertThat(after).isSortedAccordingTo(GreetingsShards.CREATED_AT_ORDER);
+
+        assertThat(greetingsService.countGreetings())
+                .isEqualTo(greetingsShards.scatter(GreetingsRepository::count).stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void additionalShardsDoNotMaintainPrimaryOnlyTables() {
+        greetingsService.saveGreetings(IntStream.range(0, 30)
+                .mapToObj(i -> greeting("logger", "recipient-" + i))
+                .toList());
+
+        for (Shard shard : greetingsShards.getShards()) {
+            if (shard == greetingsShards.primary()) {
+                continue;
+            }
+            final JdbcTemplate jdbc = new JdbcTemplate(shard.dataSource());
+            assertThat(jdbc.queryForObject("SELECT count(*) FROM helloworld.greetings_rollup_delta", Long.class))
+                    .as("delta log of %s", shard).isZero();
+            assertThat(jdbc.queryForObject("SELECT count(*) FROM helloworld.conversations", Long.class))
+                    .as("conversations of %s", shard).isZero();
+        }
+    }
+
+    @Test
+    void primaryOnlyReadsAreRejected() {
+        assertThatThrownBy(() -> conversationsService.findConversations("alice", null, 10))
+                .isInstanceOf(UnavailableWhileShardedException.class);
+        assertThatThrownBy(() -> conversationsService.findThread("alice", "bob", null, 10))
+                .isInstanceOf(UnavailableWhileShardedException.class);
+        assertThatThrownBy(() -> analyticsService.findTopSenders(10))
+                .isInstanceOf(UnavailableWhileShardedException.class);
+    }
+
+    @Test
+    void retentionArchivesExpiredGreetingsOnEveryShard() {
+        final String sender = "expired-" + UUID.randomUUID();
+        final List<UUID> ids = greetingsService.saveGreetings(IntStream.range(0, 30)
+                        .mapToObj(i -> greeting(sender, "recipient-" + i))
+                        .toList())
+                .stream()
+                .map(Greetings::getId)
+                .toList();
+        for (Shard shard : greetingsShards.getShards()) {
+            new JdbcTemplate(shard.dataSource()).update(
+                    "UPDATE helloworld.greetings SET created_at = created_at - INTERVAL '400 days' WHERE sender = ?", sender);
+        }
+
+        retentionJob.run();
+
+        for (Shard shard : greetingsShards.getShards()) {
+            final JdbcTemplate jdbc = new JdbcTemplate(shard.dataSource());
+            assertThat(jdbc.queryForObject("SELECT count(*) FROM helloworld.greetings WHERE sender = ?", Long.class, sender))
+                    .as("expired greetings left on %s", shard).isZero();
+            assertThat(jdbc.queryForObject("SELECT count(*) FROM helloworld.greetings_archive", Long.class))
+                    .as("archive of %s", shard).isPositive();
+        }
+        assertThat(ids).noneMatch(greetingsService::existsById);
+    }
+
+    @Test
+    void shardPoolsCloseTheirConnectionsForACheckpoint() {
+        final Shard shard = greetingsShards.getShards().getLast();
+        greetingsShards.read(shard, GreetingsRepository::count);
+
+        shardPools.stop();
+        assertThat(shardPools.isRunning()).isFalse();
+        final HikariDataSource pool = DataSourceUnwrapper.unwrap(shard.dataSource(), HikariConfigMXBean.class,
+                HikariDataSource.class);
+        assertThat(pool.getHikariPoolMXBean().getTotalConnections()).isZero();
+
+        shardPools.start();
+        assertThat(shardPools.isRunning()).isTrue();
+        final long count = greetingsShards.read(shard, GreetingsRepository::count);
+        assertThat(count).isNotNegative();
+    }
+
+    private static Greetings greeting(String sender, String recipient) {
+        return Greetings.builder().message("Hello " + recipient).sender(sender).recipient(recipient).build();
+    }
+}